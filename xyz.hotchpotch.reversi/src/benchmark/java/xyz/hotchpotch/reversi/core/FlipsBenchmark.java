@@ -0,0 +1,138 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * ひっくり返る石を求める2つの実装の処理速度を比較する、簡易的なベンチマークです。<br>
+ * <ul>
+ *   <li>{@link Flips#flips(long, long, int)} : ビルド時に生成された、位置ごとに特化した分岐による実装</li>
+ *   <li>{@link Bits#flipsByShift(long, long, int)} : 8方向のシフト演算による汎用の実装</li>
+ * </ul>
+ * ランダム対局から採取した局面と着手の組を繰り返し処理し、1手あたりの所要時間を標準出力に出力します。
+ * JIT コンパイルを安定させるため、計測の前にウォームアップを行います。<br>
+ * 
+ * @author nmby
+ */
+public class FlipsBenchmark {
+    
+    // [static members] ********************************************************
+    
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 10;
+    
+    /** 結果を捨てられて計算自体が最適化で除去されることを防ぐための変数 */
+    private static long sink;
+    
+    /**
+     * ベンチマークを実行します。<br>
+     * 
+     * @param args 第1引数に局面を採取するランダム対局の数（省略時は 2,000）
+     */
+    public static void main(String[] args) {
+        int games = 0 < args.length ? Integer.parseInt(args[0]) : 2_000;
+        
+        long[][] samples = sample(games, new Random(0));
+        System.out.printf("samples: %,d%n", samples[0].length);
+        
+        for (int r = 0; r < WARMUP_ROUNDS; r++) {
+            runGenerated(samples);
+            runShift(samples);
+        }
+        
+        long generated = 0;
+        long shift = 0;
+        for (int r = 0; r < MEASURE_ROUNDS; r++) {
+            generated += runGenerated(samples);
+            shift += runShift(samples);
+        }
+        
+        double n = (double) samples[0].length * MEASURE_ROUNDS;
+        System.out.printf("generated (Flips)  : %6.2f ns/move%n", generated / n);
+        System.out.printf("shift (Bits)       : %6.2f ns/move%n", shift / n);
+        System.out.println(sink == 42 ? "" : "done.");
+    }
+    
+    /**
+     * ランダム対局の途中の局面から、手番側の石・相手側の石・着手の組を採取します。<br>
+     * 
+     * @return {@code [own[], opp[], ord[]]}
+     */
+    private static long[][] sample(int games, Random random) {
+        List<long[]> list = new ArrayList<>();
+        
+        for (int g = 0; g < games; g++) {
+            long own = Board.initBoard().mask(Color.BLACK);
+            long opp = Board.initBoard().mask(Color.WHITE);
+            
+            while (true) {
+                long moves = Bits.puttables(own, opp);
+                if (moves == 0) {
+                    if (Bits.puttables(opp, own) == 0) {
+                        break;
+                    }
+                } else {
+                    for (long m = moves; m != 0; m &= m - 1) {
+                        list.add(new long[] { own, opp, Long.numberOfTrailingZeros(m) });
+                    }
+                    for (int n = random.nextInt(Long.bitCount(moves)); 0 < n; n--) {
+                        moves &= moves - 1;
+                    }
+                    int ord = Long.numberOfTrailingZeros(moves);
+                    long f = Flips.flips(own, opp, ord);
+                    own |= f | (1L << ord);
+                    opp &= ~f;
+                }
+                long tmp = own;
+                own = opp;
+                opp = tmp;
+            }
+        }
+        
+        long[][] samples = new long[3][list.size()];
+        for (int n = 0; n < list.size(); n++) {
+            samples[0][n] = list.get(n)[0];
+            samples[1][n] = list.get(n)[1];
+            samples[2][n] = list.get(n)[2];
+        }
+        return samples;
+    }
+    
+    private static long runGenerated(long[][] samples) {
+        long[] own = samples[0];
+        long[] opp = samples[1];
+        long[] ord = samples[2];
+        long acc = 0;
+        
+        long start = System.nanoTime();
+        for (int n = 0; n < own.length; n++) {
+            acc += Flips.flips(own[n], opp[n], (int) ord[n]);
+        }
+        long elapsed = System.nanoTime() - start;
+        
+        sink ^= acc;
+        return elapsed;
+    }
+    
+    private static long runShift(long[][] samples) {
+        long[] own = samples[0];
+        long[] opp = samples[1];
+        long[] ord = samples[2];
+        long acc = 0;
+        
+        long start = System.nanoTime();
+        for (int n = 0; n < own.length; n++) {
+            acc += Bits.flipsByShift(own[n], opp[n], (int) ord[n]);
+        }
+        long elapsed = System.nanoTime() - start;
+        
+        sink ^= acc;
+        return elapsed;
+    }
+    
+    // [instance members] ******************************************************
+    
+    private FlipsBenchmark() {
+    }
+}
@@ -0,0 +1,82 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * {@link GameBatch} によるランダムプレイアウトのスループットを、
+ * スカラー演算と Vector API のそれぞれについて計測する簡易的なベンチマークです。<br>
+ * 比較の基準として、1ゲームずつ {@link Bits} の関数で終局まで進める場合も計測します。<br>
+ * 
+ * @author nmby
+ */
+public class GameBatchBenchmark {
+    
+    // [static members] ********************************************************
+    
+    private static final int ROUNDS = 10;
+    
+    /**
+     * ベンチマークを実行します。<br>
+     * 
+     * @param args 第1引数にバッチあたりのゲーム数（省略時は 4,096）
+     */
+    public static void main(String[] args) {
+        int size = 0 < args.length ? Integer.parseInt(args[0]) : 4_096;
+        BatchKernel best = BatchKernel.best();
+        
+        System.out.printf("games per batch: %,d, vectorized: %b%n", size, best.isVectorized());
+        
+        for (int r = 0; r < ROUNDS; r++) {
+            long seed = r;
+            boolean print = r == ROUNDS - 1;
+            measure("one by one", size, print, () -> playOneByOne(size, new SplittableRandom(seed)));
+            measure("batch (scalar)", size, print,
+                    () -> new GameBatch(size, ScalarBatchKernel.INSTANCE).playRandom(new SplittableRandom(seed)));
+            if (best.isVectorized()) {
+                measure("batch (vector)", size, print,
+                        () -> new GameBatch(size, best).playRandom(new SplittableRandom(seed)));
+            }
+        }
+    }
+    
+    private static void measure(String name, int size, boolean print, Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        long elapsed = System.nanoTime() - start;
+        
+        if (print) {
+            System.out.printf("%-16s: %,10.0f games/s%n", name, size * 1e9 / elapsed);
+        }
+    }
+    
+    private static void playOneByOne(int size, SplittableRandom random) {
+        for (int g = 0; g < size; g++) {
+            long own = Board.initBoard().mask(Color.BLACK);
+            long opp = Board.initBoard().mask(Color.WHITE);
+            
+            while (true) {
+                long m = Bits.puttables(own, opp);
+                if (m == 0 && Bits.puttables(opp, own) == 0) {
+                    break;
+                }
+                if (m != 0) {
+                    for (int n = random.nextInt(Long.bitCount(m)); 0 < n; n--) {
+                        m &= m - 1;
+                    }
+                    int ord = Long.numberOfTrailingZeros(m);
+                    long f = Bits.flips(own, opp, ord);
+                    own |= f | (1L << ord);
+                    opp &= ~f;
+                }
+                long tmp = own;
+                own = opp;
+                opp = tmp;
+            }
+        }
+    }
+    
+    // [instance members] ******************************************************
+    
+    private GameBatchBenchmark() {
+    }
+}
@@ -0,0 +1,48 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@link EndgameSolver} で小さな盤面のゲーム開始時状態を読み切り、所要時間と探索局面数を計測する簡易的なベンチマークです。<br>
+ * コンソールの完全読み（{@code Menu.SOLVE}）と同じく、既定の設定のソルバーを用います。
+ * 並列度は、システムプロパティ {@code java.util.concurrent.ForkJoinPool.common.parallelism} で変更できます。<br>
+ * 
+ * @author nmby
+ */
+public class SolveBenchmark {
+    
+    // [static members] ********************************************************
+    
+    /**
+     * ベンチマークを実行します。<br>
+     * 
+     * @param args 第1引数に盤面サイズ（省略時は 6x6）、第2引数に制限時間の分数（省略時は 60）
+     */
+    public static void main(String[] args) {
+        Geometry geometry = 0 < args.length ? Geometry.parse(args[0]) : Geometry.of(6, 6);
+        int minutes = 1 < args.length ? Integer.parseInt(args[1]) : 60;
+        
+        System.out.printf("geometry: %s, processors: %d, parallelism: %d, time limit: %d min%n",
+                geometry,
+                Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.getCommonPoolParallelism(),
+                minutes);
+        
+        EndgameSolver solver = new EndgameSolver();
+        long start = System.nanoTime();
+        Integer score = solver.solve(VariantBoard.initial(geometry), Color.BLACK,
+                Instant.now().plus(minutes, ChronoUnit.MINUTES));
+        long elapsed = System.nanoTime() - start;
+        
+        System.out.printf("score   : %s%n", score == null ? "timed out" : "%+d (black)".formatted(score));
+        System.out.printf("time    : %,.1f s%n", elapsed / 1e9);
+        System.out.printf("nodes   : %,d (%,.0f nodes/s)%n", solver.nodes(), solver.nodes() * 1e9 / elapsed);
+    }
+    
+    // [instance members] ******************************************************
+    
+    private SolveBenchmark() {
+    }
+}
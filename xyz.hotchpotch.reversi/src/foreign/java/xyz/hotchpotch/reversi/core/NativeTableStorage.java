@@ -0,0 +1,62 @@
+package xyz.hotchpotch.reversi.core;
+
+import jdk.incubator.foreign.MemoryAccess;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+
+/**
+ * {@code jdk.incubator.foreign} の {@link MemorySegment} により Java ヒープ外にメモリを確保する
+ * {@link TableStorage} の実装です。<br>
+ * 数 GB に及ぶ置換表を確保してもガベージコレクションの対象とならず、配列の要素数の上限にも制約されません。
+ * 確保したメモリは、このインスタンスが到達不能となった後に解放されます（暗黙のスコープ）。<br>
+ * <br>
+ * このクラスは {@link TableStorage#offHeap(long)} からリフレクションによってのみ生成されます。
+ * {@code jdk.incubator.foreign} の API は JDK 17 のものであるため、このクラスは JDK 17 でビルドする場合にのみ
+ * コンパイルされる独立したソースセット（{@code src/foreign}）に置かれます。
+ * {@code jdk.incubator.foreign} モジュールが解決されていない実行環境では、このクラスのロードに失敗します。<br>
+ * 
+ * @author nmby
+ */
+/*package*/ final class NativeTableStorage implements TableStorage {
+    
+    // [static members] ********************************************************
+    
+    // [instance members] ******************************************************
+    
+    private final MemorySegment segment;
+    private final long length;
+    
+    /*package*/ NativeTableStorage(long length) {
+        assert 0 < length;
+        
+        // 暗黙のスコープは共有スコープであり、複数のスレッドからアクセスできる。
+        segment = MemorySegment.allocateNative(length * Long.BYTES, Long.BYTES, ResourceScope.newImplicitScope());
+        segment.fill((byte) 0);
+        this.length = length;
+    }
+    
+    @Override
+    public long get(long index) {
+        return MemoryAccess.getLongAtIndex(segment, index);
+    }
+    
+    @Override
+    public void set(long index, long value) {
+        MemoryAccess.setLongAtIndex(segment, index, value);
+    }
+    
+    @Override
+    public long length() {
+        return length;
+    }
+    
+    @Override
+    public void clear() {
+        segment.fill((byte) 0);
+    }
+    
+    @Override
+    public boolean isOffHeap() {
+        return true;
+    }
+}
@@ -0,0 +1,189 @@
+package xyz.hotchpotch.reversi.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ビルド時に {@code xyz.hotchpotch.reversi.core.Flips} のソースコードを生成するプログラムです。<br>
+ * <br>
+ * 生成されるクラスは、リバーシ盤の 64 の位置それぞれに特化した、
+ * ひっくり返る石を求める関数を持ちます。
+ * 各関数は、その位置から石を挟める（2マス以上先まで盤内に収まる）方向だけを、
+ * 盤端の判定を含まない定数マスクの分岐として展開したものです。
+ * 位置の通し番号による振り分けは {@code switch} 文で行います。<br>
+ * <br>
+ * 位置の通し番号は {@code xyz.hotchpotch.reversi.core.Point#ordinal()} と同じく
+ * {@code 8 * i + j}（i は行、j は列）です。<br>
+ * 
+ * @author nmby
+ */
+public class FlipsGenerator {
+    
+    // [static members] ********************************************************
+    
+    private static final int HEIGHT = 8;
+    private static final int WIDTH = 8;
+    
+    private static final String PACKAGE = "xyz.hotchpotch.reversi.core";
+    private static final String CLASS = "Flips";
+    
+    /** 方向の名前と行・列の増分（{@code xyz.hotchpotch.reversi.core.Direction} と同じ並び） */
+    private static final String[] DIR_NAMES = {
+            "UPPER", "UPPER_RIGHT", "RIGHT", "LOWER_RIGHT", "LOWER", "LOWER_LEFT", "LEFT", "UPPER_LEFT" };
+    private static final int[] DI = { -1, -1, 0, 1, 1, 1, 0, -1 };
+    private static final int[] DJ = { 0, 1, 1, 1, 0, -1, -1, -1 };
+    
+    /**
+     * 生成したソースコードを、指定されたディレクトリ配下のパッケージに対応する位置に書き出します。<br>
+     * 
+     * @param args 第1引数に出力先のソースディレクトリ
+     * @throws IOException 書き出しに失敗した場合
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("usage: FlipsGenerator <output source dir>");
+        }
+        
+        Path file = Path.of(args[0], PACKAGE.split("\\.")).resolve(CLASS + ".java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, generate(), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 生成するソースコードを返します。<br>
+     * 
+     * @return {@code Flips} クラスのソースコード
+     */
+    public static String generate() {
+        StringBuilder sb = new StringBuilder();
+        
+        sb.append("""
+                package %s;
+
+                /**
+                 * 位置ごとに特化した、ひっくり返る石を求める関数を集めたユーティリティクラスです。<br>
+                 * このクラスは {@code xyz.hotchpotch.reversi.generator.FlipsGenerator} により生成されたものです。
+                 * 直接編集しないでください。<br>
+                 *
+                 * @author nmby
+                 */
+                /*package*/ final class %s {
+
+                    // [static members] ********************************************************
+
+                    /**
+                     * 指定された位置に石を置いたときにひっくり返る石の位置をビットボードとして返します。<br>
+                     * 指定された位置が空いているかは検証しません。<br>
+                     *
+                     * @param own 手番側の石のビットボード
+                     * @param opp 相手側の石のビットボード
+                     * @param ord 石を置く位置の通し番号
+                     * @return ひっくり返る石のビットボード（石を置けない場合は {@code 0}）
+                     * @throws IndexOutOfBoundsException {@code ord} が範囲外の場合
+                     */
+                    /*package*/ static long flips(long own, long opp, int ord) {
+                        return switch (ord) {
+                """.formatted(PACKAGE, CLASS));
+        
+        for (int ord = 0; ord < HEIGHT * WIDTH; ord++) {
+            sb.append("        case %d -> %s(own, opp);\n".formatted(ord, methodName(ord)));
+        }
+        sb.append("""
+                        default -> throw new IndexOutOfBoundsException(ord);
+                        };
+                    }
+                """);
+        
+        for (int ord = 0; ord < HEIGHT * WIDTH; ord++) {
+            sb.append("\n");
+            appendMethod(sb, ord);
+        }
+        
+        sb.append("""
+
+                    // [instance members] ******************************************************
+
+                    private %s() {
+                    }
+                }
+                """.formatted(CLASS));
+        
+        return sb.toString();
+    }
+    
+    private static String methodName(int ord) {
+        return "flip" + Character.toUpperCase(pos(ord).charAt(0)) + pos(ord).charAt(1);
+    }
+    
+    private static String pos(int ord) {
+        return "%c%d".formatted('a' + ord % WIDTH, ord / WIDTH + 1);
+    }
+    
+    private static String hex(long mask) {
+        return "0x%016XL".formatted(mask);
+    }
+    
+    private static void appendMethod(StringBuilder sb, int ord) {
+        int i = ord / WIDTH;
+        int j = ord % WIDTH;
+        
+        sb.append("    private static long %s(long own, long opp) {\n".formatted(methodName(ord)));
+        sb.append("        long flips = 0L;\n");
+        
+        for (int d = 0; d < DIR_NAMES.length; d++) {
+            List<Integer> ray = new ArrayList<>();
+            for (int k = 1;; k++) {
+                int i2 = i + k * DI[d];
+                int j2 = j + k * DJ[d];
+                if (i2 < 0 || HEIGHT <= i2 || j2 < 0 || WIDTH <= j2) {
+                    break;
+                }
+                ray.add(i2 * WIDTH + j2);
+            }
+            
+            // 2マス以上先まで盤内に収まらない方向では、石を挟むことができない。
+            if (ray.size() < 2) {
+                continue;
+            }
+            
+            sb.append("\n");
+            sb.append("        // %s: %s -> %s\n".formatted(DIR_NAMES[d], pos(ord), pos(ray.get(ray.size() - 1))));
+            sb.append("        if ((opp & %s) != 0) {\n".formatted(hex(1L << ray.get(0))));
+            appendRay(sb, ray, 1, 1L << ray.get(0), 3);
+            sb.append("        }\n");
+        }
+        
+        sb.append("        return flips;\n");
+        sb.append("    }\n");
+    }
+    
+    /**
+     * 方向の n 番目までのマスが相手の石であることが分かっている状態から、続きの判定を書き出します。<br>
+     * 
+     * @param ray 方向に沿って並ぶマスの通し番号
+     * @param n 次に判定するマスの番号
+     * @param run 相手の石であることが分かっているマスのマスク
+     * @param depth インデントの深さ
+     */
+    private static void appendRay(StringBuilder sb, List<Integer> ray, int n, long run, int depth) {
+        String indent = "    ".repeat(depth);
+        long bit = 1L << ray.get(n);
+        
+        sb.append(indent).append("if ((own & %s) != 0) {\n".formatted(hex(bit)));
+        sb.append(indent).append("    flips |= %s;\n".formatted(hex(run)));
+        if (n + 1 < ray.size()) {
+            sb.append(indent).append("} else if ((opp & %s) != 0) {\n".formatted(hex(bit)));
+            appendRay(sb, ray, n + 1, run | bit, depth + 1);
+        }
+        sb.append(indent).append("}\n");
+    }
+    
+    // [instance members] ******************************************************
+    
+    private FlipsGenerator() {
+    }
+}
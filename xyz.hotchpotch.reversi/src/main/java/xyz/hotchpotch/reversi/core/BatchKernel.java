@@ -0,0 +1,68 @@
+package xyz.hotchpotch.reversi.core;
+
+/**
+ * 複数の局面に対して、石を置ける位置とひっくり返る石を一括して求める演算を表します。<br>
+ * 局面は、手番側の石の配置の配列と相手側の石の配置の配列（Structure of Arrays）として与えられ、
+ * 配列の同じ添字の要素が1つの局面を構成します。<br>
+ * 
+ * @author nmby
+ */
+/*package*/ interface BatchKernel {
+    
+    // [static members] ********************************************************
+    
+    /**
+     * この実行環境で利用できる最も高速な実装を返します。<br>
+     * {@code jdk.incubator.vector} モジュールが利用可能な場合は Vector API による実装を、
+     * そうでない場合はスカラー演算による実装を返します。
+     * システムプロパティ {@code reversi.batch.vector} に {@code false} が指定された場合は、
+     * 常にスカラー演算による実装を返します。<br>
+     * 
+     * @return 演算の実装
+     */
+    /*package*/ static BatchKernel best() {
+        if (!"false".equals(System.getProperty("reversi.batch.vector"))) {
+            try {
+                // jdk.incubator.vector モジュールが解決されていない場合は、クラスのロード時にエラーとなる。
+                return (BatchKernel) Class.forName("xyz.hotchpotch.reversi.core.VectorBatchKernel")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // スカラー演算による実装にフォールバックする。
+            }
+        }
+        return ScalarBatchKernel.INSTANCE;
+    }
+    
+    // [instance members] ******************************************************
+    
+    /**
+     * 先頭から {@code n} 個の局面について、手番側の石を置ける位置を求めます。<br>
+     * 
+     * @param own 手番側の石の配置
+     * @param opp 相手側の石の配置
+     * @param dst 石を置ける位置の格納先
+     * @param n 局面の数
+     */
+    void puttables(long[] own, long[] opp, long[] dst, int n);
+    
+    /**
+     * 先頭から {@code n} 個の局面について、指定された位置に手番側の石を置いたときにひっくり返る石を求めます。<br>
+     * 石を置く位置が {@code 0} の局面については {@code 0} を格納します。
+     * 石を置く位置が空いているかは検証しません。<br>
+     * 
+     * @param own 手番側の石の配置
+     * @param opp 相手側の石の配置
+     * @param put 石を置く位置（1ビットだけが立ったマスク、または {@code 0}）
+     * @param dst ひっくり返る石の格納先
+     * @param n 局面の数
+     */
+    void flips(long[] own, long[] opp, long[] put, long[] dst, int n);
+    
+    /**
+     * この実装がベクトル演算を用いるかを返します。<br>
+     * 
+     * @return ベクトル演算を用いる場合は {@code true}
+     */
+    boolean isVectorized();
+}
@@ -0,0 +1,191 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.Objects;
+
+/**
+ * 黒白それぞれの石の配置を 64 ビットのビットボードで保持する {@link Board} の実装です。
+ * このクラスは不変です。<br>
+ * 
+ * @author nmby
+ */
+/*package*/ final class BitBoard implements Board {
+    
+    // [static members] ********************************************************
+    
+    /** ゲーム開始時の黒石の配置 */
+    private static final long INIT_BLACK = (1L << Point.of("e4").ordinal()) | (1L << Point.of("d5").ordinal());
+    
+    /** ゲーム開始時の白石の配置 */
+    private static final long INIT_WHITE = (1L << Point.of("d4").ordinal()) | (1L << Point.of("e5").ordinal());
+    
+    // [instance members] ******************************************************
+    
+    /** 黒石の配置 */
+    private final long black;
+    
+    /** 白石の配置 */
+    private final long white;
+    
+    /** 石の配置の Zobrist ハッシュ */
+    private final long key;
+    
+    /**
+     * 石の配置から導出される値。初回の問い合わせ時に算出します。
+     * {@link DerivedData} は不変であるため、volatile とせずに保持します。
+     */
+    private DerivedData derived;
+    
+    /*package*/ BitBoard() {
+        this(INIT_BLACK, INIT_WHITE);
+    }
+    
+    /*package*/ BitBoard(Board board) {
+        this(board.mask(Color.BLACK), board.mask(Color.WHITE));
+    }
+    
+    /*package*/ BitBoard(long black, long white) {
+        this(black, white, Bits.zobrist(black, white));
+    }
+    
+    /*package*/ BitBoard(long black, long white, long key) {
+        assert (black & white) == 0;
+        assert key == Bits.zobrist(black, white);
+        
+        this.black = black;
+        this.white = white;
+        this.key = key;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    @Override
+    public long mask(Color color) {
+        Objects.requireNonNull(color, "color");
+        
+        return color == Color.BLACK ? black : white;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws NullPointerException {@code point} が {@code null} の場合
+     */
+    @Override
+    public Color colorAt(Point point) {
+        Objects.requireNonNull(point, "point");
+        
+        long bit = point.bit();
+        return (black & bit) != 0
+                ? Color.BLACK
+                : (white & bit) != 0 ? Color.WHITE : null;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    @Override
+    public int count(Color color) {
+        Objects.requireNonNull(color, "color");
+        
+        return Long.bitCount(color == Color.BLACK ? black : white);
+    }
+    
+    @Override
+    public int empties() {
+        return Long.bitCount(~(black | white));
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    @Override
+    public long puttables(Color color) {
+        Objects.requireNonNull(color, "color");
+        
+        return derived().puttables(color);
+    }
+    
+    private DerivedData derived() {
+        DerivedData d = derived;
+        if (d == null) {
+            d = new DerivedData(black, white);
+            derived = d;
+        }
+        return d;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws NullPointerException {@code move} が {@code null} の場合
+     * @throws IllegalArgumentException このリバーシ盤に指定された手を適用できない場合
+     */
+    @Override
+    public Board getApplied(Move move) {
+        Objects.requireNonNull(move, "move");
+        
+        if (move.point() == null) {
+            if (Rule.canPut(this, move.color())) {
+                throw new IllegalArgumentException("illegal move");
+            }
+            return this;
+        }
+        
+        long own = mask(move.color());
+        long opp = mask(move.color().reversed());
+        long put = 1L << move.point().ordinal();
+        long flips = ((own | opp) & put) == 0
+                ? Bits.flips(own, opp, move.point().ordinal())
+                : 0L;
+        
+        if (flips == 0) {
+            throw new IllegalArgumentException("illegal move");
+        }
+        
+        own |= put | flips;
+        opp &= ~flips;
+        long newKey = key ^ Bits.zobristDelta(move.color(), move.point().ordinal(), flips);
+        
+        return move.color() == Color.BLACK
+                ? new BitBoard(own, opp, newKey)
+                : new BitBoard(opp, own, newKey);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、手の適用のたびに差分更新した値を保持しており、それを返します。<br>
+     */
+    @Override
+    public long zobristKey() {
+        return key;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof BitBoard b) {
+            return key == b.key && black == b.black && white == b.white;
+        }
+        if (o instanceof Board b) {
+            return Board.equals(this, b);
+        }
+        return false;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Board.hashCode(this);
+    }
+    
+    @Override
+    public String toString() {
+        return Board.toString(this);
+    }
+}
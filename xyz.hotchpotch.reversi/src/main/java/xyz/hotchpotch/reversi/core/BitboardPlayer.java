@@ -0,0 +1,95 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.Objects;
+
+/**
+ * 石の配置を 64 ビットのマスクとして受け取り、自身の手を位置の通し番号として返すプレーヤーを表します。<br>
+ * マスクの第 n ビットは、通し番号 n の位置（{@link Point#ordinal()} 参照）に対応します。<br>
+ * <br>
+ * 独自のビットボードを持つ思考エンジンは、このインタフェースを実装することで
+ * {@link Board#colorAt(Point)} を介して盤面を写し取る手間を省くことができます。
+ * このインタフェースは {@link Player} を継承しており、
+ * {@link #decide(Board, Color, long)} は {@link #decide(long, long, Color, long)} に委譲するアダプタとして実装されています。
+ * ゲームの実行環境は、このインタフェースを実装するプレーヤーに対しては
+ * {@link #decide(long, long, Color, long)} を直接呼び出します。<br>
+ * <br>
+ * 既存の {@link Player} をこのインタフェースに適合させるには {@link #of(Player)} を用います。<br>
+ * 
+ * @author nmby
+ */
+@FunctionalInterface
+public interface BitboardPlayer extends Player {
+    
+    // [static members] ********************************************************
+    
+    /** パスを表す戻り値 */
+    public static final int PASS = -1;
+    
+    /**
+     * 指定された {@link Player} を {@link BitboardPlayer} に適合させたものを返します。<br>
+     * 指定されたプレーヤーが既に {@link BitboardPlayer} である場合は、そのまま返します。
+     * そうでない場合は、マスクから不変のリバーシ盤を生成して元のプレーヤーに委譲するアダプタを返します。<br>
+     * 
+     * @param player プレーヤー
+     * @return {@link BitboardPlayer} に適合させたプレーヤー
+     * @throws NullPointerException {@code player} が {@code null} の場合
+     */
+    public static BitboardPlayer of(Player player) {
+        Objects.requireNonNull(player, "player");
+        
+        if (player instanceof BitboardPlayer bp) {
+            return bp;
+        }
+        
+        return new BitboardPlayer() {
+            @Override
+            public int decide(long black, long white, Color color, long remainingMillis) {
+                if ((black & white) != 0) {
+                    throw new IllegalArgumentException(
+                            "overlapping discs: %016x, %016x".formatted(black, white));
+                }
+                Point point = player.decide(new BitBoard(black, white), color, remainingMillis);
+                return point == null ? PASS : point.ordinal();
+            }
+            
+            @Override
+            public Point decide(Board board, Color color, long remainingMillis) {
+                return player.decide(board, color, remainingMillis);
+            }
+            
+            @Override
+            public String toString() {
+                return player.toString();
+            }
+        };
+    }
+    
+    // [instance members] ******************************************************
+    
+    /**
+     * この手番における自身の手（石を置く位置の通し番号）を返します。
+     * パスの場合は {@link #PASS} を返す必要があります。<br>
+     * 
+     * @param black 黒石の配置を表すマスク
+     * @param white 白石の配置を表すマスク
+     * @param color このプレーヤーの色
+     * @param remainingMillis 残り持ち時間（ミリ秒）
+     * @return 石を置く位置の通し番号（パスの場合は {@link #PASS}）
+     */
+    int decide(long black, long white, Color color, long remainingMillis);
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、指定されたリバーシ盤の石の配置をマスクとして取り出し、
+     * {@link #decide(long, long, Color, long)} に委譲します。<br>
+     * 
+     * @throws IndexOutOfBoundsException {@link #decide(long, long, Color, long)} が
+     *                                   {@link #PASS} でも位置の通し番号でもない値を返した場合
+     */
+    @Override
+    default Point decide(Board board, Color color, long remainingMillis) {
+        int ordinal = decide(board.mask(Color.BLACK), board.mask(Color.WHITE), color, remainingMillis);
+        return ordinal == PASS ? null : Point.ofOrdinal(ordinal);
+    }
+}
@@ -0,0 +1,204 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * リバーシ盤を 64 ビットのビットボードとして扱うための関数を集めたユーティリティクラスです。<br>
+ * ビットボードの各ビットは {@link Point#ordinal()} に対応します。<br>
+ * 
+ * @author nmby
+ */
+/*package*/ class Bits {
+    
+    // [static members] ********************************************************
+    
+    /** 左端の列（a列）を表すマスク */
+    private static final long FILE_A = 0x0101010101010101L;
+    
+    /** 右端の列（h列）を表すマスク */
+    private static final long FILE_H = 0x8080808080808080L;
+    
+    /** 左右端の列（a列, h列）を除くマスク */
+    private static final long INNER_FILES = ~(FILE_A | FILE_H);
+    
+    /** 各色・各位置の石に割り当てる Zobrist ハッシュの乱数表 */
+    private static final long[][] ZOBRIST = new long[Color.values().length][Point.HEIGHT * Point.WIDTH];
+    
+    /** 各位置の石の色を反転させたときの Zobrist ハッシュの差分 */
+    private static final long[] ZOBRIST_FLIP = new long[Point.HEIGHT * Point.WIDTH];
+    
+    /** {@link Direction} の各方向に対応するシフト量 */
+    private static final int[] SHIFTS = new int[Direction.values().length];
+    
+    /** {@link Direction} の各方向にシフトした後に、盤外へのはみ出しを取り除くためのマスク */
+    private static final long[] WRAPS = new long[Direction.values().length];
+    
+    static {
+        assert Point.HEIGHT == 8 && Point.WIDTH == 8;
+        
+        for (Direction d : Direction.values()) {
+            SHIFTS[d.ordinal()] = Point.WIDTH * d.di + d.dj;
+            WRAPS[d.ordinal()] = d.dj == 1 ? ~FILE_A : d.dj == -1 ? ~FILE_H : -1L;
+        }
+        
+        // 実行のたびに同じ値となるよう、固定のシードを用いる。
+        SplittableRandom random = new SplittableRandom(0x5EED_2EB3_851L);
+        for (int ord = 0; ord < ZOBRIST_FLIP.length; ord++) {
+            ZOBRIST[Color.BLACK.ordinal()][ord] = random.nextLong();
+            ZOBRIST[Color.WHITE.ordinal()][ord] = random.nextLong();
+            ZOBRIST_FLIP[ord] = ZOBRIST[Color.BLACK.ordinal()][ord] ^ ZOBRIST[Color.WHITE.ordinal()][ord];
+        }
+    }
+    
+    /**
+     * 指定されたビットボードを指定された方向に1マス分ずらしたビットボードを返します。<br>
+     * 
+     * @param bits ビットボード
+     * @param dir 方向（{@link Direction#ordinal()}）
+     * @return 指定された方向に1マス分ずらしたビットボード
+     */
+    /*package*/ static long shift(long bits, int dir) {
+        int s = SHIFTS[dir];
+        return (0 < s ? bits << s : bits >>> -s) & WRAPS[dir];
+    }
+    
+    /**
+     * 指定された位置に石を置いたときにひっくり返る石の位置をビットボードとして返します。<br>
+     * 指定された位置が空いているかは検証しません。<br>
+     * 
+     * @param own 手番側の石のビットボード
+     * @param opp 相手側の石のビットボード
+     * @param ord 石を置く位置の通し番号
+     * @return ひっくり返る石のビットボード（石を置けない場合は {@code 0}）
+     */
+    /*package*/ static long flips(long own, long opp, int ord) {
+        return Flips.flips(own, opp, ord);
+    }
+    
+    /**
+     * 指定された位置に石を置いたときにひっくり返る石の位置を、8方向のシフト演算により求めて返します。<br>
+     * {@link #flips(long, long, int)} と同じ結果を返します。
+     * 生成コードによる実装の検証と性能比較の基準として残しているものです。<br>
+     * 
+     * @param own 手番側の石のビットボード
+     * @param opp 相手側の石のビットボード
+     * @param ord 石を置く位置の通し番号
+     * @return ひっくり返る石のビットボード（石を置けない場合は {@code 0}）
+     */
+    /*package*/ static long flipsByShift(long own, long opp, int ord) {
+        long put = 1L << ord;
+        long flips = 0L;
+        
+        // 各方向について、置いた石から連続する相手の石を（最大6個まで）分岐なしで塗り広げ、
+        // その先に自分の石がある場合に限りひっくり返す。
+        for (int dir = 0; dir < SHIFTS.length; dir++) {
+            long line = shift(put, dir) & opp;
+            line |= shift(line, dir) & opp;
+            line |= shift(line, dir) & opp;
+            line |= shift(line, dir) & opp;
+            line |= shift(line, dir) & opp;
+            line |= shift(line, dir) & opp;
+            
+            flips |= (shift(line, dir) & own) != 0 ? line : 0L;
+        }
+        return flips;
+    }
+    
+    /**
+     * 指定された色の石を置ける位置をビットボードとして返します。<br>
+     * 8方向それぞれについて、相手の石の連なりをシフト演算の並列プレフィックスで求めることで、
+     * 分岐なしで全ての位置を一度に判定します。<br>
+     * 
+     * @param own 手番側の石のビットボード
+     * @param opp 相手側の石のビットボード
+     * @return 石を置ける位置のビットボード
+     */
+    /*package*/ static long puttables(long own, long opp) {
+        long inner = opp & INNER_FILES;
+        
+        long moves = puttables(own, inner, 1)
+                | puttables(own, opp, Point.WIDTH)
+                | puttables(own, inner, Point.WIDTH - 1)
+                | puttables(own, inner, Point.WIDTH + 1);
+        
+        return moves & ~(own | opp);
+    }
+    
+    /**
+     * 互いに逆向きの2方向について、石を置ける位置の候補をビットボードとして返します。<br>
+     * 
+     * @param own 手番側の石のビットボード
+     * @param opp 相手側の石のビットボードのうち、この方向の連なりを構成し得るもの
+     * @param s シフト量
+     * @return 石を置ける位置の候補（空きマスであるかは考慮しない）
+     */
+    private static long puttables(long own, long opp, int s) {
+        int s2 = s + s;
+        
+        // 左シフト方向
+        long l = opp & (own << s);
+        l |= opp & (l << s);
+        long pl = opp & (opp << s);
+        l |= pl & (l << s2);
+        l |= pl & (l << s2);
+        
+        // 右シフト方向
+        long r = opp & (own >>> s);
+        r |= opp & (r >>> s);
+        long pr = opp & (opp >>> s);
+        r |= pr & (r >>> s2);
+        r |= pr & (r >>> s2);
+        
+        return (l << s) | (r >>> s);
+    }
+    
+    /**
+     * 指定された石の配置の Zobrist ハッシュを返します。<br>
+     * 
+     * @param black 黒石のビットボード
+     * @param white 白石のビットボード
+     * @return Zobrist ハッシュ
+     */
+    /*package*/ static long zobrist(long black, long white) {
+        long key = 0L;
+        for (long bits = black; bits != 0; bits &= bits - 1) {
+            key ^= ZOBRIST[Color.BLACK.ordinal()][Long.numberOfTrailingZeros(bits)];
+        }
+        for (long bits = white; bits != 0; bits &= bits - 1) {
+            key ^= ZOBRIST[Color.WHITE.ordinal()][Long.numberOfTrailingZeros(bits)];
+        }
+        return key;
+    }
+    
+    /**
+     * 石を1つ置き、いくつかの石をひっくり返したときの Zobrist ハッシュの差分を返します。<br>
+     * 手を適用する前のハッシュとこの差分との排他的論理和が、手を適用した後のハッシュとなります。<br>
+     * 
+     * @param color 置く石の色
+     * @param ord 石を置く位置の通し番号
+     * @param flips ひっくり返す石のビットボード
+     * @return Zobrist ハッシュの差分
+     */
+    /*package*/ static long zobristDelta(Color color, int ord, long flips) {
+        long delta = ZOBRIST[color.ordinal()][ord];
+        for (long bits = flips; bits != 0; bits &= bits - 1) {
+            delta ^= ZOBRIST_FLIP[Long.numberOfTrailingZeros(bits)];
+        }
+        return delta;
+    }
+    
+    /**
+     * 指定されたリバーシ盤が石の配置をビットボードとして保持しているかを返します。<br>
+     * 
+     * @param board リバーシ盤
+     * @return {@link Board#mask(Color)} が盤面全体を走査せずに値を返せる場合は {@code true}
+     */
+    /*package*/ static boolean hasMasks(Board board) {
+        return board instanceof BitBoard || board instanceof MutableBoard;
+    }
+    
+    // [instance members] ******************************************************
+    
+    private Bits() {
+    }
+}
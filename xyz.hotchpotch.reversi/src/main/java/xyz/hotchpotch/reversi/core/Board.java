@@ -20,12 +20,13 @@ public interface Board {
      * @return ゲーム開始時状態のリバーシ盤
      */
     public static Board initBoard() {
-        return new BoardImpl();
+        return new BitBoard();
     }
     
     /**
      * 2つのリバーシ盤が等価か否かを返します。
      * ここで言う等価であるとは、石の配置が同じであることを意味します。<br>
+     * 両者の {@link #zobristKey()} が異なる場合は、石の配置を比較することなく {@code false} を返します。<br>
      * 
      * @param board1 リバーシ盤1
      * @param board2 リバーシ盤2
@@ -36,13 +37,18 @@ public interface Board {
         Objects.requireNonNull(board1, "board1");
         Objects.requireNonNull(board2, "board2");
         
-        return board1 == board2
-                || Point.stream().allMatch(p -> board1.colorAt(p) == board2.colorAt(p));
+        if (board1 == board2) {
+            return true;
+        }
+        if (board1.zobristKey() != board2.zobristKey()) {
+            return false;
+        }
+        return Point.stream().allMatch(p -> board1.colorAt(p) == board2.colorAt(p));
     }
     
     /**
      * 指定されたリバーシ盤のハッシュ値を返します。<br>
-     * リバーシ盤のハッシュ値は、リバーシ盤と同じ内容を保持する {@link Map} のハッシュ値として定義されます。<br>
+     * リバーシ盤のハッシュ値は、{@link #zobristKey()} の上位32ビットと下位32ビットの排他的論理和として定義されます。<br>
      * 
      * @param board リバーシ盤
      * @return 指定されたリバーシ盤のハッシュ値
@@ -51,7 +57,7 @@ public interface Board {
     public static int hashCode(Board board) {
         Objects.requireNonNull(board, "board");
         
-        return boardToMap(board).hashCode();
+        return Long.hashCode(board.zobristKey());
     }
     
     /**
@@ -118,6 +124,40 @@ public interface Board {
                 .collect(Collectors.joining());
     }
     
+    /**
+     * {@link #toStringInline(Board)} の形式の文字列を解析し、リバーシ盤を返します。<br>
+     * 文字列を先頭から一度だけ走査して石の配置を組み立てるため、
+     * 手を順に適用してリバーシ盤を再現するよりも高速です。<br>
+     * 
+     * @param str {@link #toStringInline(Board)} の形式の文字列
+     * @return 文字列が表すリバーシ盤
+     * @throws NullPointerException {@code str} が {@code null} の場合
+     * @throws IllegalArgumentException {@code str} の形式が不正な場合
+     */
+    public static Board parseInline(String str) {
+        Objects.requireNonNull(str, "str");
+        if (str.length() != Point.HEIGHT * Point.WIDTH) {
+            throw new IllegalArgumentException("illegal length: %d".formatted(str.length()));
+        }
+        
+        char blackChar = Color.BLACK.toString().charAt(0);
+        char whiteChar = Color.WHITE.toString().charAt(0);
+        long black = 0L;
+        long white = 0L;
+        
+        for (int n = 0; n < str.length(); n++) {
+            char c = str.charAt(n);
+            if (c == blackChar) {
+                black |= 1L << n;
+            } else if (c == whiteChar) {
+                white |= 1L << n;
+            } else if (c != '・') {
+                throw new IllegalArgumentException("illegal character at %d: %s".formatted(n, str));
+            }
+        }
+        return new BitBoard(black, white);
+    }
+    
     // [instance members] ******************************************************
     
     /**
@@ -128,18 +168,135 @@ public interface Board {
      */
     Color colorAt(Point point);
     
+    /**
+     * このリバーシ盤上の指定された色の石の配置を、64 ビットのマスクとして返します。<br>
+     * マスクの第 n ビットは、通し番号 n の位置（{@link Point#ordinal()} 参照）に対応します。<br>
+     * <br>
+     * この実装は、全ての位置の石の色を調べて値を算出します。
+     * 石の配置をビットボードとして保持する実装クラスは、保持している値を直接返します。<br>
+     * 
+     * @param color 石の色
+     * @return 指定された色の石の配置のマスク
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    default long mask(Color color) {
+        Objects.requireNonNull(color, "color");
+        
+        long mask = 0L;
+        for (Point p : Point.values()) {
+            if (colorAt(p) == color) {
+                mask |= p.bit();
+            }
+        }
+        return mask;
+    }
+    
+    /**
+     * このリバーシ盤上の指定された色の石の数を返します。<br>
+     * 
+     * @param color 石の色
+     * @return 指定された色の石の数
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    default int count(Color color) {
+        return Long.bitCount(mask(color));
+    }
+    
+    /**
+     * このリバーシ盤上の空きマスの数を返します。<br>
+     * 
+     * @return 空きマスの数
+     */
+    default int empties() {
+        return Long.bitCount(~(mask(Color.BLACK) | mask(Color.WHITE)));
+    }
+    
+    /**
+     * このリバーシ盤上の、指定された色の石の数から相手の色の石の数を引いた値を返します。<br>
+     * 
+     * @param color 石の色
+     * @return 指定された色の石の数と相手の色の石の数の差
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    default int discDifference(Color color) {
+        return count(color) - count(color.reversed());
+    }
+    
     /**
      * このリバーシ盤上の黒白それぞれの石の数を返します。<br>
+     * 石の数だけが必要な場合は、オブジェクトを生成しない {@link #count(Color)} を用いてください。
+     * この実装は、呼び出しのたびに {@link #count(Color)} の値からマップを生成します。<br>
      * 
      * @return 黒白それぞれの石の数
      */
     default Map<Color, Integer> counts() {
-        int black = (int) Point.stream().filter(p -> colorAt(p) == Color.BLACK).count();
-        int white = (int) Point.stream().filter(p -> colorAt(p) == Color.WHITE).count();
-        
         return Map.of(
-                Color.BLACK, black,
-                Color.WHITE, white);
+                Color.BLACK, count(Color.BLACK),
+                Color.WHITE, count(Color.WHITE));
+    }
+    
+    /**
+     * このリバーシ盤に指定された色の石を置ける位置のマスクを返します。<br>
+     * マスクの各ビットは {@link Point#ordinal()} に対応します。<br>
+     * <br>
+     * この実装は、呼び出しのたびに石の配置から値を算出します。
+     * 不変な実装クラスは、初回の呼び出しで黒白両方の値を算出して保持し、以降はその値を返します。<br>
+     * 
+     * @param color 石の色
+     * @return 石を置ける位置のマスク
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    default long puttables(Color color) {
+        Objects.requireNonNull(color, "color");
+        
+        return Bits.puttables(mask(color), mask(color.reversed()));
+    }
+    
+    /**
+     * このリバーシ盤の石の配置に対する 64 ビットのハッシュ値（Zobrist ハッシュ）を返します。<br>
+     * 石の配置が同じリバーシ盤は、実装クラスに関わらず同じ値を返します。
+     * 石の無いリバーシ盤の値は {@code 0} です。
+     * また、値は実行のたびに変わることはありません。<br>
+     * <br>
+     * この実装は、全ての位置の石の色を調べて値を算出します。
+     * 実装クラスは、手の適用に応じて差分更新した値を保持するなどして、
+     * より効率的な実装を提供することが推奨されます。<br>
+     * 
+     * @return Zobrist ハッシュ
+     */
+    default long zobristKey() {
+        return Bits.zobrist(this.mask(Color.BLACK), this.mask(Color.WHITE));
+    }
+    
+    /**
+     * このリバーシ盤に指定された色の石を置ける全ての手について、手を適用した後の局面（子局面）を
+     * 一括して展開し、指定されたバッファに格納します。<br>
+     * 石を置ける位置の判定は一度だけ行われ、各手を {@link #getApplied(Move)} で個別に適用するよりも効率的です。
+     * 石を置ける位置が無い場合、バッファの {@link Children#size()} は {@code 0} となります。<br>
+     * 
+     * @param color 石の色
+     * @param buffer 結果を格納するバッファ
+     * @return 結果を格納した {@code buffer}
+     * @throws NullPointerException {@code color}, {@code buffer} のいずれかが {@code null} の場合
+     */
+    default Children children(Color color, Children buffer) {
+        Objects.requireNonNull(color, "color");
+        Objects.requireNonNull(buffer, "buffer");
+        
+        buffer.expand(mask(Color.BLACK), mask(Color.WHITE), zobristKey(), color);
+        return buffer;
+    }
+    
+    /**
+     * このリバーシ盤に指定された色の石を置ける全ての手について、子局面を一括して展開して返します。<br>
+     * 詳しくは {@link #children(Color, Children)} を参照してください。<br>
+     * 
+     * @param color 石の色
+     * @return 子局面を格納した新たなバッファ
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    default Children children(Color color) {
+        return children(color, new Children());
     }
     
     /**
@@ -0,0 +1,157 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * リバーシ盤と {@link ByteBuffer} との間で、固定長のバイナリ表現を相互に変換する関数を集めたユーティリティクラスです。<br>
+ * <br>
+ * リバーシ盤は、黒石のマスクと白石のマスク（{@link Board#mask(Color)} 参照）を
+ * この順に {@code long} 値として書き込んだ {@value #BYTES} バイトで表現されます。
+ * 2つのマスクで 128 ビットを使い切るため、手番を併せて記録する場合は
+ * {@link #putTurn(ByteBuffer, Color)} により {@value #TURN_BYTES} バイトを追加で書き込みます。<br>
+ * バイト順序はバッファの設定（{@link ByteBuffer#order()}）に従います。<br>
+ * <br>
+ * 棋譜や定石データ、テスト用の局面などを、手を順に適用して再現することなく高速に読み書きするために用います。<br>
+ * 
+ * @author nmby
+ */
+public class BoardCodec {
+    
+    // [static members] ********************************************************
+    
+    /** リバーシ盤のバイナリ表現のバイト数 */
+    public static final int BYTES = 2 * Long.BYTES;
+    
+    /** 手番のバイナリ表現のバイト数 */
+    public static final int TURN_BYTES = 1;
+    
+    /**
+     * 指定されたリバーシ盤のバイナリ表現を、バッファの現在位置に書き込みます。
+     * バッファの位置は {@value #BYTES} だけ進みます。<br>
+     * 
+     * @param dst 書き込み先のバッファ
+     * @param board リバーシ盤
+     * @throws NullPointerException {@code dst}, {@code board} のいずれかが {@code null} の場合
+     * @throws BufferOverflowException バッファの残りが {@value #BYTES} バイトに満たない場合
+     */
+    public static void put(ByteBuffer dst, Board board) {
+        Objects.requireNonNull(dst, "dst");
+        Objects.requireNonNull(board, "board");
+        if (dst.remaining() < BYTES) {
+            throw new BufferOverflowException();
+        }
+        
+        dst.putLong(board.mask(Color.BLACK));
+        dst.putLong(board.mask(Color.WHITE));
+    }
+    
+    /**
+     * 指定されたリバーシ盤のバイナリ表現を、バッファの指定された位置に書き込みます。
+     * バッファの位置は変わりません。<br>
+     * 
+     * @param dst 書き込み先のバッファ
+     * @param index 書き込みを開始する位置
+     * @param board リバーシ盤
+     * @throws NullPointerException {@code dst}, {@code board} のいずれかが {@code null} の場合
+     * @throws IndexOutOfBoundsException {@code index} から {@value #BYTES} バイトがバッファの範囲外となる場合
+     */
+    public static void put(ByteBuffer dst, int index, Board board) {
+        Objects.requireNonNull(dst, "dst");
+        Objects.requireNonNull(board, "board");
+        Objects.checkFromIndexSize(index, BYTES, dst.limit());
+        
+        dst.putLong(index, board.mask(Color.BLACK));
+        dst.putLong(index + Long.BYTES, board.mask(Color.WHITE));
+    }
+    
+    /**
+     * バッファの現在位置からリバーシ盤のバイナリ表現を読み込みます。
+     * バッファの位置は {@value #BYTES} だけ進みます。<br>
+     * 
+     * @param src 読み込み元のバッファ
+     * @return 読み込んだリバーシ盤
+     * @throws NullPointerException {@code src} が {@code null} の場合
+     * @throws BufferUnderflowException バッファの残りが {@value #BYTES} バイトに満たない場合
+     * @throws IllegalArgumentException 黒石と白石が同じ位置に置かれているなど、読み込んだ値が不正な場合
+     */
+    public static Board get(ByteBuffer src) {
+        Objects.requireNonNull(src, "src");
+        if (src.remaining() < BYTES) {
+            throw new BufferUnderflowException();
+        }
+        
+        long black = src.getLong();
+        long white = src.getLong();
+        return toBoard(black, white);
+    }
+    
+    /**
+     * バッファの指定された位置からリバーシ盤のバイナリ表現を読み込みます。
+     * バッファの位置は変わりません。<br>
+     * 
+     * @param src 読み込み元のバッファ
+     * @param index 読み込みを開始する位置
+     * @return 読み込んだリバーシ盤
+     * @throws NullPointerException {@code src} が {@code null} の場合
+     * @throws IndexOutOfBoundsException {@code index} から {@value #BYTES} バイトがバッファの範囲外となる場合
+     * @throws IllegalArgumentException 黒石と白石が同じ位置に置かれているなど、読み込んだ値が不正な場合
+     */
+    public static Board get(ByteBuffer src, int index) {
+        Objects.requireNonNull(src, "src");
+        Objects.checkFromIndexSize(index, BYTES, src.limit());
+        
+        return toBoard(src.getLong(index), src.getLong(index + Long.BYTES));
+    }
+    
+    /**
+     * 指定された手番のバイナリ表現を、バッファの現在位置に書き込みます。
+     * バッファの位置は {@value #TURN_BYTES} だけ進みます。<br>
+     * 
+     * @param dst 書き込み先のバッファ
+     * @param turn 手番
+     * @throws NullPointerException {@code dst}, {@code turn} のいずれかが {@code null} の場合
+     * @throws BufferOverflowException バッファに空きが無い場合
+     */
+    public static void putTurn(ByteBuffer dst, Color turn) {
+        Objects.requireNonNull(dst, "dst");
+        Objects.requireNonNull(turn, "turn");
+        
+        dst.put((byte) turn.ordinal());
+    }
+    
+    /**
+     * バッファの現在位置から手番のバイナリ表現を読み込みます。
+     * バッファの位置は {@value #TURN_BYTES} だけ進みます。<br>
+     * 
+     * @param src 読み込み元のバッファ
+     * @return 読み込んだ手番
+     * @throws NullPointerException {@code src} が {@code null} の場合
+     * @throws BufferUnderflowException バッファに残りが無い場合
+     * @throws IllegalArgumentException 読み込んだ値が不正な場合
+     */
+    public static Color getTurn(ByteBuffer src) {
+        Objects.requireNonNull(src, "src");
+        
+        byte b = src.get();
+        if (b != Color.BLACK.ordinal() && b != Color.WHITE.ordinal()) {
+            throw new IllegalArgumentException("illegal turn: %d".formatted(b));
+        }
+        return Color.values()[b];
+    }
+    
+    private static Board toBoard(long black, long white) {
+        if ((black & white) != 0) {
+            throw new IllegalArgumentException(
+                    "overlapping discs: %016x, %016x".formatted(black, white));
+        }
+        return new BitBoard(black, white);
+    }
+    
+    // [instance members] ******************************************************
+    
+    private BoardCodec() {
+    }
+}
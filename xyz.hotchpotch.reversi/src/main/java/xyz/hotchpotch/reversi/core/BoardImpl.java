@@ -3,7 +3,6 @@ package xyz.hotchpotch.reversi.core;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -22,6 +21,21 @@ import java.util.stream.Collectors;
     /** 石の配置を保持するマップ */
     private final Map<Point, Color> map;
     
+    /** 黒石の配置 */
+    private final long black;
+    
+    /** 白石の配置 */
+    private final long white;
+    
+    /** 石の配置の Zobrist ハッシュ */
+    private final long key;
+    
+    /**
+     * 石の配置から導出される値。初回の問い合わせ時に算出します。
+     * {@link DerivedData} は不変であるため、volatile とせずに保持します。
+     */
+    private DerivedData derived;
+    
     /*package*/ BoardImpl() {
         assert 2 <= Point.HEIGHT;
         assert 2 <= Point.WIDTH;
@@ -34,6 +48,9 @@ import java.util.stream.Collectors;
                 Point.of(ci + 1, cj + 1), Color.WHITE,
                 Point.of(ci + 1, cj), Color.BLACK,
                 Point.of(ci, cj + 1), Color.BLACK);
+        this.black = Board.super.mask(Color.BLACK);
+        this.white = Board.super.mask(Color.WHITE);
+        this.key = Bits.zobrist(black, white);
     }
     
     /*package*/ BoardImpl(Map<Point, Color> map) {
@@ -45,6 +62,23 @@ import java.util.stream.Collectors;
                 .collect(Collectors.toMap(
                         Function.identity(),
                         map::get));
+        this.black = Board.super.mask(Color.BLACK);
+        this.white = Board.super.mask(Color.WHITE);
+        this.key = Bits.zobrist(black, white);
+    }
+    
+    private BoardImpl(Map<Point, Color> map, long black, long white, long key) {
+        assert map != null;
+        assert !map.containsValue(null);
+        
+        this.map = map;
+        this.black = black;
+        this.white = white;
+        this.key = key;
+        
+        assert black == Board.super.mask(Color.BLACK);
+        assert white == Board.super.mask(Color.WHITE);
+        assert key == Bits.zobrist(black, white);
     }
     
     /**
@@ -68,22 +102,73 @@ import java.util.stream.Collectors;
     @Override
     public Board getApplied(Move move) {
         Objects.requireNonNull(move, "move");
-        if (!Rule.canApply(this, move)) {
+        
+        if (move.point() == null) {
+            if (Rule.canPut(this, move.color())) {
+                throw new IllegalArgumentException("illegal move");
+            }
+            return this;
+        }
+        
+        // ひっくり返す石が無いことをもって、ルール違反の手であると判定する。
+        long flips = Rule.flips(this, move);
+        if (flips == 0) {
             throw new IllegalArgumentException("illegal move");
         }
         
-        if (move.point() != null) {
-            Map<Point, Color> copy = new HashMap<>(map);
-            Set<Point> reversibles = Rule.reversibles(this, move);
-            
-            reversibles.forEach(p -> copy.put(p, move.color()));
-            copy.put(move.point(), move.color());
-            
-            return new BoardImpl(copy);
-            
-        } else {
-            return this;
+        Map<Point, Color> copy = new HashMap<>(map);
+        for (long bits = flips; bits != 0; bits &= bits - 1) {
+            copy.put(Point.ofOrdinal(Long.numberOfTrailingZeros(bits)), move.color());
+        }
+        copy.put(move.point(), move.color());
+        
+        long own = mask(move.color()) | flips | (1L << move.point().ordinal());
+        long opp = mask(move.color().reversed()) & ~flips;
+        return new BoardImpl(
+                copy,
+                move.color() == Color.BLACK ? own : opp,
+                move.color() == Color.BLACK ? opp : own,
+                key ^ Bits.zobristDelta(move.color(), move.point().ordinal(), flips));
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、生成時に算出した値を返します。<br>
+     * 
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    @Override
+    public long mask(Color color) {
+        Objects.requireNonNull(color, "color");
+        
+        return color == Color.BLACK ? black : white;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    @Override
+    public long puttables(Color color) {
+        Objects.requireNonNull(color, "color");
+        
+        return derived().puttables(color);
+    }
+    
+    @Override
+    public long zobristKey() {
+        return key;
+    }
+    
+    private DerivedData derived() {
+        DerivedData d = derived;
+        if (d == null) {
+            d = new DerivedData(black, white);
+            derived = d;
         }
+        return d;
     }
     
     @Override
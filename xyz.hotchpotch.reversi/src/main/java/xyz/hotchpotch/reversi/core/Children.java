@@ -0,0 +1,219 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * あるリバーシ盤に対して、ある色の石を置ける全ての手とそれぞれの手を適用した後の局面（子局面）を、
+ * 一括して保持するバッファです。<br>
+ * {@link Board#children(Color, Children)} により内容が設定されます。<br>
+ * <br>
+ * 子局面の展開は、石を置ける位置の判定を一度だけ行い、各手について
+ * ひっくり返る石の位置と Zobrist ハッシュを差分で求めます。
+ * {@link Board#getApplied(Move)} を手ごとに呼び出す場合と異なり、手の妥当性を改めて検証することはありません。
+ * 子局面の {@link Board} オブジェクトは {@link #board(int)} が初めて呼ばれたときに生成されます。<br>
+ * <br>
+ * このクラスのオブジェクトは、繰り返し再利用することを想定した可変オブジェクトです。
+ * このクラスはスレッドセーフではありません。<br>
+ * 
+ * @author nmby
+ */
+public final class Children {
+    
+    // [static members] ********************************************************
+    
+    /** 保持できる手の最大数 */
+    private static final int CAPACITY = Point.HEIGHT * Point.WIDTH;
+    
+    // [instance members] ******************************************************
+    
+    /** 親局面の黒石の配置 */
+    private long black;
+    
+    /** 親局面の白石の配置 */
+    private long white;
+    
+    /** 手番の色 */
+    private Color color;
+    
+    /** 保持している手の数 */
+    private int size;
+    
+    /** 各手の位置の通し番号 */
+    private final int[] ords = new int[CAPACITY];
+    
+    /** 各手によってひっくり返る石の配置 */
+    private final long[] flips = new long[CAPACITY];
+    
+    /** 各手を適用した後の局面の Zobrist ハッシュ */
+    private final long[] keys = new long[CAPACITY];
+    
+    /** 生成済みの子局面 */
+    private final Board[] boards = new Board[CAPACITY];
+    
+    /**
+     * 空のバッファを生成します。<br>
+     */
+    public Children() {
+    }
+    
+    /**
+     * 指定された局面の子局面を展開し、このバッファの内容を置き換えます。<br>
+     * 
+     * @param black 親局面の黒石の配置
+     * @param white 親局面の白石の配置
+     * @param key 親局面の Zobrist ハッシュ
+     * @param color 手番の色
+     */
+    /*package*/ void expand(long black, long white, long key, Color color) {
+        assert color != null;
+        assert key == Bits.zobrist(black, white);
+        
+        long own = color == Color.BLACK ? black : white;
+        long opp = color == Color.BLACK ? white : black;
+        int n = 0;
+        
+        for (long m = Bits.puttables(own, opp); m != 0; m &= m - 1) {
+            int ord = Long.numberOfTrailingZeros(m);
+            long f = Bits.flips(own, opp, ord);
+            
+            ords[n] = ord;
+            flips[n] = f;
+            keys[n] = key ^ Bits.zobristDelta(color, ord, f);
+            n++;
+        }
+        Arrays.fill(boards, 0, Math.max(size, n), null);
+        
+        this.black = black;
+        this.white = white;
+        this.color = color;
+        this.size = n;
+    }
+    
+    /**
+     * このバッファの内容が、指定された石の配置を親局面とするものであるかを返します。<br>
+     * 
+     * @param black 黒石の配置
+     * @param white 白石の配置
+     * @return 指定された石の配置を親局面とする場合は {@code true}
+     */
+    /*package*/ boolean isExpandedFrom(long black, long white) {
+        return color != null && this.black == black && this.white == white;
+    }
+    
+    /**
+     * 保持している手の数を返します。
+     * 石を置ける位置が無い場合は {@code 0} を返します。<br>
+     * 
+     * @return 保持している手の数
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * 手番の色を返します。
+     * まだ一度も展開されていない場合は {@code null} を返します。<br>
+     * 
+     * @return 手番の色
+     */
+    public Color color() {
+        return color;
+    }
+    
+    /**
+     * 指定された番号の手の位置の通し番号を返します。
+     * 手は位置の通し番号の昇順に並んでいます。<br>
+     * 
+     * @param index 手の番号
+     * @return 手の位置の通し番号
+     * @throws IndexOutOfBoundsException {@code index} が範囲外の場合
+     */
+    public int ordinal(int index) {
+        Objects.checkIndex(index, size);
+        
+        return ords[index];
+    }
+    
+    /**
+     * 指定された番号の手の位置を返します。<br>
+     * 
+     * @param index 手の番号
+     * @return 手の位置
+     * @throws IndexOutOfBoundsException {@code index} が範囲外の場合
+     */
+    public Point point(int index) {
+        return Point.ofOrdinal(ordinal(index));
+    }
+    
+    /**
+     * 指定された番号の手を返します。<br>
+     * 
+     * @param index 手の番号
+     * @return 手
+     * @throws IndexOutOfBoundsException {@code index} が範囲外の場合
+     */
+    public Move move(int index) {
+        return new Move(color, point(index));
+    }
+    
+    /**
+     * 指定された番号の手によってひっくり返る石の位置を、64 ビットのマスクとして返します。<br>
+     * 
+     * @param index 手の番号
+     * @return ひっくり返る石の位置のマスク
+     * @throws IndexOutOfBoundsException {@code index} が範囲外の場合
+     */
+    public long flips(int index) {
+        Objects.checkIndex(index, size);
+        
+        return flips[index];
+    }
+    
+    /**
+     * 指定された番号の手を適用した後の局面の Zobrist ハッシュを返します。<br>
+     * 
+     * @param index 手の番号
+     * @return 子局面の Zobrist ハッシュ
+     * @throws IndexOutOfBoundsException {@code index} が範囲外の場合
+     */
+    public long key(int index) {
+        Objects.checkIndex(index, size);
+        
+        return keys[index];
+    }
+    
+    /**
+     * 指定された番号の手を適用した後の局面を返します。
+     * 返されるリバーシ盤は不変です。<br>
+     * 
+     * @param index 手の番号
+     * @return 子局面
+     * @throws IndexOutOfBoundsException {@code index} が範囲外の場合
+     */
+    public Board board(int index) {
+        Objects.checkIndex(index, size);
+        
+        if (boards[index] == null) {
+            long put = 1L << ords[index];
+            long f = flips[index];
+            boards[index] = color == Color.BLACK
+                    ? new BitBoard(black | put | f, white & ~f, keys[index])
+                    : new BitBoard(black & ~f, white | put | f, keys[index]);
+        }
+        return boards[index];
+    }
+    
+    /**
+     * 保持している全ての子局面を、手の順に格納した配列として返します。<br>
+     * 
+     * @return 子局面の配列
+     */
+    public Board[] boards() {
+        Board[] arr = new Board[size];
+        for (int n = 0; n < size; n++) {
+            arr[n] = board(n);
+        }
+        return arr;
+    }
+}
@@ -0,0 +1,34 @@
+package xyz.hotchpotch.reversi.core;
+
+/**
+ * 不変なリバーシ盤の石の配置から導出される値（黒白それぞれの石を置ける位置）を保持する、不変クラスです。<br>
+ * <br>
+ * 不変な {@link Board} の実装クラスは、最初に問い合わせを受けたときにこのクラスのインスタンスを生成し、
+ * {@code volatile} でないフィールドに保持します（{@link String#hashCode()} と同様の racy single-check）。
+ * このクラスのフィールドは全て {@code final} であるため、フィールドへの書き込みが他のスレッドから見えた時点で
+ * インスタンスは完全に初期化されていることが保証されます。
+ * 複数のスレッドが同時に生成した場合も、算出される値は同じです。<br>
+ * 
+ * @author nmby
+ */
+/*package*/ final class DerivedData {
+    
+    // [static members] ********************************************************
+    
+    // [instance members] ******************************************************
+    
+    private final long blackPuttables;
+    private final long whitePuttables;
+    
+    /*package*/ DerivedData(long black, long white) {
+        assert (black & white) == 0;
+        
+        this.blackPuttables = Bits.puttables(black, white);
+        this.whitePuttables = Bits.puttables(white, black);
+    }
+    
+    /*package*/ long puttables(Color color) {
+        assert color != null;
+        return color == Color.BLACK ? blackPuttables : whitePuttables;
+    }
+}
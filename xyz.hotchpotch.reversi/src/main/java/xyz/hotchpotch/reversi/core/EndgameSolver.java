@@ -0,0 +1,1013 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import xyz.hotchpotch.reversi.core.TranspositionTable.Bound;
+
+/**
+ * 局面を終局まで読み切り、双方が最善を尽くした場合の石数差を求める完全読みソルバーです。<br>
+ * <br>
+ * 探索は、手番側と相手側の石の配置を 64 ビットのビットボードとして保持するネガマックス法による
+ * アルファベータ探索（null window による PVS）であり、以下の手法で枝刈りの効率を高めています。
+ * <ul>
+ *   <li>全てのスレッドで共有する置換表（{@link TranspositionTable}）により、
+ *       合流した局面の探索結果（上限値・下限値と最善手）を再利用します。</li>
+ *   <li>相手の着手可能数（隅は2手分として数えます）が少なくなる手から順に探索し（fastest-first）、
+ *       着手可能数が同じ手の間では、空きマスが奇数個の象限の手を先に探索します（parity）。</li>
+ *   <li>空きマスが6つ以下の局面では、置換表と着手可能位置の計算を省き、
+ *       空きマスごとにひっくり返る石を直接求める専用の処理で、空きマスが奇数個の象限の手から順に読み切ります。
+ *       空きマスが4つ以下になると、空きマスの数ごとの専用の処理（空きマスを引数で受け渡し、ループを展開したもの）に切り替え、
+ *       最後の1マスは手を進めずに石数差を求めます。</li>
+ *   <li>空きマスが一定数以上の局面では、最初の手を探索して評価値の基準を定めた後、残りの手を
+ *       {@link ForkJoinPool} のタスクとして並列に探索します（Young Brothers Wait）。
+ *       いずれかの手で枝刈りが確定した場合は、探索中の残りの手の探索を打ち切ります。</li>
+ *   <li>ルート局面が対称性を持つ場合は、等価な手を探索から除きます（{@link Symmetry#distinct(Board, long)} 参照）。</li>
+ * </ul>
+ * {@link VariantBoard} のうち 8x8 盤に埋め込み可能なもの（{@link Geometry#isEmbedded()}）と、
+ * 標準の {@link Board} を読み切ることができます。<br>
+ * <br>
+ * 評価値は、終局時の「手番側の石の数 − 相手側の石の数」です。空きマスを残して終局した場合も、空きマスは数えません。<br>
+ * <br>
+ * 制限時刻を指定して最善手を求めることもできます（{@link #solve(Board, Color, Instant)}, {@link #bestMove(Board, Color, Instant)} 参照）。
+ * 並列に探索するタスクを除き、探索中はオブジェクトを生成しないため、ガベージコレクションの影響をほとんど受けません。<br>
+ * <br>
+ * このクラスのインスタンスは置換表を保持します。同じインスタンスで複数の局面を読み切ることができますが、
+ * 複数のスレッドから同時に {@code solve} を呼び出すことはできません。<br>
+ * 
+ * @author nmby
+ */
+public final class EndgameSolver {
+    
+    // [static members] ********************************************************
+    
+    /**
+     * 読み切りの結果を表すレコードです。<br>
+     * 
+     * @author nmby
+     * @param move 最善手（パスの場合は {@code null}）
+     * @param score 双方が最善を尽くした場合の終局時の石数差（手番側から見た値）
+     */
+    public static record Solution(Point move, int score) {
+    }
+    
+    /** 評価値の上限（石数差の絶対値は、マスの数を超えない） */
+    private static final int INFINITY = Point.HEIGHT * Point.WIDTH + 1;
+    
+    /** 置換表の既定のサイズ（エントリ数の2を底とする対数） */
+    private static final int DEFAULT_TABLE_BITS = 21;
+    
+    /** 空きマスがこの数未満の局面では、置換表と手の並べ替えを用いない（実測で最も速かった値） */
+    private static final int SHALLOW_EMPTIES = 7;
+    
+    /** この数以上の空きマスがある局面では、2手目以降を並列に探索する */
+    private static final int SPLIT_EMPTIES = 12;
+    
+    /** 置換表の1エントリあたりのバイト数（{@link TranspositionTable} 参照） */
+    private static final int ENTRY_BYTES = 16;
+    
+    /** 制限時刻が無いことを表す値 */
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    
+    /** 制限時刻を確認する間隔（ノード数。2の冪から1を引いた値） */
+    private static final int CHECK_INTERVAL = 0xFFF;
+    
+    /** 8x8 盤の4つの象限のマスク */
+    private static final long[] QUADRANTS = {
+            0x000000000F0F0F0FL, 0x00000000F0F0F0F0L, 0x0F0F0F0F00000000L, 0xF0F0F0F000000000L };
+    
+    /** 制限時刻に達したことや枝刈りが確定したことを、探索の呼び出し元に伝える例外 */
+    private static class AbortException extends RuntimeException {
+        private AbortException() {
+            super(null, null, false, false);
+        }
+    }
+    
+    /**
+     * 石の配置と盤面の範囲から置換表のキーを求めます。<br>
+     * 探索中は手番の色を保持せず、手番側と相手側の石の配置だけを扱うため、
+     * {@link TranspositionTable#key(Board, Color)} の代わりに、両者に異なる乗数を用いたこのハッシュ値をキーとします。<br>
+     * 石の配置が同じでも盤面の範囲が異なれば空きマスも評価値も異なるため、盤面の範囲もキーに含めます。<br>
+     */
+    private static long hash(long own, long opp, long region) {
+        long h = own * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(opp * 0xC2B2AE3D27D4EB4FL, 31)
+                ^ Long.rotateLeft(region * 0x94D049BB133111EBL, 17);
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 32);
+    }
+    
+    /**
+     * 8x8 盤に埋め込まれた盤面の四隅のマスクを返します。<br>
+     * 
+     * @param region 盤面に含まれる位置のマスク
+     * @return 四隅のマスク
+     */
+    private static long corners(long region) {
+        int first = Long.numberOfTrailingZeros(region);
+        int last = Long.SIZE - 1 - Long.numberOfLeadingZeros(region);
+        int width = Math.min(Point.WIDTH, Long.numberOfTrailingZeros(~(region >>> first)));
+        
+        return 1L << first | 1L << first + width - 1 | 1L << last - width + 1 | 1L << last;
+    }
+    
+    /**
+     * 空きマスが奇数個の象限のマスクを返します。<br>
+     * 
+     * @param empties 空きマスのマスク
+     * @return 空きマスが奇数個の象限の和集合
+     */
+    private static long parity(long empties) {
+        long odd = 0;
+        for (long q : QUADRANTS) {
+            if ((Long.bitCount(empties & q) & 1) != 0) {
+                odd |= q;
+            }
+        }
+        return odd;
+    }
+    
+    private static TranspositionTable table(int tableBits) {
+        if (tableBits < 1 || 28 < tableBits) {
+            throw new IllegalArgumentException("tableBits: %d".formatted(tableBits));
+        }
+        return TranspositionTable.onHeap((long) ENTRY_BYTES << tableBits);
+    }
+    
+    /**
+     * 8x8 盤の象限の番号（{@link #QUADRANTS} の添え字）を返します。<br>
+     */
+    private static int quadrant(int ord) {
+        return (ord >>> 4 & 2) | (ord >>> 2 & 1);
+    }
+    
+    private static int checkParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism: %d".formatted(parallelism));
+        }
+        return parallelism;
+    }
+    
+    // [instance members] ******************************************************
+    
+    /** 置換表。読みの深さとして空きマスの数を、評価値として石数差を記録します。 */
+    private final TranspositionTable table;
+    
+    private final AtomicLong nodes = new AtomicLong();
+    
+    /** 並列に探索するためのスレッドプール（並列に探索しない場合は {@code null}） */
+    private final ForkJoinPool pool;
+    
+    /** 探索の制限時刻（{@link System#nanoTime()} の値）。探索を始める前に設定し、探索中は変更しない。 */
+    private long deadline = NO_DEADLINE;
+    
+    /**
+     * 直前の探索で求めたルート局面の最善手のビット位置（パスの場合は {@code -1}）。
+     * 探索中は、その時点で評価の定まった手のうち最善の手を保持する。
+     */
+    private int rootMove;
+    
+    /**
+     * 既定のサイズの置換表を持つソルバーを生成します。<br>
+     * 共通プール（{@link ForkJoinPool#commonPool()}）の並列度が 2 以上の場合は、共通プールで並列に探索します。<br>
+     */
+    public EndgameSolver() {
+        this(DEFAULT_TABLE_BITS);
+    }
+    
+    /**
+     * 指定されたサイズの置換表を持つソルバーを生成します。<br>
+     * 
+     * 共通プール（{@link ForkJoinPool#commonPool()}）の並列度が 2 以上の場合は、共通プールで並列に探索します。<br>
+     * 
+     * @param tableBits 置換表のエントリ数の2を底とする対数
+     * @throws IllegalArgumentException {@code tableBits} が 1 以上 28 以下でない場合
+     */
+    public EndgameSolver(int tableBits) {
+        this(table(tableBits));
+    }
+    
+    /**
+     * 指定されたサイズの置換表を持ち、指定された並列度で探索するソルバーを生成します。<br>
+     * 並列度が 1 の場合は、{@code solve} を呼び出したスレッドだけで探索します。<br>
+     * 
+     * @param tableBits 置換表のエントリ数の2を底とする対数
+     * @param parallelism 並列度
+     * @throws IllegalArgumentException {@code tableBits} が 1 以上 28 以下でない場合、
+     *                                  または {@code parallelism} が 1 未満の場合
+     */
+    public EndgameSolver(int tableBits, int parallelism) {
+        this(table(tableBits), parallelism);
+    }
+    
+    /**
+     * 指定された置換表を用いるソルバーを生成します。<br>
+     * 共通プール（{@link ForkJoinPool#commonPool()}）の並列度が 2 以上の場合は、共通プールで並列に探索します。<br>
+     * 置換表には石数差を評価値として記録するため、評価関数による探索（{@code AlphaBetaAIPlayer} など）と
+     * 同じ置換表を共有することはできません。<br>
+     * 
+     * @param table 置換表
+     * @throws NullPointerException {@code table} が {@code null} の場合
+     */
+    public EndgameSolver(TranspositionTable table) {
+        this(Objects.requireNonNull(table, "table"),
+                1 < ForkJoinPool.getCommonPoolParallelism() ? ForkJoinPool.commonPool() : null);
+    }
+    
+    /**
+     * 指定された置換表を用い、指定された並列度で探索するソルバーを生成します。<br>
+     * 並列度が 1 の場合は、{@code solve} を呼び出したスレッドだけで探索します。<br>
+     * 置換表には石数差を評価値として記録するため、評価関数による探索（{@code AlphaBetaAIPlayer} など）と
+     * 同じ置換表を共有することはできません。<br>
+     * 
+     * @param table 置換表
+     * @param parallelism 並列度
+     * @throws NullPointerException {@code table} が {@code null} の場合
+     * @throws IllegalArgumentException {@code parallelism} が 1 未満の場合
+     */
+    public EndgameSolver(TranspositionTable table, int parallelism) {
+        this(Objects.requireNonNull(table, "table"),
+                checkParallelism(parallelism) == 1 ? null : new ForkJoinPool(parallelism));
+    }
+    
+    private EndgameSolver(TranspositionTable table, ForkJoinPool pool) {
+        assert table != null;
+        
+        this.table = table;
+        this.pool = pool;
+    }
+    
+    /**
+     * 指定されたリバーシ盤を読み切り、双方が最善を尽くした場合の終局時の石数差を返します。<br>
+     * 
+     * @param board リバーシ盤
+     * @param color 手番の色
+     * @return 終局時の石数差（{@code color} から見た値）
+     * @throws NullPointerException {@code board}, {@code color} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException 盤面が 8x8 盤に埋め込み可能な形でない場合
+     */
+    public int solve(VariantBoard board, Color color) {
+        Objects.requireNonNull(board, "board");
+        Objects.requireNonNull(color, "color");
+        Geometry geometry = board.geometry();
+        if (!geometry.isEmbedded()) {
+            throw new IllegalArgumentException("not embedded: " + geometry);
+        }
+        
+        // 正方形の盤面は中央に埋め込まれるため、8x8 盤と同じ対称性を持つ。
+        nodes.set(0);
+        table.newSearch();
+        return solve(board.mask(color), board.mask(color.reversed()), geometry.region(),
+                geometry.height() == geometry.width(), true, -INFINITY, INFINITY);
+    }
+    
+    /**
+     * 指定された標準の 8x8 盤を読み切り、双方が最善を尽くした場合の終局時の石数差を返します。<br>
+     * 
+     * @param board リバーシ盤
+     * @param color 手番の色
+     * @return 終局時の石数差（{@code color} から見た値）
+     * @throws NullPointerException {@code board}, {@code color} のいずれかが {@code null} の場合
+     */
+    public int solve(Board board, Color color) {
+        Objects.requireNonNull(board, "board");
+        Objects.requireNonNull(color, "color");
+        
+        nodes.set(0);
+        table.newSearch();
+        return solve(board.mask(color), board.mask(color.reversed()), -1L, true, true, -INFINITY, INFINITY);
+    }
+    
+    /**
+     * 指定された標準の 8x8 盤を制限時刻までに読み切り、最善手と終局時の石数差を返します。<br>
+     * 制限時刻までに読み切れなかった場合は {@code null} を返します。
+     * その場合も、読み切った部分の結果は置換表に残り、同じインスタンスでの以降の探索に利用されます。<br>
+     * 
+     * @param board リバーシ盤
+     * @param color 手番の色
+     * @param timelimit 制限時刻
+     * @return 読み切りの結果（制限時刻までに読み切れなかった場合は {@code null}）
+     * @throws NullPointerException {@code board}, {@code color}, {@code timelimit} のいずれかが {@code null} の場合
+     */
+    public Solution solve(Board board, Color color, Instant timelimit) {
+        Objects.requireNonNull(board, "board");
+        Objects.requireNonNull(color, "color");
+        Objects.requireNonNull(timelimit, "timelimit");
+        
+        nodes.set(0);
+        table.newSearch();
+        deadline = System.nanoTime() + Math.max(0, Instant.now().until(timelimit, ChronoUnit.NANOS));
+        try {
+            int score = solve(board.mask(color), board.mask(color.reversed()), -1L, true, true, -INFINITY, INFINITY);
+            return new Solution(rootMove < 0 ? null : Point.ofOrdinal(rootMove), score);
+            
+        } catch (AbortException e) {
+            return null;
+            
+        } finally {
+            deadline = NO_DEADLINE;
+        }
+    }
+    
+    /**
+     * 指定されたリバーシ盤を制限時刻までに読み切り、双方が最善を尽くした場合の終局時の石数差を返します。<br>
+     * 制限時刻までに読み切れなかった場合は {@code null} を返します。
+     * その場合も、読み切った部分の結果は置換表に残り、同じインスタンスでの以降の探索に利用されます。<br>
+     * 
+     * @param board リバーシ盤
+     * @param color 手番の色
+     * @param timelimit 制限時刻
+     * @return 終局時の石数差（{@code color} から見た値。制限時刻までに読み切れなかった場合は {@code null}）
+     * @throws NullPointerException {@code board}, {@code color}, {@code timelimit} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException 盤面が 8x8 盤に埋め込み可能な形でない場合
+     */
+    public Integer solve(VariantBoard board, Color color, Instant timelimit) {
+        Objects.requireNonNull(board, "board");
+        Objects.requireNonNull(color, "color");
+        Objects.requireNonNull(timelimit, "timelimit");
+        
+        deadline = System.nanoTime() + Math.max(0, Instant.now().until(timelimit, ChronoUnit.NANOS));
+        try {
+            return solve(board, color);
+            
+        } catch (AbortException e) {
+            return null;
+            
+        } finally {
+            deadline = NO_DEADLINE;
+        }
+    }
+    
+    /**
+     * 指定された標準の 8x8 盤について、制限時刻までに求めた最善手を返します。<br>
+     * 先に勝敗（終局時の石数差の符号）を読み切り、続けて石数差を読み切ります。
+     * 後の段階は、前の段階の最善手から探索します。<br>
+     * 制限時刻に達した場合は、中断した段階で評価の定まった手のうち最善の手を返します。
+     * この手は、前の段階の最善手に比べて劣ることはありません。
+     * 最初の段階で評価の定まった手が無い場合は、手の並べ替えで先頭となる手（相手の着手可能数が最も少ない手）を返します。<br>
+     * 
+     * @param board リバーシ盤
+     * @param color 手番の色
+     * @param timelimit 制限時刻
+     * @return 最善手（パスの場合は {@code null}）
+     * @throws NullPointerException {@code board}, {@code color}, {@code timelimit} のいずれかが {@code null} の場合
+     */
+    public Point bestMove(Board board, Color color, Instant timelimit) {
+        Objects.requireNonNull(board, "board");
+        Objects.requireNonNull(color, "color");
+        Objects.requireNonNull(timelimit, "timelimit");
+        
+        nodes.set(0);
+        table.newSearch();
+        deadline = System.nanoTime() + Math.max(0, Instant.now().until(timelimit, ChronoUnit.NANOS));
+        long own = board.mask(color);
+        long opp = board.mask(color.reversed());
+        try {
+            solve(own, opp, -1L, true, true, -1, 1);
+            solve(own, opp, -1L, true, true, -INFINITY, INFINITY);
+            
+        } catch (AbortException e) {
+            // 中断した段階で評価の定まった最善の手が rootMove に設定されている。
+            
+        } finally {
+            deadline = NO_DEADLINE;
+        }
+        return rootMove < 0 ? null : Point.ofOrdinal(rootMove);
+    }
+    
+    /**
+     * 直前の {@code solve} または {@code bestMove} の呼び出しで探索した局面の数を返します。<br>
+     * 
+     * @return 探索した局面の数
+     */
+    public long nodes() {
+        return nodes.get();
+    }
+    
+    /**
+     * ルート局面を読み切り、{@code (alpha, beta)} の範囲で評価値を返します。<br>
+     * {@code top} が {@code true} の場合は、最善手を {@link #rootMove} に設定します。
+     * 探索中も、評価の定まった手のうち最善の手を {@link #rootMove} に設定しておきます。<br>
+     */
+    private int solve(long own, long opp, long region, boolean symmetric, boolean top, int alpha, int beta) {
+        long moves = Bits.puttables(own, opp) & region;
+        if (moves == 0) {
+            if (top) {
+                rootMove = -1;
+            }
+            if ((Bits.puttables(opp, own) & region) == 0) {
+                return Long.bitCount(own) - Long.bitCount(opp);
+            }
+            return -solve(opp, own, region, symmetric, false, -beta, -alpha);
+        }
+        if (symmetric) {
+            moves = Symmetry.distinct(new BitBoard(own, opp), moves);
+        }
+        if (Long.bitCount(moves) == 1) {
+            // 実質的な選択肢が1つだけの場合は、その手を進めた局面を改めてルート局面とし、並列に探索できる手を増やす。
+            int ord = Long.numberOfTrailingZeros(moves);
+            long flips = Bits.flips(own, opp, ord);
+            if (top) {
+                rootMove = ord;
+            }
+            return -solve(opp & ~flips, own | flips | moves, region, symmetric, false, -beta, -alpha);
+        }
+        
+        // 前の段階の探索などで置換表に記録された最善手があれば、その手から探索する。
+        long h = hash(own, opp, region);
+        long entry = table.probe(h);
+        int hint = entry == 0 ? 0 : TranspositionTable.move(entry) + 1;
+        
+        // 並列に探索する場合は、スレッドプールのタスクとして探索を開始する。
+        Searcher root = new Searcher(region, null);
+        int[] order = root.order(own, opp, moves, hint);
+        if (top) {
+            rootMove = order[0];
+        }
+        int score;
+        try {
+            if (pool == null) {
+                score = root.searchMoves(own, opp, order, order.length, alpha, beta, top);
+            } else {
+                Integer result = pool.invoke(ForkJoinTask.adapt(() -> {
+                    try {
+                        return root.searchMoves(own, opp, order, order.length, alpha, beta, top);
+                    } catch (AbortException e) {
+                        return null;
+                    }
+                }));
+                if (result == null) {
+                    throw new AbortException();
+                }
+                score = result;
+            }
+        } finally {
+            // 中断した場合も、それまでに探索した局面の数を計上する。
+            nodes.addAndGet(root.nodes);
+        }
+        
+        Bound bound = score <= alpha ? Bound.UPPER : beta <= score ? Bound.LOWER : Bound.EXACT;
+        table.store(h, root.bestOrd, score, bound, Long.bitCount(region & ~(own | opp)));
+        if (top) {
+            rootMove = root.bestOrd;
+        }
+        return score;
+    }
+    
+    /**
+     * 制限時刻に達したかを返します。<br>
+     */
+    private boolean isTimeUp() {
+        return deadline != NO_DEADLINE && deadline < System.nanoTime();
+    }
+    
+    /**
+     * 局面の探索を、スレッドプールで実行するためのタスクです。<br>
+     * 評価値は親局面の手番側から見た値であり、探索が打ち切られた場合は {@code null} です。<br>
+     */
+    private final class Task extends RecursiveTask<Integer> {
+        
+        /** このタスクを生成した探索のタスク（ルート局面の探索から生成された場合は {@code null}） */
+        private final Task parent;
+        
+        private final long region;
+        private final long own;
+        private final long opp;
+        private final int alpha;
+        private final int beta;
+        
+        /** 枝刈りが確定し、このタスクの探索が不要になった場合に {@code true} */
+        private volatile boolean stopped;
+        
+        private Task(Task parent, long region, long own, long opp, int alpha, int beta) {
+            this.parent = parent;
+            this.region = region;
+            this.own = own;
+            this.opp = opp;
+            this.alpha = alpha;
+            this.beta = beta;
+        }
+        
+        @Override
+        protected Integer compute() {
+            if (isTimeUp() || isStopped()) {
+                return null;
+            }
+            Searcher searcher = new Searcher(region, this);
+            try {
+                return -searcher.search(own, opp, -beta, -alpha, false);
+            } catch (AbortException e) {
+                return null;
+            } finally {
+                nodes.addAndGet(searcher.nodes);
+            }
+        }
+        
+        /**
+         * このタスクまたは祖先のタスクの探索が不要になったかを返します。<br>
+         */
+        private boolean isStopped() {
+            for (Task t = this; t != null; t = t.parent) {
+                if (t.stopped) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * 1つのスレッドで局面を探索する際の作業領域を保持します。<br>
+     */
+    private final class Searcher {
+        
+        private final long region;
+        
+        /** この探索を実行しているタスク（ルート局面の探索の場合は {@code null}） */
+        private final Task owner;
+        
+        /** 盤面の四隅 */
+        private final long corners;
+        
+        /** 空きマスの数ごとの、手の並べ替え用の作業領域 */
+        private final int[][] ords;
+        private final int[][] keys;
+        
+        private long nodes;
+        
+        /** 制限時刻を確認するためのカウンタ */
+        private int checks;
+        
+        /** 直前に {@link #searchMoves} で探索した局面の最善手のビット位置 */
+        private int bestOrd;
+        
+        private Searcher(long region, Task owner) {
+            this.region = region;
+            this.owner = owner;
+            this.corners = corners(region);
+            
+            // タスクが探索する局面は浅いため、作業領域はその局面の空きマスの数だけ確保する。
+            int empties = owner == null
+                    ? Long.SIZE
+                    : Long.bitCount(region & ~(owner.own | owner.opp));
+            this.ords = new int[empties + 1][Math.max(empties, 1)];
+            this.keys = new int[empties + 1][Math.max(empties, 1)];
+        }
+        
+        /**
+         * 制限時刻に達したか、この探索が不要になったかを返します。<br>
+         */
+        private boolean isAborted() {
+            return isTimeUp() || owner != null && owner.isStopped();
+        }
+        
+        /**
+         * {@code moves} に含まれる手を、探索すべき順に並べて返します。<br>
+         * 
+         * @param hint 最初に探索する手のビット位置 + 1（無い場合は {@code 0}）
+         */
+        private int[] order(long own, long opp, long moves, int hint) {
+            int n = fill(own, opp, moves, hint, ords[0], keys[0]);
+            return Arrays.copyOf(ords[0], n);
+        }
+        
+        /**
+         * 相手の着手可能位置を評価します。隅に置ける場合は、その手を2手分として数えます。<br>
+         */
+        private int weight(long moves) {
+            return Long.bitCount(moves) + Long.bitCount(moves & corners);
+        }
+        
+        /**
+         * {@code moves} に含まれる手を、置換表の最善手、相手の着手可能数が少ない手、
+         * 空きマスが奇数個の象限の手の順に並べて格納します。<br>
+         * 
+         * @return 手の数
+         */
+        private int fill(long own, long opp, long moves, int hint, int[] ord, int[] key) {
+            long even = ~parity(region & ~(own | opp));
+            int n = 0;
+            for (long m = moves; m != 0; m &= m - 1) {
+                int sq = Long.numberOfTrailingZeros(m);
+                long flips = Bits.flips(own, opp, sq);
+                int k = sq + 1 == hint
+                        ? -1
+                        : weight(Bits.puttables(opp & ~flips, own | flips | (1L << sq)) & region) << 1
+                                | (int) (even >>> sq & 1);
+                
+                // 挿入ソート
+                int i = n++;
+                for (; 0 < i && k < key[i - 1]; i--) {
+                    ord[i] = ord[i - 1];
+                    key[i] = key[i - 1];
+                }
+                ord[i] = sq;
+                key[i] = k;
+            }
+            return n;
+        }
+        
+        /**
+         * 局面を読み切り、{@code (alpha, beta)} の範囲で評価値を返します。<br>
+         * 
+         * @param own 手番側の石の配置
+         * @param opp 相手側の石の配置
+         * @param alpha 下限
+         * @param beta 上限
+         * @param passed 直前の手番がパスであった場合は {@code true}
+         * @return 評価値（範囲外の場合は範囲外の値の上限または下限）
+         */
+        private int search(long own, long opp, int alpha, int beta, boolean passed) {
+            int empties = Long.bitCount(region & ~(own | opp));
+            if (empties < SHALLOW_EMPTIES) {
+                return searchLast(own, opp, alpha, beta, passed);
+            }
+            
+            nodes++;
+            if ((++checks & CHECK_INTERVAL) == 0 && isAborted()) {
+                throw new AbortException();
+            }
+            
+            long moves = Bits.puttables(own, opp) & region;
+            if (moves == 0) {
+                return passed
+                        ? Long.bitCount(own) - Long.bitCount(opp)
+                        : -search(opp, own, -beta, -alpha, true);
+            }
+            
+            // 置換表の参照
+            long h = hash(own, opp, region);
+            long entry = table.probe(h);
+            int hint = 0;
+            if (entry != 0) {
+                // キーには盤面の範囲も含まれ、石の配置と範囲が同じであれば空きマスの数も同じであるため、読みの深さを確認する必要は無い。
+                int score = TranspositionTable.score(entry);
+                Bound bound = TranspositionTable.bound(entry);
+                if (bound == Bound.EXACT
+                        || bound == Bound.LOWER && beta <= score
+                        || bound == Bound.UPPER && score <= alpha) {
+                    return score;
+                }
+                if (bound == Bound.LOWER) {
+                    alpha = Math.max(alpha, score);
+                } else {
+                    beta = Math.min(beta, score);
+                }
+                hint = TranspositionTable.move(entry) + 1;
+            }
+            
+            int[] ord = ords[empties];
+            int[] key = keys[empties];
+            int n = fill(own, opp, moves, hint, ord, key);
+            
+            int alpha0 = alpha;
+            int best = searchMoves(own, opp, ord, n, alpha, beta, false);
+            
+            // 置換表への格納
+            Bound bound = best <= alpha0 ? Bound.UPPER : beta <= best ? Bound.LOWER : Bound.EXACT;
+            table.store(h, bestOrd, best, bound, empties);
+            
+            return best;
+        }
+        
+        /**
+         * {@code ord} の順に手を探索し、{@code (alpha, beta)} の範囲で評価値を返します。
+         * 最善手は {@link #bestOrd} に設定します。<br>
+         * 空きマスが {@link #SPLIT_EMPTIES} 以上の場合は、最初の手を探索した後、残りの手を並列に探索します。<br>
+         * 
+         * @param own 手番側の石の配置
+         * @param opp 相手側の石の配置
+         * @param ord 探索する手のビット位置
+         * @param n 探索する手の数
+         * @param alpha 下限
+         * @param beta 上限
+         * @param root ルート局面の探索であり、評価の定まった最善の手を {@link #rootMove} に設定する場合は {@code true}
+         * @return 評価値（範囲外の場合は範囲外の値の上限または下限）
+         */
+        private int searchMoves(long own, long opp, int[] ord, int n, int alpha, int beta, boolean root) {
+            boolean split = pool != null && SPLIT_EMPTIES <= Long.bitCount(region & ~(own | opp));
+            int best = -INFINITY;
+            int bestOrd = ord[0];
+            for (int i = 0; i < n; i++) {
+                if (0 < i && split) {
+                    return searchParallel(own, opp, ord, i, n, alpha, beta, best, bestOrd, root);
+                }
+                
+                int sq = ord[i];
+                long flips = Bits.flips(own, opp, sq);
+                long nextOwn = opp & ~flips;
+                long nextOpp = own | flips | (1L << sq);
+                
+                int v;
+                if (i == 0) {
+                    v = -search(nextOwn, nextOpp, -beta, -alpha, false);
+                } else {
+                    v = -search(nextOwn, nextOpp, -alpha - 1, -alpha, false);
+                    if (alpha < v && v < beta) {
+                        // 基準を上回ることが確定した時点で、それまでに探索した手より良い手である。
+                        if (root) {
+                            rootMove = sq;
+                        }
+                        v = -search(nextOwn, nextOpp, -beta, -v, false);
+                    }
+                }
+                if (best < v) {
+                    best = v;
+                    bestOrd = sq;
+                    if (root) {
+                        rootMove = sq;
+                    }
+                    if (alpha < v) {
+                        alpha = v;
+                        if (beta <= alpha) {
+                            break;
+                        }
+                    }
+                }
+            }
+            this.bestOrd = bestOrd;
+            return best;
+        }
+        
+        /**
+         * {@code ord[from]} 以降の手を null window で並列に探索し、{@code (alpha, beta)} の範囲で評価値を返します。
+         * 最善手は {@link #bestOrd} に設定します。<br>
+         * 現在の基準を上回った手はこのスレッドで探索し直し、枝刈りが確定した場合は残りのタスクの探索を打ち切ります。<br>
+         */
+        private int searchParallel(long own, long opp, int[] ord, int from, int n,
+                int alpha, int beta, int best, int bestOrd, boolean root) {
+            
+            // タスクごとの探索ノード数は少ないことがあるため、タスクを生成する前にも打ち切りを確認する。
+            if (isAborted()) {
+                throw new AbortException();
+            }
+            
+            // 他のスレッドは先に積まれたタスクから盗むため、逆順に積んで手前の手をこのスレッドで探索する。
+            Task[] tasks = new Task[n - from];
+            for (int i = n - 1; from <= i; i--) {
+                int sq = ord[i];
+                long flips = Bits.flips(own, opp, sq);
+                tasks[i - from] = new Task(owner, region, opp & ~flips, own | flips | (1L << sq), alpha, alpha + 1);
+                tasks[i - from].fork();
+            }
+            
+            int k = 0;
+            try {
+                for (; k < tasks.length; k++) {
+                    Integer result = tasks[k].join();
+                    if (result == null) {
+                        throw new AbortException();
+                    }
+                    int v = result;
+                    if (tasks[k].alpha < v && v <= alpha) {
+                        // 基準を上回ったが、その後に他の手で基準が上がった場合は、現在の基準を上回るかだけを確かめる。
+                        v = -search(tasks[k].own, tasks[k].opp, -alpha - 1, -alpha, false);
+                    }
+                    if (alpha < v && v < beta) {
+                        if (root) {
+                            rootMove = ord[from + k];
+                        }
+                        v = -search(tasks[k].own, tasks[k].opp, -beta, -alpha, false);
+                    }
+                    if (best < v) {
+                        best = v;
+                        bestOrd = ord[from + k];
+                        if (root) {
+                            rootMove = bestOrd;
+                        }
+                        if (alpha < v) {
+                            alpha = v;
+                            if (beta <= alpha) {
+                                break;
+                            }
+                        }
+                    }
+                }
+            } finally {
+                // 枝刈りが確定した場合や探索を打ち切る場合は、残りのタスクの探索を打ち切って終了を待つ。
+                for (int i = k + 1; i < tasks.length; i++) {
+                    tasks[i].stopped = true;
+                }
+                for (int i = k + 1; i < tasks.length; i++) {
+                    tasks[i].join();
+                }
+            }
+            this.bestOrd = bestOrd;
+            return best;
+        }
+        
+        /**
+         * 空きマスが少ない局面を、置換表と着手可能位置の計算を用いずに読み切ります。<br>
+         * 空きマスごとにひっくり返る石を直接求め、空きマスが奇数個の象限の手から順に探索します。
+         * 空きマスが4つ以下の局面は、{@link #solve4} 以下の専用の処理で読み切ります。<br>
+         */
+        private int searchLast(long own, long opp, int alpha, int beta, boolean passed) {
+            // 空きマスが4つ以下の局面は、空きマスの数ごとの専用の処理で読み切る。
+            long empties = region & ~(own | opp);
+            int n = Long.bitCount(empties);
+            if (n <= 4) {
+                return switch (n) {
+                case 0 -> Long.bitCount(own) - Long.bitCount(opp);
+                case 1 -> solve1(own, opp, Long.numberOfTrailingZeros(empties));
+                case 2 -> solve2(own, opp, alpha, beta, passed,
+                        Long.numberOfTrailingZeros(empties), 63 - Long.numberOfLeadingZeros(empties));
+                case 3 -> solve3(own, opp, alpha, beta, passed, empties);
+                default -> solve4(own, opp, alpha, beta, passed, empties);
+                };
+            }
+            nodes++;
+            
+            // 奇数個の象限の空きマスを辿り終えたら、残りの空きマスを辿る。
+            long m = empties & parity(empties);
+            long rest = empties & ~m;
+            if (m == 0) {
+                m = rest;
+                rest = 0;
+            }
+            
+            int best = -INFINITY;
+            while (m != 0) {
+                int sq = Long.numberOfTrailingZeros(m);
+                m &= m - 1;
+                if (m == 0) {
+                    m = rest;
+                    rest = 0;
+                }
+                
+                long flips = Bits.flips(own, opp, sq);
+                if (flips == 0) {
+                    continue;
+                }
+                int v = -searchLast(opp & ~flips, own | flips | (1L << sq), -beta, -alpha, false);
+                if (best < v) {
+                    best = v;
+                    if (alpha < v) {
+                        alpha = v;
+                        if (beta <= alpha) {
+                            return best;
+                        }
+                    }
+                }
+            }
+            
+            if (best == -INFINITY) {
+                return passed
+                        ? Long.bitCount(own) - Long.bitCount(opp)
+                        : -searchLast(opp, own, -beta, -alpha, true);
+            }
+            return best;
+        }
+        
+        /**
+         * 空きマスが4つの局面を読み切ります。<br>
+         * 空きマスが奇数個の象限の手から順に探索します。<br>
+         */
+        private int solve4(long own, long opp, int alpha, int beta, boolean passed, long empties) {
+            nodes++;
+            
+            // 4つの空きマスが2つずつ2つの象限にある場合や、1つの象限にまとまっている場合は、全ての象限が偶数となる。
+            long odd = empties & parity(empties);
+            long m = odd != 0 ? odd : empties;
+            long rest = empties & ~m;
+            
+            int best = -INFINITY;
+            while (m != 0) {
+                long bit = m & -m;
+                m ^= bit;
+                if (m == 0) {
+                    m = rest;
+                    rest = 0;
+                }
+                
+                int sq = Long.numberOfTrailingZeros(bit);
+                long flips = Bits.flips(own, opp, sq);
+                if (flips == 0) {
+                    continue;
+                }
+                int v = -solve3(opp & ~flips, own | flips | bit, -beta, -alpha, false, empties ^ bit);
+                if (best < v) {
+                    best = v;
+                    if (alpha < v) {
+                        alpha = v;
+                        if (beta <= alpha) {
+                            return best;
+                        }
+                    }
+                }
+            }
+            
+            if (best == -INFINITY) {
+                return passed
+                        ? Long.bitCount(own) - Long.bitCount(opp)
+                        : -solve4(opp, own, -beta, -alpha, true, empties);
+            }
+            return best;
+        }
+        
+        /**
+         * 空きマスが3つの局面を読み切ります。<br>
+         * 他の空きマスと同じ象限にない空きマス（奇数個の象限の空きマス）から順に探索します。<br>
+         */
+        private int solve3(long own, long opp, int alpha, int beta, boolean passed, long empties) {
+            nodes++;
+            
+            int x1 = Long.numberOfTrailingZeros(empties);
+            int x3 = 63 - Long.numberOfLeadingZeros(empties);
+            int x2 = Long.numberOfTrailingZeros(empties & ~(1L << x1));
+            
+            // 3つの空きマスのうち2つが同じ象限にある場合は、残りの1つを先に探索する。
+            if (quadrant(x1) == quadrant(x2)) {
+                int x = x1;
+                x1 = x3;
+                x3 = x;
+            } else if (quadrant(x1) == quadrant(x3)) {
+                int x = x1;
+                x1 = x2;
+                x2 = x;
+            }
+            
+            int best = -INFINITY;
+            long flips = Bits.flips(own, opp, x1);
+            if (flips != 0) {
+                best = -solve2(opp & ~flips, own | flips | (1L << x1), -beta, -alpha, false, x2, x3);
+                if (beta <= best) {
+                    return best;
+                }
+                alpha = Math.max(alpha, best);
+            }
+            flips = Bits.flips(own, opp, x2);
+            if (flips != 0) {
+                int v = -solve2(opp & ~flips, own | flips | (1L << x2), -beta, -alpha, false, x1, x3);
+                if (beta <= v) {
+                    return v;
+                }
+                best = Math.max(best, v);
+                alpha = Math.max(alpha, v);
+            }
+            flips = Bits.flips(own, opp, x3);
+            if (flips != 0) {
+                int v = -solve2(opp & ~flips, own | flips | (1L << x3), -beta, -alpha, false, x1, x2);
+                best = Math.max(best, v);
+            }
+            
+            if (best == -INFINITY) {
+                return passed
+                        ? Long.bitCount(own) - Long.bitCount(opp)
+                        : -solve3(opp, own, -beta, -alpha, true, empties);
+            }
+            return best;
+        }
+        
+        /**
+         * 空きマスが2つの局面を読み切ります。<br>
+         */
+        private int solve2(long own, long opp, int alpha, int beta, boolean passed, int x1, int x2) {
+            nodes++;
+            
+            int best = -INFINITY;
+            long flips = Bits.flips(own, opp, x1);
+            if (flips != 0) {
+                best = -solve1(opp & ~flips, own | flips | (1L << x1), x2);
+                if (beta <= best) {
+                    return best;
+                }
+            }
+            flips = Bits.flips(own, opp, x2);
+            if (flips != 0) {
+                best = Math.max(best, -solve1(opp & ~flips, own | flips | (1L << x2), x1));
+            }
+            
+            if (best == -INFINITY) {
+                return passed
+                        ? Long.bitCount(own) - Long.bitCount(opp)
+                        : -solve2(opp, own, -beta, -alpha, true, x1, x2);
+            }
+            return best;
+        }
+        
+        /**
+         * 最後の空きマスが1つだけ残った局面の、終局時の石数差を返します。<br>
+         * 手番側が置けない場合は相手が置き、どちらも置けない場合は空きマスを残して終局します。<br>
+         */
+        private int solve1(long own, long opp, int sq) {
+            nodes++;
+            
+            int diff = Long.bitCount(own) - Long.bitCount(opp);
+            int flips = Long.bitCount(Bits.flips(own, opp, sq));
+            if (flips != 0) {
+                return diff + 2 * flips + 1;
+            }
+            flips = Long.bitCount(Bits.flips(opp, own, sq));
+            if (flips != 0) {
+                return diff - 2 * flips - 1;
+            }
+            return diff;
+        }
+    }
+}
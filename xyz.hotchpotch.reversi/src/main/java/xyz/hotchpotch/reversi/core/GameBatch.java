@@ -0,0 +1,271 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+/**
+ * 互いに独立した複数のゲームを、足並みを揃えて1手ずつ進めるためのバッチです。<br>
+ * <br>
+ * 各ゲームの局面は、手番側と相手側の石の配置をそれぞれ {@code long} の配列に並べた形（Structure of Arrays）で保持します。
+ * 1手進めるごとに、全てのゲームの石を置ける位置とひっくり返る石をまとめて求めるため、
+ * {@code jdk.incubator.vector} モジュールが利用可能な実行環境では、これらを Vector API によって
+ * 複数のゲームについて同時に計算します。モジュールが利用できない場合はスカラー演算で計算します。<br>
+ * <br>
+ * 自己対局や大会のように、同じ処理を行う多数のゲームを高いスループットで実行するために用います。
+ * 例えば、{@code RandomAIPlayer} 同士の対局と同等のランダムプレイアウトは、{@link #playRandom(RandomGenerator)} により
+ * 全てのゲームについて一度に実行できます。<br>
+ * <br>
+ * このクラスはスレッドセーフではありません。<br>
+ * 
+ * @author nmby
+ */
+public final class GameBatch {
+    
+    // [static members] ********************************************************
+    
+    /**
+     * 各ゲームの手を選択する関数です。<br>
+     * 
+     * @author nmby
+     */
+    @FunctionalInterface
+    public static interface Selector {
+        
+        /**
+         * 指定されたゲームの手を選択し、石を置く位置の通し番号を返します。<br>
+         * この関数は、石を置ける位置が1つ以上ある場合にだけ呼び出されます。<br>
+         * 
+         * @param index ゲームの番号
+         * @param moves 石を置ける位置のマスク（{@code 0} ではない）
+         * @return 石を置く位置の通し番号（{@code moves} に含まれるもの）
+         */
+        int select(int index, long moves);
+    }
+    
+    private static final BatchKernel DEFAULT_KERNEL = BatchKernel.best();
+    
+    /**
+     * この実行環境において、石を置ける位置とひっくり返る石の計算に Vector API が用いられるかを返します。<br>
+     * 
+     * @return Vector API が用いられる場合は {@code true}
+     */
+    public static boolean isVectorized() {
+        return DEFAULT_KERNEL.isVectorized();
+    }
+    
+    // [instance members] ******************************************************
+    
+    private final BatchKernel kernel;
+    private final int size;
+    
+    /** 各ゲームの手番側の石の配置 */
+    private final long[] own;
+    
+    /** 各ゲームの相手側の石の配置 */
+    private final long[] opp;
+    
+    /** 各ゲームの手番が黒であるか */
+    private final boolean[] blackToMove;
+    
+    /** 各ゲームが終了しているか */
+    private final boolean[] over;
+    
+    /** 終了していないゲームの数 */
+    private int ongoing;
+    
+    // 1手ごとの作業領域
+    private final long[] moves;
+    private final long[] puts;
+    private final long[] flips;
+    
+    /**
+     * 全てのゲームがゲーム開始時状態であるバッチを生成します。<br>
+     * 
+     * @param size ゲームの数
+     * @throws IllegalArgumentException {@code size} が負の場合
+     */
+    public GameBatch(int size) {
+        this(size, DEFAULT_KERNEL);
+    }
+    
+    /*package*/ GameBatch(int size, BatchKernel kernel) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size: %d".formatted(size));
+        }
+        assert kernel != null;
+        
+        this.kernel = kernel;
+        this.size = size;
+        own = new long[size];
+        opp = new long[size];
+        blackToMove = new boolean[size];
+        over = new boolean[size];
+        moves = new long[size];
+        puts = new long[size];
+        flips = new long[size];
+        
+        Board init = Board.initBoard();
+        for (int i = 0; i < size; i++) {
+            own[i] = init.mask(Color.BLACK);
+            opp[i] = init.mask(Color.WHITE);
+            blackToMove[i] = true;
+        }
+        ongoing = size;
+    }
+    
+    /**
+     * ゲームの数を返します。<br>
+     * 
+     * @return ゲームの数
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * 終了していないゲームの数を返します。<br>
+     * 
+     * @return 終了していないゲームの数
+     */
+    public int ongoing() {
+        return ongoing;
+    }
+    
+    /**
+     * 指定されたゲームが終了しているかを返します。<br>
+     * 
+     * @param index ゲームの番号
+     * @return ゲームが終了している場合は {@code true}
+     * @throws IndexOutOfBoundsException {@code index} が範囲外の場合
+     */
+    public boolean isOver(int index) {
+        Objects.checkIndex(index, size);
+        
+        return over[index];
+    }
+    
+    /**
+     * 指定されたゲームの手番の色を返します。<br>
+     * 
+     * @param index ゲームの番号
+     * @return 手番の色
+     * @throws IndexOutOfBoundsException {@code index} が範囲外の場合
+     */
+    public Color turn(int index) {
+        Objects.checkIndex(index, size);
+        
+        return blackToMove[index] ? Color.BLACK : Color.WHITE;
+    }
+    
+    /**
+     * 指定されたゲームの現在の局面を返します。
+     * 返されるリバーシ盤は不変です。<br>
+     * 
+     * @param index ゲームの番号
+     * @return 現在の局面
+     * @throws IndexOutOfBoundsException {@code index} が範囲外の場合
+     */
+    public Board board(int index) {
+        Objects.checkIndex(index, size);
+        
+        return blackToMove[index]
+                ? new BitBoard(own[index], opp[index])
+                : new BitBoard(opp[index], own[index]);
+    }
+    
+    /**
+     * 指定されたゲームの勝者の色を返します。
+     * 引き分けの場合は {@code null} を返します。<br>
+     * 
+     * @param index ゲームの番号
+     * @return 勝者の色（引き分けの場合は {@code null}）
+     * @throws IndexOutOfBoundsException {@code index} が範囲外の場合
+     * @throws IllegalStateException ゲームが終了していない場合
+     */
+    public Color winner(int index) {
+        if (!isOver(index)) {
+            throw new IllegalStateException("game %d is ongoing.".formatted(index));
+        }
+        return Rule.winner(board(index));
+    }
+    
+    /**
+     * 終了していない全てのゲームを1手ずつ進めます。<br>
+     * 石を置ける位置がある場合は {@code selector} により選択された位置に石を置き、
+     * 石を置ける位置が無い場合はパスします。
+     * 手番側と相手側のどちらも石を置けない場合は、石を置かずにそのゲームを終了状態とします。<br>
+     * 
+     * @param selector 各ゲームの手を選択する関数
+     * @return 終了していないゲームが残っている場合は {@code true}
+     * @throws NullPointerException {@code selector} が {@code null} の場合
+     * @throws IllegalArgumentException {@code selector} が石を置けない位置を返した場合
+     *                                  （いずれのゲームも進められません）
+     */
+    public boolean step(Selector selector) {
+        Objects.requireNonNull(selector, "selector");
+        
+        kernel.puttables(own, opp, moves, size);
+        
+        for (int i = 0; i < size; i++) {
+            puts[i] = 0L;
+            if (over[i]) {
+                continue;
+            }
+            if (moves[i] == 0) {
+                // 相手も石を置けなければゲーム終了、そうでなければパスする。
+                if (Bits.puttables(opp[i], own[i]) == 0) {
+                    over[i] = true;
+                    ongoing--;
+                }
+                continue;
+            }
+            
+            int ord = selector.select(i, moves[i]);
+            if (ord < 0 || Point.HEIGHT * Point.WIDTH <= ord || (moves[i] & (1L << ord)) == 0) {
+                throw new IllegalArgumentException("game %d: illegal move %d".formatted(i, ord));
+            }
+            puts[i] = 1L << ord;
+        }
+        
+        kernel.flips(own, opp, puts, flips, size);
+        
+        // 全ての手の検証を終えてから、石を置いたゲームとパスしたゲームの手番を進める。
+        for (int i = 0; i < size; i++) {
+            if (over[i]) {
+                continue;
+            }
+            own[i] |= puts[i] | flips[i];
+            opp[i] &= ~flips[i];
+            swap(i);
+        }
+        return 0 < ongoing;
+    }
+    
+    /**
+     * 全てのゲームを、石を置ける位置の中からランダムに手を選択して終局まで進めます。<br>
+     * 
+     * @param random 乱数生成器
+     * @throws NullPointerException {@code random} が {@code null} の場合
+     */
+    public void playRandom(RandomGenerator random) {
+        Objects.requireNonNull(random, "random");
+        
+        Selector selector = (index, m) -> {
+            // 石を置ける位置の中から n 番目（下位ビットから数えて）のものを選ぶ。
+            for (int n = random.nextInt(Long.bitCount(m)); 0 < n; n--) {
+                m &= m - 1;
+            }
+            return Long.numberOfTrailingZeros(m);
+        };
+        
+        while (step(selector)) {
+        }
+    }
+    
+    private void swap(int i) {
+        long tmp = own[i];
+        own[i] = opp[i];
+        opp[i] = tmp;
+        blackToMove[i] = !blackToMove[i];
+    }
+}
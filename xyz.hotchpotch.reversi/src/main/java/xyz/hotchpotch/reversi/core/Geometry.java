@@ -0,0 +1,242 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 研究用の可変サイズのリバーシ盤（{@link VariantBoard}）の縦横のマス数を表す、不変クラスです。<br>
+ * <br>
+ * 縦横のマス数は、いずれも4以上の偶数であり、かつマスの総数が {@value #MAX_SQUARES} 以下である必要があります。
+ * 盤上の各マスは、行 {@code i}、列 {@code j}（いずれも 0 始まり）に対して {@code i * width + j} の番号で表されます。<br>
+ * <br>
+ * 縦横ともに8以下の盤面は、標準の 8x8 盤の中央に埋め込むことで、標準の盤面と同じ 64 ビットのビットボードによる
+ * 高速な処理（{@link Bits} 参照）で扱われます。
+ * それより大きな盤面は、2つの {@code long} 値によるビットボードと、各マスから各方向へのマスの並びの表により扱われます。<br>
+ * 
+ * @author nmby
+ */
+public final class Geometry {
+    
+    // [static members] ********************************************************
+    
+    /** マスの総数の上限 */
+    public static final int MAX_SQUARES = 2 * Long.SIZE;
+    
+    /** 標準の 8x8 盤 */
+    public static final Geometry STANDARD = new Geometry(Point.HEIGHT, Point.WIDTH);
+    
+    /**
+     * 起動時に盤面サイズを指定するためのシステムプロパティの名前です（{@code -Dreversi.geometry=10x10} など）。<br>
+     * CUI の変則盤面での対戦と完全読みが参照します。標準の {@link Player} による対戦は、常に 8x8 盤で行われます。<br>
+     */
+    public static final String PROPERTY = "reversi.geometry";
+    
+    private static final Pattern FORMAT = Pattern.compile("(\\d+)x(\\d+)");
+    
+    /**
+     * 指定された縦横のマス数を持つ {@link Geometry} を返します。<br>
+     * 
+     * @param height 縦のマス数
+     * @param width 横のマス数
+     * @return 指定された縦横のマス数を持つ {@link Geometry}
+     * @throws IllegalArgumentException 縦横のマス数が4以上の偶数でない場合、またはマスの総数が上限を超える場合
+     */
+    public static Geometry of(int height, int width) {
+        if (height < 4 || width < 4 || height % 2 != 0 || width % 2 != 0 || MAX_SQUARES < height * width) {
+            throw new IllegalArgumentException("height=%d, width=%d".formatted(height, width));
+        }
+        return height == STANDARD.height && width == STANDARD.width
+                ? STANDARD
+                : new Geometry(height, width);
+    }
+    
+    /**
+     * {@code "6x6"} のように、縦のマス数と横のマス数を {@code x} で区切った文字列を解析します。<br>
+     * 
+     * @param str 縦横のマス数を表す文字列
+     * @return 文字列が表す {@link Geometry}
+     * @throws NullPointerException {@code str} が {@code null} の場合
+     * @throws IllegalArgumentException 文字列の形式が不正な場合、または縦横のマス数が不正な場合
+     */
+    public static Geometry parse(String str) {
+        Objects.requireNonNull(str, "str");
+        
+        Matcher m = FORMAT.matcher(str.trim());
+        if (!m.matches()) {
+            throw new IllegalArgumentException("illegal format: " + str);
+        }
+        return of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+    }
+    
+    /**
+     * システムプロパティ {@value #PROPERTY} で指定された盤面サイズを返します。
+     * 指定されていない場合は {@link #STANDARD} を返します。<br>
+     * 
+     * @return 起動時に指定された盤面サイズ
+     * @throws IllegalArgumentException システムプロパティの値が不正な場合
+     */
+    public static Geometry fromProperty() {
+        String value = System.getProperty(PROPERTY);
+        return value == null ? STANDARD : parse(value);
+    }
+    
+    // [instance members] ******************************************************
+    
+    private final int height;
+    private final int width;
+    
+    /** 標準の 8x8 盤に埋め込んだ場合の、各マスのビット位置（埋め込めない場合は {@code null}） */
+    private final int[] bits;
+    
+    /** 標準の 8x8 盤に埋め込んだ場合に、盤面に含まれる位置のマスク */
+    private final long region;
+    
+    /** 各マスから {@link Direction} の各方向へのマスの並び（石を挟み得ない方向は空の配列） */
+    private final int[][][] rays;
+    
+    private Geometry(int height, int width) {
+        this.height = height;
+        this.width = width;
+        
+        int squares = height * width;
+        
+        if (height <= Point.HEIGHT && width <= Point.WIDTH) {
+            int di = (Point.HEIGHT - height) / 2;
+            int dj = (Point.WIDTH - width) / 2;
+            long r = 0L;
+            bits = new int[squares];
+            for (int sq = 0; sq < squares; sq++) {
+                bits[sq] = (sq / width + di) * Point.WIDTH + (sq % width + dj);
+                r |= 1L << bits[sq];
+            }
+            region = r;
+        } else {
+            bits = null;
+            region = 0L;
+        }
+        
+        rays = new int[squares][Direction.values().length][];
+        for (int sq = 0; sq < squares; sq++) {
+            for (Direction d : Direction.values()) {
+                int n = 0;
+                int[] ray = new int[Math.max(height, width)];
+                for (int i = sq / width + d.di, j = sq % width + d.dj;
+                        0 <= i && i < height && 0 <= j && j < width;
+                        i += d.di, j += d.dj) {
+                    ray[n++] = i * width + j;
+                }
+                rays[sq][d.ordinal()] = n < 2 ? new int[0] : Arrays.copyOf(ray, n);
+            }
+        }
+    }
+    
+    /**
+     * 縦のマス数を返します。<br>
+     * 
+     * @return 縦のマス数
+     */
+    public int height() {
+        return height;
+    }
+    
+    /**
+     * 横のマス数を返します。<br>
+     * 
+     * @return 横のマス数
+     */
+    public int width() {
+        return width;
+    }
+    
+    /**
+     * マスの総数を返します。<br>
+     * 
+     * @return マスの総数
+     */
+    public int squares() {
+        return height * width;
+    }
+    
+    /**
+     * 標準の 8x8 盤であるかを返します。<br>
+     * 
+     * @return 標準の 8x8 盤の場合は {@code true}
+     */
+    public boolean isStandard() {
+        return this == STANDARD;
+    }
+    
+    /**
+     * 標準の 8x8 盤に埋め込み、64 ビットのビットボードで扱える盤面サイズであるかを返します。<br>
+     * 
+     * @return 縦横ともに8以下の場合は {@code true}
+     */
+    public boolean isEmbedded() {
+        return bits != null;
+    }
+    
+    /**
+     * 指定された行と列のマスの番号を返します。<br>
+     * 
+     * @param i 行（0 始まり）
+     * @param j 列（0 始まり）
+     * @return マスの番号
+     * @throws IndexOutOfBoundsException {@code i}, {@code j} のいずれかが範囲外の場合
+     */
+    public int square(int i, int j) {
+        Objects.checkIndex(i, height);
+        Objects.checkIndex(j, width);
+        
+        return i * width + j;
+    }
+    
+    /**
+     * 標準の 8x8 盤に埋め込んだ場合の、指定されたマスのビット位置を返します。<br>
+     * 
+     * @param square マスの番号
+     * @return ビット位置
+     */
+    /*package*/ int bit(int square) {
+        assert bits != null;
+        return bits[square];
+    }
+    
+    /**
+     * 標準の 8x8 盤に埋め込んだ場合に、盤面に含まれる位置のマスクを返します。<br>
+     * 
+     * @return 盤面に含まれる位置のマスク
+     */
+    /*package*/ long region() {
+        assert bits != null;
+        return region;
+    }
+    
+    /**
+     * 指定されたマスから指定された方向へのマスの並びを返します。
+     * 2マス以上先まで盤内に収まらない方向については、空の配列を返します。<br>
+     * 
+     * @param square マスの番号
+     * @param dir 方向（{@link Direction#ordinal()}）
+     * @return マスの並び
+     */
+    /*package*/ int[] ray(int square, int dir) {
+        return rays[square][dir];
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Geometry other && height == other.height && width == other.width;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(height, width);
+    }
+    
+    @Override
+    public String toString() {
+        return "%dx%d".formatted(height, width);
+    }
+}
@@ -0,0 +1,50 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.Arrays;
+
+/**
+ * {@code long} 配列による {@link TableStorage} の実装です。<br>
+ * 
+ * @author nmby
+ */
+/*package*/ final class HeapTableStorage implements TableStorage {
+    
+    // [static members] ********************************************************
+    
+    /** 配列の要素数の上限（VM の実装上の上限に余裕を持たせた2の冪） */
+    /*package*/ static final int MAX_LENGTH = 1 << 30;
+    
+    // [instance members] ******************************************************
+    
+    private final long[] values;
+    
+    /*package*/ HeapTableStorage(long length) {
+        assert 0 < length && length <= MAX_LENGTH;
+        values = new long[(int) length];
+    }
+    
+    @Override
+    public long get(long index) {
+        return values[(int) index];
+    }
+    
+    @Override
+    public void set(long index, long value) {
+        values[(int) index] = value;
+    }
+    
+    @Override
+    public long length() {
+        return values.length;
+    }
+    
+    @Override
+    public void clear() {
+        Arrays.fill(values, 0L);
+    }
+    
+    @Override
+    public boolean isOffHeap() {
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.Objects;
+
+/**
+ * {@link Rule#apply(Board, Move)} により手を検証・適用した結果を表すレコードです。<br>
+ * 
+ * @param status 手を適用した結果の状態
+ * @param board 手を適用した後のリバーシ盤（{@link Status#ILLEGAL} の場合は元のリバーシ盤）
+ * @param opponentMustPass 手を適用した後のリバーシ盤において、相手の色の石を置ける位置が無く、
+ *                         かつゲームが継続している場合は {@code true}
+ * @author nmby
+ */
+public record MoveResult(Status status, Board board, boolean opponentMustPass) {
+    
+    // [static members] ********************************************************
+    
+    /**
+     * 手を適用した結果の状態を表す列挙型です。<br>
+     * 
+     * @author nmby
+     */
+    public static enum Status {
+        
+        /** 手が適用され、ゲームが継続している状態 */
+        APPLIED,
+        
+        /** 手がルールに違反しており、適用されなかった状態 */
+        ILLEGAL,
+        
+        /** 手が適用され、ゲームが終了した状態 */
+        GAME_OVER;
+    }
+    
+    // [instance members] ******************************************************
+    
+    /**
+     * 新たな {@link MoveResult} オブジェクトを生成します。<br>
+     * 
+     * @param status 手を適用した結果の状態
+     * @param board 手を適用した後のリバーシ盤（{@link Status#ILLEGAL} の場合は元のリバーシ盤）
+     * @param opponentMustPass 相手がパスしなければならない場合は {@code true}
+     * @throws NullPointerException {@code status}, {@code board} のいずれかが {@code null} の場合
+     * @throws IllegalArgumentException {@code status} が {@link Status#APPLIED} でないにも関わらず
+     *                                  {@code opponentMustPass} が {@code true} の場合
+     */
+    public MoveResult {
+        Objects.requireNonNull(status, "status");
+        Objects.requireNonNull(board, "board");
+        if (opponentMustPass && status != Status.APPLIED) {
+            throw new IllegalArgumentException("%s, opponentMustPass".formatted(status));
+        }
+    }
+    
+    /**
+     * 手が適用されたかを返します。<br>
+     * 
+     * @return 手が適用された場合（{@link Status#APPLIED} または {@link Status#GAME_OVER} の場合）は {@code true}
+     */
+    public boolean isApplied() {
+        return status != Status.ILLEGAL;
+    }
+}
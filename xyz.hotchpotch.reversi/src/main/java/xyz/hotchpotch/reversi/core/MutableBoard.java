@@ -0,0 +1,281 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.Objects;
+
+/**
+ * 手の適用と取り消しをその場で行うことのできる {@link Board} の実装です。
+ * このクラスのオブジェクトは可変です。<br>
+ * <br>
+ * 探索処理の高速化のため、この実装は {@link Board#getApplied(Move)} に加えて
+ * {@link #apply(Move)} と {@link #undo()} を提供します。
+ * これらのメソッドは固定長の履歴領域を用いるため、呼び出しのたびにオブジェクトを生成することはありません。<br>
+ * <br>
+ * このクラスはスレッドセーフではありません。<br>
+ * 
+ * @author nmby
+ */
+public final class MutableBoard implements Board {
+    
+    // [static members] ********************************************************
+    
+    /** 取り消し可能な手の最大数 */
+    private static final int CAPACITY = 2 * Point.HEIGHT * Point.WIDTH;
+    
+    // [instance members] ******************************************************
+    
+    /** 黒石の配置 */
+    private long black;
+    
+    /** 白石の配置 */
+    private long white;
+    
+    /** 石の配置の Zobrist ハッシュ */
+    private long key;
+    
+    /** 適用した手の位置の通し番号の履歴（パスの場合は {@code -1}） */
+    private final int[] ords = new int[CAPACITY];
+    
+    /** 適用した手によってひっくり返した石の履歴 */
+    private final long[] flipsHistory = new long[CAPACITY];
+    
+    /** 適用した手の数 */
+    private int depth;
+    
+    /**
+     * ゲーム開始時状態のリバーシ盤を生成します。<br>
+     */
+    public MutableBoard() {
+        this(Board.initBoard());
+    }
+    
+    /**
+     * 指定されたリバーシ盤と同じ石の配置を持つリバーシ盤を生成します。<br>
+     * 
+     * @param board リバーシ盤
+     * @throws NullPointerException {@code board} が {@code null} の場合
+     */
+    public MutableBoard(Board board) {
+        Objects.requireNonNull(board, "board");
+        
+        this.black = board.mask(Color.BLACK);
+        this.white = board.mask(Color.WHITE);
+        this.key = board.zobristKey();
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    @Override
+    public long mask(Color color) {
+        Objects.requireNonNull(color, "color");
+        
+        return color == Color.BLACK ? black : white;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws NullPointerException {@code point} が {@code null} の場合
+     */
+    @Override
+    public Color colorAt(Point point) {
+        Objects.requireNonNull(point, "point");
+        
+        long bit = point.bit();
+        return (black & bit) != 0
+                ? Color.BLACK
+                : (white & bit) != 0 ? Color.WHITE : null;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    @Override
+    public int count(Color color) {
+        Objects.requireNonNull(color, "color");
+        
+        return Long.bitCount(color == Color.BLACK ? black : white);
+    }
+    
+    @Override
+    public int empties() {
+        return Long.bitCount(~(black | white));
+    }
+    
+    @Override
+    public long zobristKey() {
+        return key;
+    }
+    
+    /**
+     * このリバーシ盤に指定された手を適用します。<br>
+     * 
+     * @param move 適用する手
+     * @throws NullPointerException {@code move} が {@code null} の場合
+     * @throws IllegalArgumentException このリバーシ盤に指定された手を適用できない場合
+     * @throws IllegalStateException 取り消し可能な手の数の上限に達している場合
+     */
+    public void apply(Move move) {
+        Objects.requireNonNull(move, "move");
+        if (depth == CAPACITY) {
+            throw new IllegalStateException("too many moves");
+        }
+        
+        boolean isBlack = move.color() == Color.BLACK;
+        long own = isBlack ? black : white;
+        long opp = isBlack ? white : black;
+        
+        if (move.point() == null) {
+            if (Bits.puttables(own, opp) != 0) {
+                throw new IllegalArgumentException("illegal move");
+            }
+            ords[depth] = -1;
+            flipsHistory[depth] = 0L;
+            depth++;
+            return;
+        }
+        
+        int ord = move.point().ordinal();
+        long put = 1L << ord;
+        long flips = ((own | opp) & put) == 0 ? Bits.flips(own, opp, ord) : 0L;
+        
+        if (flips == 0) {
+            throw new IllegalArgumentException("illegal move");
+        }
+        
+        own |= put | flips;
+        opp &= ~flips;
+        black = isBlack ? own : opp;
+        white = isBlack ? opp : own;
+        key ^= Bits.zobristDelta(move.color(), ord, flips);
+        
+        ords[depth] = ord;
+        flipsHistory[depth] = flips;
+        depth++;
+    }
+    
+    /**
+     * このリバーシ盤から展開された子局面のバッファ（{@link #children(Color, Children)} 参照）の、
+     * 指定された番号の手をこのリバーシ盤に適用します。<br>
+     * バッファに記録済みのひっくり返る石の位置と Zobrist ハッシュを用いるため、
+     * {@link #apply(Move)} と異なり手の妥当性の検証や石の位置の再計算を行いません。<br>
+     * 
+     * @param children このリバーシ盤の現在の状態から展開された子局面のバッファ
+     * @param index 適用する手の番号
+     * @throws NullPointerException {@code children} が {@code null} の場合
+     * @throws IllegalArgumentException {@code children} がこのリバーシ盤の現在の状態から展開されたものでない場合
+     * @throws IndexOutOfBoundsException {@code index} が範囲外の場合
+     * @throws IllegalStateException 取り消し可能な手の数の上限に達している場合
+     */
+    public void apply(Children children, int index) {
+        Objects.requireNonNull(children, "children");
+        if (!children.isExpandedFrom(black, white)) {
+            throw new IllegalArgumentException("children of another board");
+        }
+        if (depth == CAPACITY) {
+            throw new IllegalStateException("too many moves");
+        }
+        
+        int ord = children.ordinal(index);
+        long put = 1L << ord;
+        long flips = children.flips(index);
+        
+        if (children.color() == Color.BLACK) {
+            black |= put | flips;
+            white &= ~flips;
+        } else {
+            white |= put | flips;
+            black &= ~flips;
+        }
+        key = children.key(index);
+        
+        ords[depth] = ord;
+        flipsHistory[depth] = flips;
+        depth++;
+    }
+    
+    /**
+     * 最後に適用した手を取り消します。<br>
+     * 
+     * @throws IllegalStateException 取り消すことのできる手が無い場合
+     */
+    public void undo() {
+        if (depth == 0) {
+            throw new IllegalStateException("no moves to undo");
+        }
+        
+        depth--;
+        int ord = ords[depth];
+        if (ord < 0) {
+            return;
+        }
+        
+        long put = 1L << ord;
+        long flips = flipsHistory[depth];
+        Color color = (black & put) != 0 ? Color.BLACK : Color.WHITE;
+        
+        // 置いた石を取り除き、ひっくり返した石を相手の色に戻す。
+        black ^= color == Color.BLACK ? put | flips : flips;
+        white ^= color == Color.WHITE ? put | flips : flips;
+        key ^= Bits.zobristDelta(color, ord, flips);
+    }
+    
+    /**
+     * 取り消すことのできる手の数を返します。<br>
+     * 
+     * @return 取り消すことのできる手の数
+     */
+    public int depth() {
+        return depth;
+    }
+    
+    /**
+     * このリバーシ盤の現在の石の配置を持つ、不変のリバーシ盤を返します。<br>
+     * 
+     * @return 不変のリバーシ盤
+     */
+    public Board toBoard() {
+        return new BitBoard(black, white);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、このリバーシ盤自身を変更することなく、新たな不変のリバーシ盤を返します。<br>
+     * 
+     * @throws NullPointerException {@code move} が {@code null} の場合
+     * @throws IllegalArgumentException このリバーシ盤に指定された手を適用できない場合
+     */
+    @Override
+    public Board getApplied(Move move) {
+        return toBoard().getApplied(move);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * このオブジェクトは可変であるため、ハッシュ表のキーなどとして用いる場合は
+     * {@link #toBoard()} で得られる不変のリバーシ盤を用いてください。<br>
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof Board b) {
+            return Board.equals(this, b);
+        }
+        return false;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Board.hashCode(this);
+    }
+    
+    @Override
+    public String toString() {
+        return Board.toString(this);
+    }
+}
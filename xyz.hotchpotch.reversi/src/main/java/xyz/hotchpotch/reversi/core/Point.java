@@ -1,6 +1,9 @@
 package xyz.hotchpotch.reversi.core;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.stream.IntStream;
@@ -26,6 +29,48 @@ public class Point {
             .mapToObj(n -> new Point(n / WIDTH, n % WIDTH))
             .toArray(Point[]::new);
     
+    private static final int DIRECTIONS = Direction.values().length;
+    
+    /** 各位置から各方向に隣接する位置（盤外の場合は {@code null}）。[通し番号][方向] */
+    private static final Point[][] nexts = new Point[points.length][DIRECTIONS];
+    
+    /** 各位置から各方向に盤端まで辿った位置の通し番号（隣接する位置から順に格納）。[通し番号][方向] */
+    private static final int[][][] rays = new int[points.length][DIRECTIONS][];
+    
+    /** {@link #rays} の不変リスト表現。[通し番号 * 方向数 + 方向] */
+    private static final List<List<Point>> rayLists = new ArrayList<>();
+    
+    /** {@link #rays} のビットボード表現。[通し番号][方向] */
+    private static final long[][] rayMasks = new long[points.length][DIRECTIONS];
+    
+    /** 各位置に隣接する位置のビットボード表現。[通し番号] */
+    private static final long[] neighbourMasks = new long[points.length];
+    
+    static {
+        for (Point p : points) {
+            for (Direction d : Direction.values()) {
+                int ni = p.i + d.di;
+                int nj = p.j + d.dj;
+                nexts[p.ordinal][d.ordinal()] = isValidIdx(ni, nj) ? points[idxToOrd(ni, nj)] : null;
+            }
+        }
+        
+        for (Point p : points) {
+            for (Direction d : Direction.values()) {
+                List<Point> ray = new ArrayList<>();
+                for (Point q = nexts[p.ordinal][d.ordinal()]; q != null; q = nexts[q.ordinal][d.ordinal()]) {
+                    ray.add(q);
+                    rayMasks[p.ordinal][d.ordinal()] |= 1L << q.ordinal;
+                }
+                if (!ray.isEmpty()) {
+                    neighbourMasks[p.ordinal] |= 1L << ray.get(0).ordinal;
+                }
+                rays[p.ordinal][d.ordinal()] = ray.stream().mapToInt(q -> q.ordinal).toArray();
+                rayLists.add(List.copyOf(ray));
+            }
+        }
+    }
+    
     /**
      * 全ての {@link Point} オブジェクトを含む配列を返します。<br>
      * 
@@ -74,6 +119,87 @@ public class Point {
         return points[n];
     }
     
+    /**
+     * 指定された通し番号の位置を表す {@link Point} インスタンスを返します。<br>
+     * 通し番号は左上（{@code "a1"}）を 0 とし、行ごとに右方向へ数えた値です。<br>
+     * 
+     * @param ordinal 通し番号
+     * @return 指定された通し番号の位置を表す {@link Point} インスタンス
+     * @throws IndexOutOfBoundsException 指定された通し番号が範囲外の場合
+     */
+    public static Point ofOrdinal(int ordinal) {
+        Objects.checkIndex(ordinal, points.length);
+        
+        return points[ordinal];
+    }
+    
+    /**
+     * 64 ビットのマスクの立っているビットの位置（位置の通し番号）を、下位ビットから順に指定された配列に格納します。<br>
+     * このメソッドはオブジェクトを生成しないため、探索処理の内側のループで用いることができます。<br>
+     * 
+     * @param mask マスク
+     * @param ordinals 通し番号を格納する配列
+     * @return 格納した通し番号の数（マスクの立っているビットの数）
+     * @throws NullPointerException {@code ordinals} が {@code null} の場合
+     * @throws IndexOutOfBoundsException {@code ordinals} の長さが足りない場合
+     */
+    public static int toOrdinals(long mask, int[] ordinals) {
+        Objects.requireNonNull(ordinals, "ordinals");
+        
+        int n = 0;
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            ordinals[n++] = Long.numberOfTrailingZeros(bits);
+        }
+        return n;
+    }
+    
+    /**
+     * 64 ビットのマスクの立っているビットに対応する位置のリストを、通し番号の昇順で返します。<br>
+     * マスクの第 n ビットは、通し番号 n の位置に対応します。<br>
+     * 
+     * @param mask マスク
+     * @return マスクの立っているビットに対応する位置の不変リスト
+     */
+    public static List<Point> pointsOf(long mask) {
+        Point[] arr = new Point[Long.bitCount(mask)];
+        int n = 0;
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            arr[n++] = points[Long.numberOfTrailingZeros(bits)];
+        }
+        return List.of(arr);
+    }
+    
+    /**
+     * 指定された位置の集まりを、64 ビットのマスクとして返します。<br>
+     * マスクの第 n ビットは、通し番号 n の位置に対応します。<br>
+     * 
+     * @param points 位置の集まり
+     * @return 指定された位置に対応するビットが立ったマスク
+     * @throws NullPointerException {@code points} が {@code null} の場合、
+     *                              または {@code null} 要素を含む場合
+     */
+    public static long maskOf(Collection<Point> points) {
+        Objects.requireNonNull(points, "points");
+        
+        long mask = 0L;
+        for (Point p : points) {
+            mask |= p.bit();
+        }
+        return mask;
+    }
+    
+    /**
+     * 指定された位置から指定された方向に盤端まで辿った位置の通し番号を、隣接する位置から順に返します。<br>
+     * 返される配列は内部の表そのものであるため、呼び出し側で変更してはなりません。<br>
+     * 
+     * @param ordinal 起点の位置の通し番号
+     * @param direction 方向
+     * @return 盤端までの位置の通し番号の配列
+     */
+    /*package*/ static int[] rayOrdinals(int ordinal, Direction direction) {
+        return rays[ordinal][direction.ordinal()];
+    }
+    
     private static boolean isValidIdx(int i, int j) {
         return 0 <= i && i < HEIGHT && 0 <= j && j < WIDTH;
     }
@@ -111,10 +237,12 @@ public class Point {
     
     private final int i;
     private final int j;
+    private final int ordinal;
     
     private Point(int i, int j) {
         this.i = i;
         this.j = j;
+        this.ordinal = idxToOrd(i, j);
     }
     
     /**
@@ -144,6 +272,27 @@ public class Point {
         return idxToPos(i, j);
     }
     
+    /**
+     * この位置の通し番号を返します。<br>
+     * 通し番号は左上（{@code "a1"}）を 0 とし、行ごとに右方向へ数えた値です。<br>
+     * 
+     * @return この位置の通し番号
+     * @see #ofOrdinal(int)
+     */
+    public int ordinal() {
+        return ordinal;
+    }
+    
+    /**
+     * この位置に対応するビットだけが立った 64 ビットのマスクを返します。<br>
+     * {@code 1L << ordinal()} と同じ値です。<br>
+     * 
+     * @return この位置のマスク
+     */
+    public long bit() {
+        return 1L << ordinal;
+    }
+    
     /**
      * 指定された方向に次の {@link Point} が存在するかを返します。<br>
      * 
@@ -154,10 +303,7 @@ public class Point {
     public boolean hasNext(Direction direction) {
         Objects.requireNonNull(direction, "direction");
         
-        int ni = i + direction.di;
-        int nj = j + direction.dj;
-        
-        return isValidIdx(ni, nj);
+        return nexts[ordinal][direction.ordinal()] != null;
     }
     
     /**
@@ -171,14 +317,52 @@ public class Point {
     public Point next(Direction direction) {
         Objects.requireNonNull(direction, "direction");
         
-        int ni = i + direction.di;
-        int nj = j + direction.dj;
-        
-        if (!isValidIdx(ni, nj)) {
+        Point next = nexts[ordinal][direction.ordinal()];
+        if (next == null) {
             throw new NoSuchElementException("%s -> %s".formatted(this, direction));
         }
         
-        return of(ni, nj);
+        return next;
+    }
+    
+    /**
+     * この位置から指定された方向に盤端まで辿った位置のリストを、隣接する位置から順に返します。
+     * この位置が指定された方向の盤端にある場合は空のリストを返します。<br>
+     * 返されるリストは不変であり、クラスの初期化時に作成済みのものです。<br>
+     * 
+     * @param direction 方向
+     * @return 盤端までの位置の不変リスト
+     * @throws NullPointerException {@code direction} が {@code null} の場合
+     */
+    public List<Point> ray(Direction direction) {
+        Objects.requireNonNull(direction, "direction");
+        
+        return rayLists.get(ordinal * DIRECTIONS + direction.ordinal());
+    }
+    
+    /**
+     * この位置から指定された方向に盤端まで辿った位置を、64 ビットのマスクとして返します。<br>
+     * マスクの各ビットは、左上（{@code "a1"}）を最下位ビットとし、
+     * 行ごとに右方向へ数えた位置に対応します。<br>
+     * 
+     * @param direction 方向
+     * @return 盤端までの位置のマスク
+     * @throws NullPointerException {@code direction} が {@code null} の場合
+     */
+    public long rayMask(Direction direction) {
+        Objects.requireNonNull(direction, "direction");
+        
+        return rayMasks[ordinal][direction.ordinal()];
+    }
+    
+    /**
+     * この位置に隣接する（最大8つの）位置を、64 ビットのマスクとして返します。<br>
+     * マスクの各ビットの意味は {@link #rayMask(Direction)} と同様です。<br>
+     * 
+     * @return 隣接する位置のマスク
+     */
+    public long neighbourMask() {
+        return neighbourMasks[ordinal];
     }
     
     @Override
@@ -0,0 +1,202 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * リバーシ盤上の位置の集合を、1つの 64 ビットのマスクで表現する {@link java.util.Set} の実装です。<br>
+ * マスクの第 n ビットは、通し番号 n の位置（{@link Point#ordinal()} 参照）に対応します。<br>
+ * <br>
+ * {@link #contains(Object)}, {@link #add(Point)}, {@link #remove(Object)} は定数時間で、
+ * {@link #size()} はビットの数え上げで処理されます。
+ * 反復子は立っているビットを下位ビットから順に走査するため、要素は常に通し番号の昇順で返されます。<br>
+ * <br>
+ * このクラスのオブジェクトは可変です。{@code null} 要素は許容しません。
+ * このクラスはスレッドセーフではありません。<br>
+ * 
+ * @author nmby
+ */
+public final class PointSet extends AbstractSet<Point> {
+    
+    // [static members] ********************************************************
+    
+    /**
+     * 指定されたマスクの立っているビットに対応する位置を要素とする集合を返します。<br>
+     * 
+     * @param mask マスク
+     * @return 新たな集合
+     */
+    public static PointSet ofMask(long mask) {
+        PointSet set = new PointSet();
+        set.mask = mask;
+        return set;
+    }
+    
+    // [instance members] ******************************************************
+    
+    /** 要素の位置に対応するビットが立ったマスク */
+    private long mask;
+    
+    /**
+     * 空の集合を生成します。<br>
+     */
+    public PointSet() {
+    }
+    
+    /**
+     * 指定されたコレクションの要素を持つ集合を生成します。<br>
+     * 
+     * @param points 位置のコレクション
+     * @throws NullPointerException {@code points} が {@code null} の場合、
+     *                              または {@code null} 要素を含む場合
+     */
+    public PointSet(Collection<Point> points) {
+        Objects.requireNonNull(points, "points");
+        
+        this.mask = points instanceof PointSet other ? other.mask : Point.maskOf(points);
+    }
+    
+    /**
+     * この集合の要素の位置に対応するビットが立ったマスクを返します。<br>
+     * 
+     * @return この集合を表すマスク
+     */
+    public long mask() {
+        return mask;
+    }
+    
+    @Override
+    public int size() {
+        return Long.bitCount(mask);
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+    
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Point p && (mask & p.bit()) != 0;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws NullPointerException {@code point} が {@code null} の場合
+     */
+    @Override
+    public boolean add(Point point) {
+        Objects.requireNonNull(point, "point");
+        
+        long prev = mask;
+        mask |= point.bit();
+        return mask != prev;
+    }
+    
+    @Override
+    public boolean remove(Object o) {
+        if (o instanceof Point p) {
+            long prev = mask;
+            mask &= ~p.bit();
+            return mask != prev;
+        }
+        return false;
+    }
+    
+    @Override
+    public void clear() {
+        mask = 0L;
+    }
+    
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (c instanceof PointSet other) {
+            return (other.mask & ~mask) == 0;
+        }
+        return super.containsAll(c);
+    }
+    
+    @Override
+    public boolean addAll(Collection<? extends Point> c) {
+        Objects.requireNonNull(c, "c");
+        
+        long prev = mask;
+        if (c instanceof PointSet other) {
+            mask |= other.mask;
+        } else {
+            for (Point p : c) {
+                mask |= Objects.requireNonNull(p, "point").bit();
+            }
+        }
+        return mask != prev;
+    }
+    
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if (c instanceof PointSet other) {
+            long prev = mask;
+            mask &= ~other.mask;
+            return mask != prev;
+        }
+        return super.removeAll(c);
+    }
+    
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c instanceof PointSet other) {
+            long prev = mask;
+            mask &= other.mask;
+            return mask != prev;
+        }
+        return super.retainAll(c);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * 反復子は、この集合の要素を通し番号の昇順で返します。<br>
+     */
+    @Override
+    public Iterator<Point> iterator() {
+        return new Iterator<>() {
+            private long remaining = mask;
+            private long last;
+            
+            @Override
+            public boolean hasNext() {
+                return remaining != 0;
+            }
+            
+            @Override
+            public Point next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                last = remaining & -remaining;
+                remaining ^= last;
+                return Point.ofOrdinal(Long.numberOfTrailingZeros(last));
+            }
+            
+            @Override
+            public void remove() {
+                if (last == 0) {
+                    throw new IllegalStateException();
+                }
+                mask &= ~last;
+                last = 0L;
+            }
+        };
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof PointSet other) {
+            return mask == other.mask;
+        }
+        return super.equals(o);
+    }
+}
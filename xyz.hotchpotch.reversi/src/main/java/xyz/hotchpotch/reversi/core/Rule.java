@@ -1,9 +1,6 @@
 package xyz.hotchpotch.reversi.core;
 
-import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * リバーシのルールに関わる関数を集めたユーティリティクラスです。<br>
@@ -24,7 +21,7 @@ public class Rule {
     public static boolean isGameOngoing(Board board) {
         Objects.requireNonNull(board, "board");
         
-        return canPut(board, Color.BLACK) || canPut(board, Color.WHITE);
+        return (board.puttables(Color.BLACK) | board.puttables(Color.WHITE)) != 0;
     }
     
     /**
@@ -41,13 +38,11 @@ public class Rule {
             throw new IllegalStateException("game is ongoing.");
         }
         
-        Map<Color, Integer> counts = board.counts();
-        int black = counts.get(Color.BLACK);
-        int white = counts.get(Color.WHITE);
+        int diff = board.discDifference(Color.BLACK);
         
-        return black == white
+        return diff == 0
                 ? null
-                : black < white ? Color.WHITE : Color.BLACK;
+                : diff < 0 ? Color.WHITE : Color.BLACK;
     }
     
     /**
@@ -62,7 +57,7 @@ public class Rule {
         Objects.requireNonNull(board, "board");
         Objects.requireNonNull(color, "color");
         
-        return Point.stream().anyMatch(p -> canPutAt(board, color, p));
+        return puttables(board, color) != 0;
     }
     
     /**
@@ -80,6 +75,12 @@ public class Rule {
         Objects.requireNonNull(color, "color");
         Objects.requireNonNull(point, "point");
         
+        if (Bits.hasMasks(board)) {
+            return (puttables(board, color) & (point.bit())) != 0;
+        }
+        
+        // ビットボードを持たないリバーシ盤では、盤面全体を変換するよりも
+        // 指定された位置から各方向を辿る方が安価である。
         if (board.colorAt(point) != null) {
             return false;
         }
@@ -110,9 +111,65 @@ public class Rule {
                 : canPutAt(board, move.color(), move.point());
     }
     
+    /**
+     * 指定されたリバーシ盤に指定された手を検証したうえで適用し、その結果を返します。<br>
+     * {@link #canApply(Board, Move)}, {@link Board#getApplied(Move)}, {@link #isGameOngoing(Board)}
+     * を順に呼び出すのと同じ結果を、石の配置の走査を重複させることなく一度に求めます。
+     * 手がルールに違反している場合も例外はスローせず、{@link MoveResult.Status#ILLEGAL} を返します。
+     * 石の色が手番通りであるかは考慮しません。<br>
+     * 
+     * @param board リバーシ盤
+     * @param move 手
+     * @return 手を検証・適用した結果
+     * @throws NullPointerException {@code board}, {@code move} のいずれかが {@code null} の場合
+     */
+    public static MoveResult apply(Board board, Move move) {
+        Objects.requireNonNull(board, "board");
+        Objects.requireNonNull(move, "move");
+        
+        Color color = move.color();
+        long own = board.mask(color);
+        long opp = board.mask(color.reversed());
+        Board next = board;
+        
+        if (move.point() == null) {
+            // パスは石を置ける位置が無い場合に限り認められる。
+            if (Bits.puttables(own, opp) != 0) {
+                return new MoveResult(MoveResult.Status.ILLEGAL, board, false);
+            }
+            
+        } else {
+            // 石を置いた位置が空いていて、ひっくり返る石がある場合に限り認められる。
+            int ord = move.point().ordinal();
+            long put = 1L << ord;
+            long flips = ((own | opp) & put) == 0 ? Bits.flips(own, opp, ord) : 0L;
+            if (flips == 0) {
+                return new MoveResult(MoveResult.Status.ILLEGAL, board, false);
+            }
+            
+            own |= put | flips;
+            opp &= ~flips;
+            long key = board.zobristKey() ^ Bits.zobristDelta(color, ord, flips);
+            next = color == Color.BLACK
+                    ? new BitBoard(own, opp, key)
+                    : new BitBoard(opp, own, key);
+        }
+        
+        if (Bits.puttables(opp, own) != 0) {
+            return new MoveResult(MoveResult.Status.APPLIED, next, false);
+            
+        } else if (Bits.puttables(own, opp) != 0) {
+            return new MoveResult(MoveResult.Status.APPLIED, next, true);
+            
+        } else {
+            return new MoveResult(MoveResult.Status.GAME_OVER, next, false);
+        }
+    }
+    
     /**
      * 指定されたリバーシ盤に指定された手を適用したときに
      * ひっくり返すことのできる石の位置を返します。<br>
+     * このメソッドは {@link #flips(Board, Move)} の結果をそのまま {@link PointSet} として返します。<br>
      * 
      * @param board リバーシ盤
      * @param move 適用する手
@@ -121,23 +178,129 @@ public class Rule {
      * @throws IllegalArgumentException
      *      適用できない手が指定された場合もしくは指定された手がパスの場合
      */
-    public static Set<Point> reversibles(Board board, Move move) {
+    public static PointSet reversibles(Board board, Move move) {
+        long flips = flips(board, move);
+        if (flips == 0) {
+            throw new IllegalArgumentException("move: %s, board: %s".formatted(move, board));
+        }
+        
+        return PointSet.ofMask(flips);
+    }
+    
+    /**
+     * 指定されたリバーシ盤に指定された手を適用したときに
+     * ひっくり返すことのできる石の位置を、64 ビットのマスクとして返します。<br>
+     * マスクの各ビットは、左上（{@code "a1"}）を最下位ビットとし、
+     * 行ごとに右方向へ数えた位置に対応します。<br>
+     * <br>
+     * 石を置けない手の場合は {@code 0} を返します。
+     * 石を置ける手であれば必ず1つ以上の石をひっくり返すため、
+     * 戻り値が {@code 0} でないことをもって手の妥当性の検証を兼ねることができます。<br>
+     * 
+     * @param board リバーシ盤
+     * @param move 適用する手
+     * @return ひっくり返すことのできる石の位置のマスク（パスまたは石を置けない手の場合は {@code 0}）
+     * @throws NullPointerException {@code board}, {@code move} のいずれかが {@code null} の場合
+     */
+    public static long flips(Board board, Move move) {
         Objects.requireNonNull(board, "board");
         Objects.requireNonNull(move, "move");
-        if (move.point() == null || !canPutAt(board, move.color(), move.point())) {
-            throw new IllegalArgumentException("move: %s, board: %s".formatted(move, board));
+        
+        Point point = move.point();
+        if (point == null || board.colorAt(point) != null) {
+            return 0L;
+        }
+        
+        if (Bits.hasMasks(board)) {
+            return Bits.flips(
+                    board.mask(move.color()),
+                    board.mask(move.color().reversed()),
+                    point.ordinal());
         }
         
-        return Direction.stream()
-                .<Point> mapMulti((d, sink) -> {
-                    int n = numOfReversibles(board, move.color(), move.point(), d);
-                    Point p = move.point();
-                    
-                    while (0 < n--) {
-                        p = p.next(d);
-                        sink.accept(p);
-                    }
-                }).collect(Collectors.toSet());
+        long flips = 0L;
+        for (Direction d : Direction.values()) {
+            int n = numOfReversibles(board, move.color(), point, d);
+            int[] ray = Point.rayOrdinals(point.ordinal(), d);
+            
+            for (int k = 0; k < n; k++) {
+                flips |= 1L << ray[k];
+            }
+        }
+        return flips;
+    }
+    
+    /**
+     * 指定されたリバーシ盤に指定された色の石を置ける位置を、64 ビットのマスクとして返します。<br>
+     * マスクの各ビットの意味は {@link #flips(Board, Move)} と同様です。<br>
+     * <br>
+     * 立っているビットは、例えば次のようにしてオブジェクトを生成することなく走査できます。
+     * <pre>{@code
+     *     for (long m = Rule.puttables(board, color); m != 0; m &= m - 1) {
+     *         Point p = Point.ofOrdinal(Long.numberOfTrailingZeros(m));
+     *         ...
+     *     }
+     * }</pre>
+     * 不変なリバーシ盤に対しては、リバーシ盤が保持する値を返すため、
+     * 同じリバーシ盤に繰り返し問い合わせても再計算は行われません（{@link Board#puttables(Color)} 参照）。<br>
+     * 
+     * @param board リバーシ盤
+     * @param color 石の色
+     * @return 石を置ける位置のマスク
+     * @throws NullPointerException {@code board}, {@code color} のいずれかが {@code null} の場合
+     */
+    public static long puttables(Board board, Color color) {
+        Objects.requireNonNull(board, "board");
+        Objects.requireNonNull(color, "color");
+        
+        return board.puttables(color);
+    }
+    
+    /**
+     * 指定されたリバーシ盤に指定された色の石を置ける位置の通し番号（{@link Point#ofOrdinal(int)} 参照）を、
+     * 昇順に指定された配列に格納します。<br>
+     * 配列の長さは {@code Point.HEIGHT * Point.WIDTH} あれば十分です。<br>
+     * 
+     * @param board リバーシ盤
+     * @param color 石の色
+     * @param ordinals 通し番号を格納する配列
+     * @return 石を置ける位置の数
+     * @throws NullPointerException {@code board}, {@code color}, {@code ordinals} のいずれかが {@code null} の場合
+     * @throws IndexOutOfBoundsException {@code ordinals} の長さが足りない場合
+     */
+    public static int puttables(Board board, Color color, int[] ordinals) {
+        Objects.requireNonNull(ordinals, "ordinals");
+        
+        return Point.toOrdinals(puttables(board, color), ordinals);
+    }
+    
+    /**
+     * 手番側と相手側の石の配置をマスクとして受け取り、手番側の石を置ける位置をマスクとして返します。<br>
+     * {@link BitboardPlayer} など、リバーシ盤オブジェクトを介さずに石の配置を扱う処理のための関数です。<br>
+     * 
+     * @param own 手番側の石の配置を表すマスク
+     * @param opp 相手側の石の配置を表すマスク
+     * @return 石を置ける位置のマスク
+     */
+    public static long puttables(long own, long opp) {
+        return Bits.puttables(own, opp);
+    }
+    
+    /**
+     * 手番側と相手側の石の配置をマスクとして受け取り、指定された位置に手番側の石を置いたときに
+     * ひっくり返る石の位置をマスクとして返します。<br>
+     * 指定された位置が空いているかは検証しません。<br>
+     * 
+     * @param own 手番側の石の配置を表すマスク
+     * @param opp 相手側の石の配置を表すマスク
+     * @param ordinal 石を置く位置の通し番号
+     * @return ひっくり返る石の位置のマスク（石を置けない場合は {@code 0}）
+     * @throws IndexOutOfBoundsException {@code ordinal} が範囲外の場合
+     */
+    public static long flips(long own, long opp, int ordinal) {
+        Objects.checkIndex(ordinal, Point.HEIGHT * Point.WIDTH);
+        
+        return Bits.flips(own, opp, ordinal);
     }
     
     private static int numOfReversibles(
@@ -152,19 +315,15 @@ public class Rule {
         assert direction != null;
         assert board.colorAt(point) == null;
         
-        int n = 0;
-        Point p = point;
+        int[] ray = Point.rayOrdinals(point.ordinal(), direction);
         
-        while (p.hasNext(direction)) {
-            p = p.next(direction);
-            Color c = board.colorAt(p);
+        for (int n = 0; n < ray.length; n++) {
+            Color c = board.colorAt(Point.ofOrdinal(ray[n]));
             
             if (c == null) {
                 return 0;
             } else if (c == color) {
                 return n;
-            } else {
-                n++;
             }
         }
         return 0;
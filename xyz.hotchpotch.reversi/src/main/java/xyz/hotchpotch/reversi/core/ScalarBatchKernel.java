@@ -0,0 +1,37 @@
+package xyz.hotchpotch.reversi.core;
+
+/**
+ * 局面ごとに {@link Bits} の関数を呼び出す、スカラー演算による {@link BatchKernel} の実装です。<br>
+ * 
+ * @author nmby
+ */
+/*package*/ enum ScalarBatchKernel implements BatchKernel {
+    
+    // [static members] ********************************************************
+    
+    /** 唯一のインスタンス */
+    INSTANCE;
+    
+    // [instance members] ******************************************************
+    
+    @Override
+    public void puttables(long[] own, long[] opp, long[] dst, int n) {
+        for (int i = 0; i < n; i++) {
+            dst[i] = Bits.puttables(own[i], opp[i]);
+        }
+    }
+    
+    @Override
+    public void flips(long[] own, long[] opp, long[] put, long[] dst, int n) {
+        for (int i = 0; i < n; i++) {
+            dst[i] = put[i] == 0
+                    ? 0L
+                    : Bits.flips(own[i], opp[i], Long.numberOfTrailingZeros(put[i]));
+        }
+    }
+    
+    @Override
+    public boolean isVectorized() {
+        return false;
+    }
+}
@@ -0,0 +1,286 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * リバーシ盤の対称変換（4通りの回転と4通りの鏡映、いわゆる二面体群 D4）を表す列挙型です。<br>
+ * 各変換は、石の配置を表す 64 ビットのマスク（{@link Board#mask(Color)} 参照）に対する
+ * ビット演算として実装されています。<br>
+ * <br>
+ * 回転や鏡映によって互いに移り合う局面は、ゲーム上まったく同じ価値を持ちます。
+ * {@link #canonical(Board)} を用いて局面を代表元に揃えることで、
+ * 置換表や定石データなどに同じ局面を重複して登録することを避けられます。<br>
+ * 
+ * @author nmby
+ */
+public enum Symmetry {
+    
+    // [static members] ********************************************************
+    
+    /** 恒等変換 */
+    IDENTITY,
+    
+    /** 時計回りに90度回転する変換 */
+    ROTATE_90,
+    
+    /** 180度回転する変換 */
+    ROTATE_180,
+    
+    /** 時計回りに270度回転する変換 */
+    ROTATE_270,
+    
+    /** 左右を反転する変換（a列とh列を入れ替える） */
+    FLIP_HORIZONTAL,
+    
+    /** 上下を反転する変換（1行目と8行目を入れ替える） */
+    FLIP_VERTICAL,
+    
+    /** a1-h8 の対角線に関して反転する変換 */
+    FLIP_DIAGONAL,
+    
+    /** h1-a8 の対角線に関して反転する変換 */
+    FLIP_ANTI_DIAGONAL;
+    
+    /**
+     * リバーシ盤の局面を対称変換によって代表元に揃えた結果を表すレコードです。<br>
+     * 
+     * @param board 代表元となるリバーシ盤
+     * @param symmetry 元のリバーシ盤を代表元に移す変換
+     */
+    public record Canonical(Board board, Symmetry symmetry) {
+        
+        /**
+         * 新たな {@link Canonical} オブジェクトを生成します。<br>
+         * 
+         * @param board 代表元となるリバーシ盤
+         * @param symmetry 元のリバーシ盤を代表元に移す変換
+         * @throws NullPointerException {@code board}, {@code symmetry} のいずれかが {@code null} の場合
+         */
+        public Canonical {
+            Objects.requireNonNull(board, "board");
+            Objects.requireNonNull(symmetry, "symmetry");
+        }
+        
+        /**
+         * 代表元の Zobrist ハッシュを返します。<br>
+         * 互いに対称な局面は、同じ値を返します。<br>
+         * 
+         * @return 代表元の Zobrist ハッシュ
+         */
+        public long key() {
+            return board.zobristKey();
+        }
+        
+        /**
+         * 代表元のリバーシ盤上の位置を、元のリバーシ盤上の位置に戻して返します。<br>
+         * 
+         * @param point 代表元のリバーシ盤上の位置
+         * @return 元のリバーシ盤上の位置
+         * @throws NullPointerException {@code point} が {@code null} の場合
+         */
+        public Point toOriginal(Point point) {
+            return symmetry.inverse().apply(point);
+        }
+        
+        /**
+         * 元のリバーシ盤上の位置を、代表元のリバーシ盤上の位置に移して返します。<br>
+         * 
+         * @param point 元のリバーシ盤上の位置
+         * @return 代表元のリバーシ盤上の位置
+         * @throws NullPointerException {@code point} が {@code null} の場合
+         */
+        public Point toCanonical(Point point) {
+            return symmetry.apply(point);
+        }
+    }
+    
+    /** 各変換による位置の通し番号の移り先 */
+    private static final int[][] ords = new int[values().length][Point.HEIGHT * Point.WIDTH];
+    
+    static {
+        assert Point.HEIGHT == 8 && Point.WIDTH == 8;
+        
+        final int m = Point.HEIGHT - 1;
+        for (Symmetry s : values()) {
+            for (Point p : Point.values()) {
+                int i = p.i();
+                int j = p.j();
+                int ord = switch (s) {
+                case IDENTITY -> i * Point.WIDTH + j;
+                case ROTATE_90 -> j * Point.WIDTH + (m - i);
+                case ROTATE_180 -> (m - i) * Point.WIDTH + (m - j);
+                case ROTATE_270 -> (m - j) * Point.WIDTH + i;
+                case FLIP_HORIZONTAL -> i * Point.WIDTH + (m - j);
+                case FLIP_VERTICAL -> (m - i) * Point.WIDTH + j;
+                case FLIP_DIAGONAL -> j * Point.WIDTH + i;
+                case FLIP_ANTI_DIAGONAL -> (m - j) * Point.WIDTH + (m - i);
+                };
+                ords[s.ordinal()][p.ordinal()] = ord;
+            }
+        }
+    }
+    
+    /**
+     * 全ての {@link Symmetry} オブジェクトを含む直列ストリームを返します。<br>
+     * 
+     * @return 全ての {@link Symmetry} オブジェクトを含む直列ストリーム
+     */
+    public static Stream<Symmetry> stream() {
+        return Stream.of(values());
+    }
+    
+    /**
+     * 指定されたリバーシ盤を、対称な局面の中の代表元に揃えて返します。<br>
+     * 代表元は、8通りの変換を施した石の配置のうち、
+     * 黒石のマスク、白石のマスクの順に符号なし整数として比較して最小となるものです。<br>
+     * 
+     * @param board リバーシ盤
+     * @return 代表元と、元のリバーシ盤を代表元に移す変換
+     * @throws NullPointerException {@code board} が {@code null} の場合
+     */
+    public static Canonical canonical(Board board) {
+        Objects.requireNonNull(board, "board");
+        
+        long black = board.mask(Color.BLACK);
+        long white = board.mask(Color.WHITE);
+        
+        Symmetry best = IDENTITY;
+        long bestBlack = black;
+        long bestWhite = white;
+        
+        for (Symmetry s : values()) {
+            long b = s.apply(black);
+            long w = s.apply(white);
+            int cmp = Long.compareUnsigned(b, bestBlack);
+            
+            if (cmp < 0 || cmp == 0 && Long.compareUnsigned(w, bestWhite) < 0) {
+                best = s;
+                bestBlack = b;
+                bestWhite = w;
+            }
+        }
+        return new Canonical(new BitBoard(bestBlack, bestWhite), best);
+    }
+    
+    /**
+     * 指定された位置の集まりから、指定されたリバーシ盤を不変に保つ変換によって
+     * 互いに移り合う位置を取り除き、代表となる位置だけを残したマスクを返します。<br>
+     * 代表としては、互いに移り合う位置のうち通し番号が最小のものが残されます。<br>
+     * <br>
+     * ゲーム序盤の対称性を持つ局面において、ゲーム上等価な着手を探索から除くために用いることができます。
+     * 対称性を持たない局面に対しては、指定されたマスクをそのまま返します。<br>
+     * 
+     * @param board リバーシ盤
+     * @param mask 位置の集まりを表すマスク
+     * @return 等価な位置を取り除いたマスク
+     * @throws NullPointerException {@code board} が {@code null} の場合
+     */
+    public static long distinct(Board board, long mask) {
+        Objects.requireNonNull(board, "board");
+        
+        long black = board.mask(Color.BLACK);
+        long white = board.mask(Color.WHITE);
+        long result = mask;
+        
+        for (Symmetry s : values()) {
+            if (s == IDENTITY || s.apply(black) != black || s.apply(white) != white) {
+                continue;
+            }
+            for (long bits = result; bits != 0; bits &= bits - 1) {
+                int ord = Long.numberOfTrailingZeros(bits);
+                int image = s.ords()[ord];
+                
+                if (image < ord && (result & (1L << image)) != 0) {
+                    result &= ~(1L << ord);
+                }
+            }
+        }
+        return result;
+    }
+    
+    /** 各行の中でビットの並びを反転します（a列とh列を入れ替えます）。 */
+    private static long flipHorizontal(long x) {
+        x = ((x >>> 1) & 0x5555555555555555L) | ((x & 0x5555555555555555L) << 1);
+        x = ((x >>> 2) & 0x3333333333333333L) | ((x & 0x3333333333333333L) << 2);
+        x = ((x >>> 4) & 0x0F0F0F0F0F0F0F0FL) | ((x & 0x0F0F0F0F0F0F0F0FL) << 4);
+        return x;
+    }
+    
+    /** 行と列を入れ替えます（a1-h8 の対角線に関して反転します）。 */
+    private static long flipDiagonal(long x) {
+        long t;
+        t = 0x0F0F0F0F00000000L & (x ^ (x << 28));
+        x ^= t ^ (t >>> 28);
+        t = 0x3333000033330000L & (x ^ (x << 14));
+        x ^= t ^ (t >>> 14);
+        t = 0x5500550055005500L & (x ^ (x << 7));
+        x ^= t ^ (t >>> 7);
+        return x;
+    }
+    
+    // [instance members] ******************************************************
+    
+    private int[] ords() {
+        return ords[ordinal()];
+    }
+    
+    /**
+     * この変換の逆変換を返します。<br>
+     * 
+     * @return この変換の逆変換
+     */
+    public Symmetry inverse() {
+        return switch (this) {
+        case ROTATE_90 -> ROTATE_270;
+        case ROTATE_270 -> ROTATE_90;
+        default -> this;
+        };
+    }
+    
+    /**
+     * 指定されたマスクにこの変換を施したマスクを返します。<br>
+     * マスクの第 n ビットは、通し番号 n の位置（{@link Point#ordinal()} 参照）に対応します。<br>
+     * 
+     * @param mask マスク
+     * @return 変換後のマスク
+     */
+    public long apply(long mask) {
+        return switch (this) {
+        case IDENTITY -> mask;
+        case ROTATE_90 -> flipHorizontal(flipDiagonal(mask));
+        case ROTATE_180 -> Long.reverse(mask);
+        case ROTATE_270 -> Long.reverseBytes(flipDiagonal(mask));
+        case FLIP_HORIZONTAL -> flipHorizontal(mask);
+        case FLIP_VERTICAL -> Long.reverseBytes(mask);
+        case FLIP_DIAGONAL -> flipDiagonal(mask);
+        case FLIP_ANTI_DIAGONAL -> Long.reverse(flipDiagonal(mask));
+        };
+    }
+    
+    /**
+     * 指定された位置にこの変換を施した位置を返します。<br>
+     * 
+     * @param point 位置
+     * @return 変換後の位置
+     * @throws NullPointerException {@code point} が {@code null} の場合
+     */
+    public Point apply(Point point) {
+        Objects.requireNonNull(point, "point");
+        
+        return Point.ofOrdinal(ords()[point.ordinal()]);
+    }
+    
+    /**
+     * 指定されたリバーシ盤にこの変換を施したリバーシ盤を返します。<br>
+     * 
+     * @param board リバーシ盤
+     * @return 変換後のリバーシ盤
+     * @throws NullPointerException {@code board} が {@code null} の場合
+     */
+    public Board apply(Board board) {
+        Objects.requireNonNull(board, "board");
+        
+        return new BitBoard(apply(board.mask(Color.BLACK)), apply(board.mask(Color.WHITE)));
+    }
+}
@@ -0,0 +1,83 @@
+package xyz.hotchpotch.reversi.core;
+
+/**
+ * {@link TranspositionTable} のエントリを格納する、{@code long} 値の固定長の配列を表します。<br>
+ * 実装は、複数のスレッドから同期なしに読み書きされることを許容する必要があります
+ * （読み書きの単位は {@code long} 値1つであり、それ以上の原子性は求めません）。<br>
+ * 
+ * @author nmby
+ */
+/*package*/ interface TableStorage {
+    
+    // [static members] ********************************************************
+    
+    /**
+     * Java ヒープ外にメモリを確保する実装を返します。<br>
+     * 
+     * @param length 要素数
+     * @return ヒープ外にメモリを確保する実装
+     * @throws UnsupportedOperationException {@code jdk.incubator.foreign} モジュールが利用できない場合
+     */
+    /*package*/ static TableStorage offHeap(long length) {
+        try {
+            // 実装クラスは JDK 17 でビルドした場合にのみ含まれる（build.gradle の foreign ソースセット）。
+            // jdk.incubator.foreign モジュールが解決されていない場合は、実装クラスの利用時にエラーとなる。
+            return (TableStorage) Class.forName("xyz.hotchpotch.reversi.core.NativeTableStorage")
+                    .getDeclaredConstructor(long.class)
+                    .newInstance(length);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new UnsupportedOperationException("jdk.incubator.foreign is not available", e);
+        }
+    }
+    
+    /**
+     * Java ヒープ外にメモリを確保する実装が利用できるかを返します。<br>
+     * 
+     * @return 利用できる場合は {@code true}
+     */
+    /*package*/ static boolean isOffHeapSupported() {
+        try {
+            offHeap(1).clear();
+            return true;
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+    
+    // [instance members] ******************************************************
+    
+    /**
+     * 指定された位置の値を返します。<br>
+     * 
+     * @param index 位置
+     * @return 値
+     */
+    long get(long index);
+    
+    /**
+     * 指定された位置に値を格納します。<br>
+     * 
+     * @param index 位置
+     * @param value 値
+     */
+    void set(long index, long value);
+    
+    /**
+     * 要素数を返します。<br>
+     * 
+     * @return 要素数
+     */
+    long length();
+    
+    /**
+     * 全ての要素を {@code 0} にします。<br>
+     */
+    void clear();
+    
+    /**
+     * この実装が Java ヒープ外のメモリを用いるかを返します。<br>
+     * 
+     * @return ヒープ外のメモリを用いる場合は {@code true}
+     */
+    boolean isOffHeap();
+}
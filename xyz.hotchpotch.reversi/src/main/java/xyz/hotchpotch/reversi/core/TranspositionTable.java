@@ -0,0 +1,355 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * 探索済みの局面の結果（最善手、評価値とその種類、読みの深さ）を記録する、固定サイズの置換表です。<br>
+ * <br>
+ * 局面は 64 ビットのキー（{@link #key(Board, Color)} 参照）で識別します。
+ * 置換表は2つのエントリからなるバケットの配列であり、キーの下位ビットでバケットを選びます。
+ * バケットの1つめのエントリは読みの深さを優先して保持し（depth-preferred）、
+ * 2つめのエントリは常に新しい結果で置き換えます（always-replace）。
+ * 1つめのエントリは、新しい結果の読みの深さが同じかより深い場合と、
+ * 以前の探索（{@link #newSearch()} 参照）で記録されたものである場合に置き換えられ、
+ * 置き換えられた結果は2つめのエントリに移されます。<br>
+ * <br>
+ * エントリは {@code [key ^ data, data]} の2つの {@code long} 値として格納します。
+ * 複数のスレッドが同期なしに読み書きし、2つの値の書き込みが食い違った場合は、
+ * 参照時のキーの照合に失敗して単に無視されます。このため、このクラスは複数のスレッドから同時に利用できます。<br>
+ * {@code data} は下位から順に、最善手の位置の通し番号 + 1（8ビット）、評価値の種類（2ビット）、
+ * 読みの深さ（8ビット）、記録した探索の世代（8ビット）、評価値（上位32ビット）を格納します。
+ * {@link #probe(long)} はこの {@code data} を返し、各値は {@link #move(long)} などで取り出します。<br>
+ * <br>
+ * 格納先のメモリは、Java ヒープ上の {@code long} 配列（{@link #onHeap(long)}）か、
+ * {@code jdk.incubator.foreign} によるヒープ外のメモリ（{@link #offHeap(long)}）から選べます。
+ * ヒープ外のメモリは、JDK 17 でビルドし、{@code --add-modules jdk.incubator.foreign} を指定して実行した場合にのみ利用できます
+ * （{@link #isOffHeapSupported()} 参照）。
+ * 数 GB に及ぶ置換表は、ガベージコレクションの負担とならないようにヒープ外に確保することをお勧めします。<br>
+ * 
+ * @author nmby
+ */
+public final class TranspositionTable {
+    
+    // [static members] ********************************************************
+    
+    /**
+     * 評価値の種類を表す列挙型です。<br>
+     * 
+     * @author nmby
+     */
+    public static enum Bound {
+        
+        /** 正確な評価値 */
+        EXACT,
+        
+        /** 評価値の下限（探索窓の上限以上であることだけが分かっている） */
+        LOWER,
+        
+        /** 評価値の上限（探索窓の下限以下であることだけが分かっている） */
+        UPPER;
+    }
+    
+    /** {@link Bound#values()} の複製を避けるためのキャッシュ */
+    private static final Bound[] BOUNDS = Bound.values();
+    
+    /** 置換表のサイズ（バイト数）を指定するシステムプロパティの名前（{@code 64m}, {@code 2g} など） */
+    public static final String SIZE_PROPERTY = "reversi.tt.size";
+    
+    /** 置換表をヒープ外に確保するかを指定するシステムプロパティの名前（{@code true} または {@code false}） */
+    public static final String OFF_HEAP_PROPERTY = "reversi.tt.offheap";
+    
+    /** 置換表の既定のサイズ（バイト数） */
+    public static final long DEFAULT_BYTES = 16L << 20;
+    
+    /** バケットあたりの {@code long} 値の数（2エントリ × 2値） */
+    private static final int BUCKET_LENGTH = 4;
+    
+    /** 白の手番の局面のキーに排他的論理和をとる値 */
+    private static final long WHITE_TO_MOVE = 0x9D39247E33776D41L;
+    
+    private static final int MOVE_SHIFT = 0;
+    private static final int BOUND_SHIFT = 8;
+    private static final int DEPTH_SHIFT = 10;
+    private static final int AGE_SHIFT = 18;
+    private static final int SCORE_SHIFT = 32;
+    
+    /** 読みの深さの上限 */
+    private static final int MAX_DEPTH = 0xFF;
+    
+    /**
+     * 指定されたリバーシ盤と手番の局面を識別するキーを返します。<br>
+     * {@link Board#zobristKey()} に手番の情報を加えたものです。<br>
+     * 
+     * @param board リバーシ盤
+     * @param color 手番
+     * @return キー
+     * @throws NullPointerException {@code board}, {@code color} のいずれかが {@code null} の場合
+     */
+    public static long key(Board board, Color color) {
+        Objects.requireNonNull(board, "board");
+        Objects.requireNonNull(color, "color");
+        
+        return color == Color.WHITE ? board.zobristKey() ^ WHITE_TO_MOVE : board.zobristKey();
+    }
+    
+    /**
+     * Java ヒープ上に確保した置換表を生成します。<br>
+     * エントリ数は、指定されたバイト数に収まる最大の2の冪に切り詰められます。<br>
+     * 
+     * @param bytes 置換表のサイズの上限（バイト数）
+     * @return 新たな置換表
+     * @throws IllegalArgumentException {@code bytes} がバケット1つ分（32バイト）に満たない場合、
+     *                                  または {@code long} 配列として確保できないほど大きい場合
+     */
+    public static TranspositionTable onHeap(long bytes) {
+        long length = length(bytes);
+        if (HeapTableStorage.MAX_LENGTH < length) {
+            throw new IllegalArgumentException("too large for heap: %d bytes".formatted(bytes));
+        }
+        return new TranspositionTable(new HeapTableStorage(length));
+    }
+    
+    /**
+     * Java ヒープ外に確保した置換表を生成します。<br>
+     * エントリ数は、指定されたバイト数に収まる最大の2の冪に切り詰められます。
+     * 実行環境で {@code jdk.incubator.foreign} モジュールが解決されている必要があります（{@link #isOffHeapSupported()} 参照）。<br>
+     * 
+     * @param bytes 置換表のサイズの上限（バイト数）
+     * @return 新たな置換表
+     * @throws IllegalArgumentException {@code bytes} がバケット1つ分（32バイト）に満たない場合
+     * @throws UnsupportedOperationException {@code jdk.incubator.foreign} モジュールが利用できない場合
+     */
+    public static TranspositionTable offHeap(long bytes) {
+        return new TranspositionTable(TableStorage.offHeap(length(bytes)));
+    }
+    
+    /**
+     * Java ヒープ外に置換表を確保できるかを返します。<br>
+     * ヒープ外の実装は {@code jdk.incubator.foreign} の JDK 17 の API を用いるため、
+     * JDK 17 でビルドされ、実行環境で {@code jdk.incubator.foreign} モジュールが解決されている場合にのみ利用できます。<br>
+     * 
+     * @return ヒープ外に確保できる場合は {@code true}
+     */
+    public static boolean isOffHeapSupported() {
+        return TableStorage.isOffHeapSupported();
+    }
+    
+    /**
+     * システムプロパティ {@value #SIZE_PROPERTY}, {@value #OFF_HEAP_PROPERTY} に従って置換表を生成します。<br>
+     * サイズが指定されていない場合は {@link #DEFAULT_BYTES} とし、
+     * ヒープ外の指定が無い場合は Java ヒープ上に確保します。<br>
+     * 
+     * @return 新たな置換表
+     * @throws IllegalArgumentException システムプロパティの値が不正な場合
+     * @throws UnsupportedOperationException ヒープ外に確保するよう指定され、
+     *                                       {@code jdk.incubator.foreign} モジュールが利用できない場合
+     */
+    public static TranspositionTable fromProperties() {
+        String size = System.getProperty(SIZE_PROPERTY);
+        long bytes = size == null ? DEFAULT_BYTES : parseSize(size);
+        
+        return Boolean.getBoolean(OFF_HEAP_PROPERTY) ? offHeap(bytes) : onHeap(bytes);
+    }
+    
+    /**
+     * {@code 64m}, {@code 2g} のような、接尾辞 {@code k}, {@code m}, {@code g} を伴うバイト数の表記を解析します。<br>
+     * 
+     * @param str バイト数の表記
+     * @return バイト数
+     * @throws NullPointerException {@code str} が {@code null} の場合
+     * @throws IllegalArgumentException {@code str} の書式が不正な場合
+     */
+    /*package*/ static long parseSize(String str) {
+        Objects.requireNonNull(str, "str");
+        
+        String s = str.strip().toLowerCase(Locale.ROOT);
+        int shift = s.endsWith("k") ? 10 : s.endsWith("m") ? 20 : s.endsWith("g") ? 30 : 0;
+        if (shift != 0) {
+            s = s.substring(0, s.length() - 1);
+        }
+        if (!s.matches("[0-9]{1,10}")) {
+            throw new IllegalArgumentException("size: " + str);
+        }
+        return Long.parseLong(s) << shift;
+    }
+    
+    /**
+     * 指定されたバイト数に収まる最大のバケット数に対応する、{@code long} 値の数を返します。<br>
+     */
+    private static long length(long bytes) {
+        long buckets = Long.highestOneBit(bytes / (BUCKET_LENGTH * Long.BYTES));
+        if (buckets == 0) {
+            throw new IllegalArgumentException("bytes: %d".formatted(bytes));
+        }
+        return buckets * BUCKET_LENGTH;
+    }
+    
+    /**
+     * {@link #probe(long)} が返したエントリの、最善手の位置の通し番号を返します。<br>
+     * 
+     * @param entry エントリ
+     * @return 最善手の位置の通し番号（記録されていない場合は {@code -1}）
+     */
+    public static int move(long entry) {
+        return (int) (entry >>> MOVE_SHIFT & 0xFF) - 1;
+    }
+    
+    /**
+     * {@link #probe(long)} が返したエントリの、評価値を返します。<br>
+     * 
+     * @param entry エントリ
+     * @return 評価値
+     */
+    public static int score(long entry) {
+        return (int) (entry >> SCORE_SHIFT);
+    }
+    
+    /**
+     * {@link #probe(long)} が返したエントリの、評価値の種類を返します。<br>
+     * 
+     * @param entry エントリ
+     * @return 評価値の種類
+     * @throws IllegalArgumentException {@code entry} が {@code 0} の場合
+     */
+    public static Bound bound(long entry) {
+        int b = (int) (entry >>> BOUND_SHIFT & 0x3);
+        if (b == 0) {
+            throw new IllegalArgumentException("no entry");
+        }
+        return BOUNDS[b - 1];
+    }
+    
+    /**
+     * {@link #probe(long)} が返したエントリの、読みの深さを返します。<br>
+     * 
+     * @param entry エントリ
+     * @return 読みの深さ
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT & MAX_DEPTH);
+    }
+    
+    private static int age(long entry) {
+        return (int) (entry >>> AGE_SHIFT & 0xFF);
+    }
+    
+    // [instance members] ******************************************************
+    
+    private final TableStorage storage;
+    private final long bucketMask;
+    
+    /** 現在の探索の世代 */
+    private int age;
+    
+    private TranspositionTable(TableStorage storage) {
+        assert Long.bitCount(storage.length() / BUCKET_LENGTH) == 1;
+        
+        this.storage = storage;
+        this.bucketMask = storage.length() / BUCKET_LENGTH - 1;
+    }
+    
+    /**
+     * 指定されたキーの局面の記録を探します。<br>
+     * 
+     * @param key 局面のキー
+     * @return エントリ（記録が無い場合は {@code 0}）
+     */
+    public long probe(long key) {
+        long i = (key & bucketMask) * BUCKET_LENGTH;
+        
+        long data = storage.get(i + 1);
+        if (data != 0 && (storage.get(i) ^ data) == key) {
+            return data;
+        }
+        data = storage.get(i + 3);
+        if (data != 0 && (storage.get(i + 2) ^ data) == key) {
+            return data;
+        }
+        return 0L;
+    }
+    
+    /**
+     * 指定されたキーの局面の探索結果を記録します。<br>
+     * 最善手が指定されず、同じ局面の最善手が既に記録されている場合は、その最善手を引き継ぎます。<br>
+     * 
+     * @param key 局面のキー
+     * @param move 最善手の位置の通し番号（最善手が無い場合は {@code -1}）
+     * @param score 評価値
+     * @param bound 評価値の種類
+     * @param depth 読みの深さ（255 を超える値は 255 として記録します）
+     * @throws NullPointerException {@code bound} が {@code null} の場合
+     * @throws IllegalArgumentException {@code move} が {@code -1} 以上 63 以下でない場合、
+     *                                  または {@code depth} が負の場合
+     */
+    public void store(long key, int move, int score, Bound bound, int depth) {
+        Objects.requireNonNull(bound, "bound");
+        if (move < -1 || Point.HEIGHT * Point.WIDTH <= move || depth < 0) {
+            throw new IllegalArgumentException("move: %d, depth: %d".formatted(move, depth));
+        }
+        
+        long i = (key & bucketMask) * BUCKET_LENGTH;
+        long data0 = storage.get(i + 1);
+        boolean same0 = (storage.get(i) ^ data0) == key;
+        
+        if (move == -1) {
+            long prev = same0 ? data0 : probe(key);
+            if (prev != 0) {
+                move = move(prev);
+            }
+        }
+        
+        long data = (long) (move + 1) << MOVE_SHIFT
+                | (long) (bound.ordinal() + 1) << BOUND_SHIFT
+                | (long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT
+                | (long) age << AGE_SHIFT
+                | (long) score << SCORE_SHIFT;
+        
+        if (data0 == 0 || same0 || age(data0) != age || depth(data0) <= depth) {
+            // 深さ優先のエントリを置き換え、元の結果は常に置き換えるエントリに移す。
+            if (data0 != 0 && !same0) {
+                storage.set(i + 2, storage.get(i));
+                storage.set(i + 3, data0);
+            }
+            storage.set(i, key ^ data);
+            storage.set(i + 1, data);
+            
+        } else {
+            storage.set(i + 2, key ^ data);
+            storage.set(i + 3, data);
+        }
+    }
+    
+    /**
+     * 新たな探索の開始を置換表に通知します。<br>
+     * 以前の探索で記録された結果は、読みの深さに関わらず置き換えの対象となります。<br>
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+    
+    /**
+     * 全ての記録を消去します。<br>
+     */
+    public void clear() {
+        storage.clear();
+    }
+    
+    /**
+     * この置換表が記録できるエントリの数を返します。<br>
+     * 
+     * @return エントリの数
+     */
+    public long capacity() {
+        return storage.length() / 2;
+    }
+    
+    /**
+     * この置換表がヒープ外のメモリに確保されているかを返します。<br>
+     * 
+     * @return ヒープ外のメモリに確保されている場合は {@code true}
+     */
+    public boolean isOffHeap() {
+        return storage.isOffHeap();
+    }
+}
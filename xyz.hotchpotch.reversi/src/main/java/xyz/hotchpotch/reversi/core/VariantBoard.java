@@ -0,0 +1,369 @@
+package xyz.hotchpotch.reversi.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * 研究用の、任意の {@link Geometry} を持つリバーシ盤です。このクラスは不変です。<br>
+ * <br>
+ * 盤上の各マスは {@link Geometry#square(int, int)} の番号で指定します。
+ * 石を置ける位置やひっくり返る石の位置は、マスの番号をビット位置とする {@link BitSet} で返します。<br>
+ * <br>
+ * 縦横ともに8以下の盤面は、標準の 8x8 盤の中央に埋め込んだ 64 ビットのビットボードとして保持し、
+ * {@link Board} と同じビットボード演算で処理します。盤面の外側のマスは常に空きマスとして扱われ、
+ * 石を置ける位置は盤面に含まれるマスに限定されます。
+ * 64 マスを超える盤面は、2つの {@code long} 値によるビットボードとして保持します。<br>
+ * <br>
+ * 標準の 8x8 盤を用いるゲームやプレーヤーは、引き続き {@link Board} と {@link Point} を用います。
+ * 標準の 8x8 盤との相互変換には {@link #of(Board)} と {@link #toBoard()} を用います。<br>
+ * 
+ * @author nmby
+ */
+public final class VariantBoard {
+    
+    // [static members] ********************************************************
+    
+    /**
+     * 指定された形のゲーム開始時状態のリバーシ盤を返します。
+     * 中央の4マスに、標準の盤面と同じ配置で石が置かれます。<br>
+     * 
+     * @param geometry 盤面の形
+     * @return ゲーム開始時状態のリバーシ盤
+     * @throws NullPointerException {@code geometry} が {@code null} の場合
+     */
+    public static VariantBoard initial(Geometry geometry) {
+        Objects.requireNonNull(geometry, "geometry");
+        
+        int i = geometry.height() / 2 - 1;
+        int j = geometry.width() / 2 - 1;
+        long[] black = new long[2];
+        long[] white = new long[2];
+        WideBits.set(black, geometry.square(i, j + 1));
+        WideBits.set(black, geometry.square(i + 1, j));
+        WideBits.set(white, geometry.square(i, j));
+        WideBits.set(white, geometry.square(i + 1, j + 1));
+        
+        return geometry.isEmbedded()
+                ? new VariantBoard(geometry, embed(geometry, black), embed(geometry, white))
+                : new VariantBoard(geometry, black, white);
+    }
+    
+    /**
+     * 指定された標準の 8x8 盤と同じ石の配置を持つリバーシ盤を返します。<br>
+     * 
+     * @param board 標準の 8x8 盤
+     * @return 同じ石の配置を持つリバーシ盤
+     * @throws NullPointerException {@code board} が {@code null} の場合
+     */
+    public static VariantBoard of(Board board) {
+        Objects.requireNonNull(board, "board");
+        
+        return new VariantBoard(Geometry.STANDARD, board.mask(Color.BLACK), board.mask(Color.WHITE));
+    }
+    
+    private static long embed(Geometry geometry, long[] bits) {
+        long embedded = 0L;
+        for (int sq = 0; sq < geometry.squares(); sq++) {
+            if (WideBits.test(bits, sq)) {
+                embedded |= 1L << geometry.bit(sq);
+            }
+        }
+        return embedded;
+    }
+    
+    // [instance members] ******************************************************
+    
+    private final Geometry geometry;
+    
+    /** 黒石の配置（埋め込み可能な盤面の場合は、8x8 盤に埋め込んだビットボード） */
+    private final long black;
+    private final long white;
+    
+    /** 黒石の配置（64 マスを超える盤面の場合） */
+    private final long[] blacks;
+    private final long[] whites;
+    
+    private VariantBoard(Geometry geometry, long black, long white) {
+        assert geometry.isEmbedded();
+        assert (black & white) == 0;
+        assert ((black | white) & ~geometry.region()) == 0;
+        
+        this.geometry = geometry;
+        this.black = black;
+        this.white = white;
+        this.blacks = null;
+        this.whites = null;
+    }
+    
+    private VariantBoard(Geometry geometry, long[] blacks, long[] whites) {
+        assert !geometry.isEmbedded();
+        
+        this.geometry = geometry;
+        this.black = 0L;
+        this.white = 0L;
+        this.blacks = blacks;
+        this.whites = whites;
+    }
+    
+    /**
+     * このリバーシ盤の形を返します。<br>
+     * 
+     * @return 盤面の形
+     */
+    public Geometry geometry() {
+        return geometry;
+    }
+    
+    /**
+     * 指定されたマスの石の色を返します。
+     * 石が置かれていない場合は {@code null} を返します。<br>
+     * 
+     * @param square マスの番号
+     * @return 石の色（石が置かれていない場合は {@code null}）
+     * @throws IndexOutOfBoundsException {@code square} が範囲外の場合
+     */
+    public Color colorAt(int square) {
+        Objects.checkIndex(square, geometry.squares());
+        
+        if (geometry.isEmbedded()) {
+            long bit = 1L << geometry.bit(square);
+            return (black & bit) != 0 ? Color.BLACK : (white & bit) != 0 ? Color.WHITE : null;
+        } else {
+            return WideBits.test(blacks, square) ? Color.BLACK
+                    : WideBits.test(whites, square) ? Color.WHITE : null;
+        }
+    }
+    
+    /**
+     * 指定された色の石の数を返します。<br>
+     * 
+     * @param color 石の色
+     * @return 石の数
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    public int count(Color color) {
+        Objects.requireNonNull(color, "color");
+        
+        if (geometry.isEmbedded()) {
+            return Long.bitCount(color == Color.BLACK ? black : white);
+        } else {
+            return WideBits.count(color == Color.BLACK ? blacks : whites);
+        }
+    }
+    
+    /**
+     * 指定された色の石を置ける位置を返します。<br>
+     * 
+     * @param color 石の色
+     * @return 石を置ける位置（マスの番号の集合）
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    public BitSet puttables(Color color) {
+        Objects.requireNonNull(color, "color");
+        
+        if (geometry.isEmbedded()) {
+            return toBitSet(Bits.puttables(mask(color), mask(color.reversed())) & geometry.region());
+        } else {
+            return color == Color.BLACK
+                    ? BitSet.valueOf(WideBits.puttables(geometry, blacks, whites))
+                    : BitSet.valueOf(WideBits.puttables(geometry, whites, blacks));
+        }
+    }
+    
+    /**
+     * 指定された色の石を置ける位置があるかを返します。<br>
+     * 
+     * @param color 石の色
+     * @return 石を置ける位置がある場合は {@code true}
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     */
+    public boolean canPut(Color color) {
+        Objects.requireNonNull(color, "color");
+        
+        if (geometry.isEmbedded()) {
+            return (Bits.puttables(mask(color), mask(color.reversed())) & geometry.region()) != 0;
+        } else {
+            return !puttables(color).isEmpty();
+        }
+    }
+    
+    /**
+     * 指定されたマスに指定された色の石を置いたときに、ひっくり返る石の位置を返します。<br>
+     * 
+     * @param color 石の色
+     * @param square マスの番号
+     * @return ひっくり返る石の位置（石を置けない場合は空の集合）
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     * @throws IndexOutOfBoundsException {@code square} が範囲外の場合
+     */
+    public BitSet flips(Color color, int square) {
+        Objects.requireNonNull(color, "color");
+        Objects.checkIndex(square, geometry.squares());
+        
+        if (colorAt(square) != null) {
+            return new BitSet();
+        }
+        if (geometry.isEmbedded()) {
+            return toBitSet(Bits.flips(mask(color), mask(color.reversed()), geometry.bit(square)));
+        } else {
+            return color == Color.BLACK
+                    ? BitSet.valueOf(WideBits.flips(geometry, blacks, whites, square))
+                    : BitSet.valueOf(WideBits.flips(geometry, whites, blacks, square));
+        }
+    }
+    
+    /**
+     * 指定されたマスに指定された色の石を置いた後のリバーシ盤を返します。<br>
+     * 
+     * @param color 石の色
+     * @param square マスの番号
+     * @return 石を置いた後のリバーシ盤
+     * @throws NullPointerException {@code color} が {@code null} の場合
+     * @throws IndexOutOfBoundsException {@code square} が範囲外の場合
+     * @throws IllegalArgumentException 指定されたマスに石を置けない場合
+     */
+    public VariantBoard applied(Color color, int square) {
+        Objects.requireNonNull(color, "color");
+        Objects.checkIndex(square, geometry.squares());
+        if (colorAt(square) != null) {
+            throw new IllegalArgumentException("occupied: %d".formatted(square));
+        }
+        
+        if (geometry.isEmbedded()) {
+            long put = 1L << geometry.bit(square);
+            long flips = Bits.flips(mask(color), mask(color.reversed()), geometry.bit(square));
+            if (flips == 0) {
+                throw new IllegalArgumentException("no flips: %s, %d".formatted(color, square));
+            }
+            return color == Color.BLACK
+                    ? new VariantBoard(geometry, black | put | flips, white & ~flips)
+                    : new VariantBoard(geometry, black & ~flips, white | put | flips);
+        } else {
+            long[] own = color == Color.BLACK ? blacks : whites;
+            long[] opp = color == Color.BLACK ? whites : blacks;
+            long[] flips = WideBits.flips(geometry, own, opp, square);
+            if (WideBits.count(flips) == 0) {
+                throw new IllegalArgumentException("no flips: %s, %d".formatted(color, square));
+            }
+            long[] newOwn = new long[2];
+            long[] newOpp = new long[2];
+            for (int k = 0; k < 2; k++) {
+                newOwn[k] = own[k] | flips[k];
+                newOpp[k] = opp[k] & ~flips[k];
+            }
+            WideBits.set(newOwn, square);
+            return color == Color.BLACK
+                    ? new VariantBoard(geometry, newOwn, newOpp)
+                    : new VariantBoard(geometry, newOpp, newOwn);
+        }
+    }
+    
+    /**
+     * ゲームが継続中か、すなわち黒白どちらかが石を置けるかを返します。<br>
+     * 
+     * @return ゲームが継続中の場合は {@code true}
+     */
+    public boolean isGameOngoing() {
+        return canPut(Color.BLACK) || canPut(Color.WHITE);
+    }
+    
+    /**
+     * 勝者の色を返します。
+     * 引き分けの場合は {@code null} を返します。<br>
+     * 
+     * @return 勝者の色（引き分けの場合は {@code null}）
+     * @throws IllegalStateException ゲーム継続中の場合
+     */
+    public Color winner() {
+        if (isGameOngoing()) {
+            throw new IllegalStateException("game is ongoing.");
+        }
+        int diff = count(Color.BLACK) - count(Color.WHITE);
+        
+        return diff == 0
+                ? null
+                : diff < 0 ? Color.WHITE : Color.BLACK;
+    }
+    
+    /**
+     * このリバーシ盤を標準の 8x8 盤に変換します。<br>
+     * 
+     * @return 同じ石の配置を持つ標準の 8x8 盤
+     * @throws IllegalStateException このリバーシ盤が標準の 8x8 盤でない場合
+     */
+    public Board toBoard() {
+        if (!geometry.isStandard()) {
+            throw new IllegalStateException("not standard: " + geometry);
+        }
+        return new BitBoard(black, white);
+    }
+    
+    /**
+     * 8x8 盤に埋め込んだビットボードとしての、指定された色の石の配置を返します。<br>
+     * 
+     * @param color 石の色
+     * @return 石の配置
+     */
+    /*package*/ long mask(Color color) {
+        assert geometry.isEmbedded();
+        return color == Color.BLACK ? black : white;
+    }
+    
+    private BitSet toBitSet(long embedded) {
+        BitSet set = new BitSet(geometry.squares());
+        for (int sq = 0; sq < geometry.squares(); sq++) {
+            if ((embedded & (1L << geometry.bit(sq))) != 0) {
+                set.set(sq);
+            }
+        }
+        return set;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof VariantBoard other && geometry.equals(other.geometry)) {
+            return geometry.isEmbedded()
+                    ? black == other.black && white == other.white
+                    : Arrays.equals(blacks, other.blacks) && Arrays.equals(whites, other.whites);
+        }
+        return false;
+    }
+    
+    @Override
+    public int hashCode() {
+        return geometry.isEmbedded()
+                ? Objects.hash(geometry, black, white)
+                : Objects.hash(geometry, Arrays.hashCode(blacks), Arrays.hashCode(whites));
+    }
+    
+    /**
+     * このリバーシ盤の文字列表現（複数行）を返します。
+     * 形式は {@link Board#toString(Board)} と同じです。<br>
+     * 
+     * @return このリバーシ盤の文字列表現（複数行）
+     */
+    @Override
+    public String toString() {
+        String BR = System.lineSeparator();
+        String rowFormat = "%%-%dd ".formatted(String.valueOf(geometry.height()).length());
+        StringBuilder str = new StringBuilder(rowFormat.formatted(0).replace('0', ' '));
+        
+        for (int j = 0; j < geometry.width(); j++) {
+            str.append((char) ('a' + j)).append(" ");
+        }
+        str.append(BR);
+        
+        for (int i = 0; i < geometry.height(); i++) {
+            str.append(rowFormat.formatted(i + 1));
+            
+            for (int j = 0; j < geometry.width(); j++) {
+                Color c = colorAt(geometry.square(i, j));
+                str.append(c == null ? "・" : c);
+            }
+            str.append(BR);
+        }
+        
+        return str.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package xyz.hotchpotch.reversi.core;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@code jdk.incubator.vector} の {@link LongVector} を用いて、複数の局面をレーンごとに並列に処理する
+ * {@link BatchKernel} の実装です。<br>
+ * 演算の内容は {@link Bits#puttables(long, long)} と同じシフト演算の並列プレフィックスであり、
+ * 分岐を含まないため、全てのレーンで同じ命令列を実行できます。
+ * レーン数に満たない末尾の局面はスカラー演算で処理します。<br>
+ * <br>
+ * このクラスは {@link BatchKernel#best()} からリフレクションによってのみ生成されます。
+ * {@code jdk.incubator.vector} モジュールが解決されていない実行環境では、このクラスのロードに失敗します。<br>
+ * 
+ * @author nmby
+ */
+/*package*/ final class VectorBatchKernel implements BatchKernel {
+    
+    // [static members] ********************************************************
+    
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    
+    private static final LongVector ZERO = LongVector.zero(SPECIES);
+    
+    /** 左右端の列（a列, h列）を除くマスク */
+    private static final long INNER_FILES = 0x7E7E7E7E7E7E7E7EL;
+    
+    /**
+     * 左シフト方向について、{@code seed} から相手の石の連なりを辿った位置を求めます。<br>
+     * 演算子が定数でないと Vector API の演算が組み込み命令に置き換えられないため、
+     * シフトの向きごとにメソッドを分けています。<br>
+     * 
+     * @param seed 起点となる位置
+     * @param opp 相手側の石のうち、この方向の連なりを構成し得るもの
+     * @param s シフト量
+     * @return 起点から連続する相手の石の位置（起点自体は含まない）
+     */
+    private static LongVector runLeft(LongVector seed, LongVector opp, int s) {
+        LongVector r = opp.and(seed.lanewise(VectorOperators.LSHL, s));
+        r = r.or(opp.and(r.lanewise(VectorOperators.LSHL, s)));
+        LongVector p = opp.and(opp.lanewise(VectorOperators.LSHL, s));
+        r = r.or(p.and(r.lanewise(VectorOperators.LSHL, s + s)));
+        r = r.or(p.and(r.lanewise(VectorOperators.LSHL, s + s)));
+        return r;
+    }
+    
+    /**
+     * 右シフト方向について、{@code seed} から相手の石の連なりを辿った位置を求めます。<br>
+     * 
+     * @param seed 起点となる位置
+     * @param opp 相手側の石のうち、この方向の連なりを構成し得るもの
+     * @param s シフト量
+     * @return 起点から連続する相手の石の位置（起点自体は含まない）
+     */
+    private static LongVector runRight(LongVector seed, LongVector opp, int s) {
+        LongVector r = opp.and(seed.lanewise(VectorOperators.LSHR, s));
+        r = r.or(opp.and(r.lanewise(VectorOperators.LSHR, s)));
+        LongVector p = opp.and(opp.lanewise(VectorOperators.LSHR, s));
+        r = r.or(p.and(r.lanewise(VectorOperators.LSHR, s + s)));
+        r = r.or(p.and(r.lanewise(VectorOperators.LSHR, s + s)));
+        return r;
+    }
+    
+    /** 互いに逆向きの2方向について、石を置ける位置の候補を求めます。 */
+    private static LongVector puttables(LongVector own, LongVector opp, int s) {
+        return runLeft(own, opp, s).lanewise(VectorOperators.LSHL, s)
+                .or(runRight(own, opp, s).lanewise(VectorOperators.LSHR, s));
+    }
+    
+    /** 互いに逆向きの2方向について、石を {@code put} に置いたときにひっくり返る石を求めます。 */
+    private static LongVector flips(LongVector own, LongVector opp, LongVector put, int s) {
+        LongVector l = runLeft(put, opp, s);
+        LongVector r = runRight(put, opp, s);
+        VectorMask<Long> lOk = l.lanewise(VectorOperators.LSHL, s).and(own).compare(VectorOperators.NE, 0L);
+        VectorMask<Long> rOk = r.lanewise(VectorOperators.LSHR, s).and(own).compare(VectorOperators.NE, 0L);
+        
+        // 連なりの先に自分の石がある方向に限り、連なりをひっくり返す。
+        return l.and(ZERO.blend(-1L, lOk)).or(r.and(ZERO.blend(-1L, rOk)));
+    }
+    
+    // [instance members] ******************************************************
+    
+    /*package*/ VectorBatchKernel() {
+    }
+    
+    @Override
+    public void puttables(long[] own, long[] opp, long[] dst, int n) {
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        
+        for (; i < bound; i += SPECIES.length()) {
+            LongVector o = LongVector.fromArray(SPECIES, own, i);
+            LongVector p = LongVector.fromArray(SPECIES, opp, i);
+            LongVector inner = p.and(INNER_FILES);
+            
+            puttables(o, inner, 1)
+                    .or(puttables(o, p, Point.WIDTH))
+                    .or(puttables(o, inner, Point.WIDTH - 1))
+                    .or(puttables(o, inner, Point.WIDTH + 1))
+                    .and(o.or(p).not())
+                    .intoArray(dst, i);
+        }
+        for (; i < n; i++) {
+            dst[i] = Bits.puttables(own[i], opp[i]);
+        }
+    }
+    
+    @Override
+    public void flips(long[] own, long[] opp, long[] put, long[] dst, int n) {
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        
+        for (; i < bound; i += SPECIES.length()) {
+            LongVector o = LongVector.fromArray(SPECIES, own, i);
+            LongVector p = LongVector.fromArray(SPECIES, opp, i);
+            LongVector x = LongVector.fromArray(SPECIES, put, i);
+            LongVector inner = p.and(INNER_FILES);
+            
+            flips(o, inner, x, 1)
+                    .or(flips(o, p, x, Point.WIDTH))
+                    .or(flips(o, inner, x, Point.WIDTH - 1))
+                    .or(flips(o, inner, x, Point.WIDTH + 1))
+                    .intoArray(dst, i);
+        }
+        for (; i < n; i++) {
+            dst[i] = put[i] == 0
+                    ? 0L
+                    : Bits.flips(own[i], opp[i], Long.numberOfTrailingZeros(put[i]));
+        }
+    }
+    
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+}
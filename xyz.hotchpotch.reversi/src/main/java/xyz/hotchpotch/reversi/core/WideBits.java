@@ -0,0 +1,92 @@
+package xyz.hotchpotch.reversi.core;
+
+/**
+ * 64 マスを超える {@link Geometry} の盤面について、2つの {@code long} 値によるビットボードを操作する関数を集めたクラスです。<br>
+ * 石の配置は長さ2の {@code long} 配列で表し、マスの番号 {@code n} は {@code bits[n / 64]} の
+ * {@code n % 64} ビット目に対応します。
+ * 盤面の形が一定でないためシフト演算は用いず、{@link Geometry} に保持されたマスの並びの表を辿ります。<br>
+ * 
+ * @author nmby
+ */
+/*package*/ class WideBits {
+    
+    // [static members] ********************************************************
+    
+    /*package*/ static boolean test(long[] bits, int square) {
+        return (bits[square >>> 6] & (1L << square)) != 0;
+    }
+    
+    /*package*/ static void set(long[] bits, int square) {
+        bits[square >>> 6] |= 1L << square;
+    }
+    
+    /*package*/ static int count(long[] bits) {
+        return Long.bitCount(bits[0]) + Long.bitCount(bits[1]);
+    }
+    
+    /**
+     * 手番側が石を置ける位置を返します。<br>
+     * 
+     * @param geometry 盤面の形
+     * @param own 手番側の石の配置
+     * @param opp 相手側の石の配置
+     * @return 石を置ける位置
+     */
+    /*package*/ static long[] puttables(Geometry geometry, long[] own, long[] opp) {
+        long[] puttables = new long[2];
+        
+        for (int sq = 0; sq < geometry.squares(); sq++) {
+            if (!test(own, sq) && !test(opp, sq) && canFlip(geometry, own, opp, sq)) {
+                set(puttables, sq);
+            }
+        }
+        return puttables;
+    }
+    
+    private static boolean canFlip(Geometry geometry, long[] own, long[] opp, int square) {
+        for (int dir = 0; dir < Direction.values().length; dir++) {
+            int[] ray = geometry.ray(square, dir);
+            int n = 0;
+            while (n < ray.length && test(opp, ray[n])) {
+                n++;
+            }
+            if (0 < n && n < ray.length && test(own, ray[n])) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 指定された位置に手番側の石を置いたときに、ひっくり返る石の位置を返します。<br>
+     * 石を置く位置が空いているかは検証しません。<br>
+     * 
+     * @param geometry 盤面の形
+     * @param own 手番側の石の配置
+     * @param opp 相手側の石の配置
+     * @param square 石を置く位置
+     * @return ひっくり返る石の位置
+     */
+    /*package*/ static long[] flips(Geometry geometry, long[] own, long[] opp, int square) {
+        long[] flips = new long[2];
+        
+        for (int dir = 0; dir < Direction.values().length; dir++) {
+            int[] ray = geometry.ray(square, dir);
+            int n = 0;
+            while (n < ray.length && test(opp, ray[n])) {
+                n++;
+            }
+            if (0 < n && n < ray.length && test(own, ray[n])) {
+                for (int k = 0; k < n; k++) {
+                    set(flips, ray[k]);
+                }
+            }
+        }
+        return flips;
+    }
+    
+    // [instance members] ******************************************************
+    
+    private WideBits() {
+    }
+}
@@ -1,5 +1,15 @@
 package xyz.hotchpotch.reversi.cui;
 
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.EndgameSolver;
+import xyz.hotchpotch.reversi.core.Geometry;
+import xyz.hotchpotch.reversi.core.VariantBoard;
 import xyz.hotchpotch.reversi.cui.common.ConsoleScanner;
 import xyz.hotchpotch.reversi.cui.game.GameCondition;
 import xyz.hotchpotch.reversi.cui.game.GameRunner;
@@ -7,6 +17,8 @@ import xyz.hotchpotch.reversi.cui.league.LeagueCondition;
 import xyz.hotchpotch.reversi.cui.league.LeagueRunner;
 import xyz.hotchpotch.reversi.cui.match.MatchCondition;
 import xyz.hotchpotch.reversi.cui.match.MatchRunner;
+import xyz.hotchpotch.reversi.cui.variant.VariantGameRunner;
+import xyz.hotchpotch.reversi.cui.variant.VariantGameRunner.Participant;
 
 /**
  * リバーシゲームの実行メニューを表す列挙型であり、
@@ -49,8 +61,88 @@ public enum Menu {
             LeagueRunner runner = LeagueRunner.of(condition);
             runner.run();
         }
+    },
+    
+    /**
+     * 変則盤面での対戦。6x6, 10x10 などの盤面で、人またはコンピュータが対戦します。
+     * 盤面サイズは、起動時にシステムプロパティ {@value Geometry#PROPERTY} で指定するか、コンソールから選択します。
+     */
+    VARIANT("変則盤面での対戦：6x6, 10x10 などの盤面で、人またはコンピュータが対戦します。") {
+        
+        @Override
+        public void execute() {
+            Geometry geometry = selectGeometry(List.of(
+                    Geometry.of(6, 6), Geometry.of(10, 10), Geometry.of(4, 4), Geometry.of(6, 8)));
+            
+            ConsoleScanner<Participant> scanner = ConsoleScanner.enumBuilder(Participant.class).build();
+            System.out.println("黒の対戦者を選択してください。");
+            Participant black = scanner.get();
+            System.out.println("白の対戦者を選択してください。");
+            Participant white = scanner.get();
+            System.out.println();
+            
+            VariantGameRunner runner = VariantGameRunner.of(geometry, black, white);
+            runner.run();
+        }
+    },
+    
+    /**
+     * 完全読み。小さな盤面のゲーム開始時状態を、双方が最善を尽くした場合の終局まで読み切ります。
+     * 盤面サイズは、起動時にシステムプロパティ {@value Geometry#PROPERTY} で指定するか、コンソールから選択します。
+     * 6x6 盤などは読み切りに長い時間を要するため、制限時間をコンソールから指定します。
+     */
+    SOLVE("完全読み：小さな盤面のゲーム開始時状態を、双方が最善を尽くした場合の終局まで読み切ります。") {
+        
+        @Override
+        public void execute() {
+            final int MAX_MINUTES = 60 * 24;
+            
+            Geometry geometry = selectGeometry(List.of(
+                    Geometry.of(4, 4), Geometry.of(4, 6), Geometry.of(6, 6), Geometry.of(4, 8)));
+            if (!geometry.isEmbedded()) {
+                System.out.println("%s の盤面は読み切れません。".formatted(geometry));
+                return;
+            }
+            int minutes = ConsoleScanner.intBuilder(1, MAX_MINUTES)
+                    .prompt("制限時間を 1分～%d分 の範囲で分で指定してください。%n> ".formatted(MAX_MINUTES))
+                    .build()
+                    .get();
+            
+            VariantBoard board = VariantBoard.initial(geometry);
+            EndgameSolver solver = new EndgameSolver();
+            System.out.println(board);
+            Instant timelimit = Instant.now().plus(minutes, ChronoUnit.MINUTES);
+            System.out.println("%s の盤面を読み切ります（%s までに読み切れない場合は中断します） ..."
+                    .formatted(geometry, LocalTime.ofInstant(timelimit, ZoneId.systemDefault()).truncatedTo(ChronoUnit.SECONDS)));
+            
+            long start = System.currentTimeMillis();
+            Integer diff = solver.solve(board, Color.BLACK, timelimit);
+            long millis = System.currentTimeMillis() - start;
+            
+            if (diff == null) {
+                System.out.println("制限時間内に読み切れませんでした。");
+                System.out.println("（探索局面数 %,d、所要時間 %,d ミリ秒）".formatted(solver.nodes(), millis));
+                return;
+            }
+            System.out.println(diff == 0
+                    ? "双方が最善を尽くすと引き分けです。"
+                    : "双方が最善を尽くすと%sの %d 石差の勝ちです。".formatted(0 < diff ? Color.BLACK : Color.WHITE, Math.abs(diff)));
+            System.out.println("（探索局面数 %,d、所要時間 %,d ミリ秒）".formatted(solver.nodes(), millis));
+        }
     };
     
+    /**
+     * 起動時にシステムプロパティ {@value Geometry#PROPERTY} で指定された盤面サイズを返します。
+     * 指定されていない場合は、コンソールから選択された盤面サイズを返します。<br>
+     */
+    private static Geometry selectGeometry(List<Geometry> candidates) {
+        assert candidates != null;
+        
+        return System.getProperty(Geometry.PROPERTY) == null
+                ? ConsoleScanner.listBuilder(candidates).build().get()
+                : Geometry.fromProperty();
+    }
+    
     /**
      * このアプリケーションのエントリポイントです。<br>
      * 
@@ -11,9 +11,11 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import xyz.hotchpotch.reversi.core.BitboardPlayer;
 import xyz.hotchpotch.reversi.core.Board;
 import xyz.hotchpotch.reversi.core.Color;
 import xyz.hotchpotch.reversi.core.Move;
+import xyz.hotchpotch.reversi.core.MoveResult;
 import xyz.hotchpotch.reversi.core.Player;
 import xyz.hotchpotch.reversi.core.Point;
 import xyz.hotchpotch.reversi.core.Rule;
@@ -83,8 +85,9 @@ public class GameRunner {
             
             Board board = Board.initBoard();
             Color currTurn = Color.BLACK;
+            boolean ongoing = Rule.isGameOngoing(board);
             
-            while (Rule.isGameOngoing(board)) {
+            while (ongoing) {
                 Player player = players.get(currTurn);
                 long millis = remainingMillis.get(currTurn);
                 
@@ -98,13 +101,15 @@ public class GameRunner {
                     waitUser();
                 }
                 
-                Move move = new Move(currTurn, decision.point);
-                if (!Rule.canApply(board, move)) {
+                // 手の検証と適用、ゲーム終了の判定を一度に行う。
+                MoveResult result = Rule.apply(board, new Move(currTurn, decision.point));
+                if (!result.isApplied()) {
                     throw new RuleViolationException(GameResult.ofRuleViolation(board, currTurn));
                 }
                 
                 remainingMillis.put(currTurn, millis - decision.elapsed);
-                board = board.getApplied(move);
+                board = result.board();
+                ongoing = result.status() != MoveResult.Status.GAME_OVER;
                 currTurn = currTurn.reversed();
             }
             
@@ -170,7 +175,7 @@ public class GameRunner {
         try {
             Instant start = Instant.now();
             Point point = executor
-                    .submit(() -> player.decide(board, color, remainingMillis))
+                    .submit(() -> decide(player, board, color, remainingMillis))
                     .get(remainingMillis, TimeUnit.MILLISECONDS);
             Instant end = Instant.now();
             
@@ -213,6 +218,22 @@ public class GameRunner {
         }
     }
     
+    /**
+     * プレーヤーに手を決定させます。<br>
+     * {@link BitboardPlayer} に対しては、石の配置をマスクのまま渡します。<br>
+     */
+    private static Point decide(Player player, Board board, Color color, long remainingMillis) {
+        if (player instanceof BitboardPlayer bp) {
+            int ordinal = bp.decide(
+                    board.mask(Color.BLACK),
+                    board.mask(Color.WHITE),
+                    color,
+                    remainingMillis);
+            return ordinal == BitboardPlayer.PASS ? null : Point.ofOrdinal(ordinal);
+        }
+        return player.decide(board, color, remainingMillis);
+    }
+    
     private void print(Object o) {
         if (gameCondition.interactive()) {
             System.out.print(o);
@@ -0,0 +1,199 @@
+package xyz.hotchpotch.reversi.cui.variant;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Objects;
+
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.Geometry;
+import xyz.hotchpotch.reversi.core.VariantBoard;
+import xyz.hotchpotch.reversi.cui.common.ConsoleScanner;
+
+/**
+ * 変則盤面（6x6, 10x10 など）でのゲーム（1回対戦）実行クラスです。<br>
+ * <br>
+ * {@link xyz.hotchpotch.reversi.core.Player} の実装は標準の 8x8 盤を前提とするため、
+ * 変則盤面では {@link Participant} に定める対戦者が {@link VariantBoard} の上で対戦します。<br>
+ * 
+ * @author nmby
+ */
+public class VariantGameRunner {
+    
+    // [static members] ********************************************************
+    
+    private static final String BR = System.lineSeparator();
+    
+    private static final ConsoleScanner<String> waiter = ConsoleScanner.waiter();
+    
+    /**
+     * 変則盤面での対戦者を表す列挙型です。<br>
+     * 
+     * @author nmby
+     */
+    public static enum Participant {
+        
+        /** 人。標準入力から手入力で手を指定します。 */
+        HUMAN("人（コンソールから手を入力します）"),
+        
+        /** コンピュータ。最も多くの石をひっくり返す手を選びます。 */
+        GREEDY("コンピュータ（最も多くの石をひっくり返す手を選びます）");
+        
+        private final String desc;
+        
+        private Participant(String desc) {
+            this.desc = desc;
+        }
+        
+        @Override
+        public String toString() {
+            return desc;
+        }
+    }
+    
+    /**
+     * 与えられた盤面サイズと対戦者でゲーム（1回対戦）を実行する {@link VariantGameRunner} インスタンスを生成して返します。<br>
+     * 
+     * @param geometry 盤面サイズ
+     * @param black 黒の対戦者
+     * @param white 白の対戦者
+     * @return ゲーム実行器
+     * @throws NullPointerException いずれかの引数が {@code null} の場合
+     */
+    public static VariantGameRunner of(Geometry geometry, Participant black, Participant white) {
+        Objects.requireNonNull(geometry, "geometry");
+        Objects.requireNonNull(black, "black");
+        Objects.requireNonNull(white, "white");
+        
+        return new VariantGameRunner(geometry, Map.of(Color.BLACK, black, Color.WHITE, white));
+    }
+    
+    /**
+     * 最も多くの石をひっくり返す手を返します。同数の場合は、マスの番号が小さい手を返します。<br>
+     */
+    private static int greedy(VariantBoard board, Color color) {
+        BitSet puttables = board.puttables(color);
+        int best = -1;
+        int bestFlips = 0;
+        for (int square = puttables.nextSetBit(0); 0 <= square; square = puttables.nextSetBit(square + 1)) {
+            int flips = board.flips(color, square).cardinality();
+            if (bestFlips < flips) {
+                best = square;
+                bestFlips = flips;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * a1 形式の文字列が表すマスの番号を返します。盤面外の場合は {@code -1} を返します。<br>
+     */
+    private static int parse(Geometry geometry, String str) {
+        String s = str.trim().toLowerCase();
+        if (!s.matches("[a-z][0-9]{1,2}")) {
+            return -1;
+        }
+        int i = Integer.parseInt(s.substring(1)) - 1;
+        int j = s.charAt(0) - 'a';
+        return 0 <= i && i < geometry.height() && j < geometry.width()
+                ? geometry.square(i, j)
+                : -1;
+    }
+    
+    /**
+     * マスの番号の a1 形式の文字列表現を返します。<br>
+     */
+    private static String format(Geometry geometry, int square) {
+        return "%c%d".formatted('a' + square % geometry.width(), square / geometry.width() + 1);
+    }
+    
+    // [instance members] ******************************************************
+    
+    private final Geometry geometry;
+    private final Map<Color, Participant> participants;
+    
+    /** 人が対戦に加わる場合は、コンピュータの手ごとにユーザの確認を待つ。 */
+    private final boolean interactive;
+    
+    private VariantGameRunner(Geometry geometry, Map<Color, Participant> participants) {
+        assert geometry != null;
+        assert participants != null;
+        
+        this.geometry = geometry;
+        this.participants = participants;
+        this.interactive = participants.containsValue(Participant.HUMAN);
+    }
+    
+    /**
+     * ゲーム（1回対戦）を実行して、終局時のリバーシ盤を返します。<br>
+     * 
+     * @return 終局時のリバーシ盤
+     */
+    public VariantBoard run() {
+        print("%s の盤面で対戦を行います。%n".formatted(geometry));
+        print("    %s : %s%n    %s : %s%n".formatted(
+                Color.BLACK, participants.get(Color.BLACK),
+                Color.WHITE, participants.get(Color.WHITE)));
+        waitUser();
+        
+        VariantBoard board = VariantBoard.initial(geometry);
+        Color currTurn = Color.BLACK;
+        
+        while (board.isGameOngoing()) {
+            print(BR + board + BR);
+            
+            if (!board.canPut(currTurn)) {
+                print("%sの番 ... PASS%n".formatted(currTurn));
+                
+            } else if (participants.get(currTurn) == Participant.HUMAN) {
+                print("%sの番 ... ".formatted(currTurn));
+                board = board.applied(currTurn, decideByHuman(board, currTurn));
+                
+            } else {
+                int square = greedy(board, currTurn);
+                print("%sの番 ... %s%n".formatted(currTurn, format(geometry, square)));
+                board = board.applied(currTurn, square);
+                waitUser();
+            }
+            currTurn = currTurn.reversed();
+        }
+        
+        print(BR + board + BR);
+        Color winner = board.winner();
+        print("ゲームが終了しました。%s（%s:%d, %s:%d）%n".formatted(
+                winner == null ? "引き分けです。" : "%sの勝ちです。".formatted(winner),
+                Color.BLACK, board.count(Color.BLACK),
+                Color.WHITE, board.count(Color.WHITE)));
+        
+        return board;
+    }
+    
+    private int decideByHuman(VariantBoard board, Color color) {
+        assert board.canPut(color);
+        
+        BitSet puttables = board.puttables(color);
+        ConsoleScanner<Integer> scanner = ConsoleScanner.<Integer> builder()
+                .judge(s -> {
+                    int square = parse(geometry, s);
+                    return 0 <= square && puttables.get(square);
+                })
+                .converter(s -> parse(geometry, s))
+                .emergencyMeasure(e -> {
+                    throw new IllegalStateException("failed to read a move.", e);
+                })
+                .prompt("%na1～%s形式で、石を置けるマスを指定してください。%n> ".formatted(
+                        format(geometry, geometry.squares() - 1)))
+                .build();
+        
+        return scanner.get();
+    }
+    
+    private void print(String str) {
+        System.out.print(str);
+    }
+    
+    private void waitUser() {
+        if (interactive) {
+            waiter.get();
+        }
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * CUIでの変則盤面（6x6, 10x10 など）の対戦実行に関する機能を提供します。<br>
+ * 
+ * @author nmby
+ */
+package xyz.hotchpotch.reversi.cui.variant;
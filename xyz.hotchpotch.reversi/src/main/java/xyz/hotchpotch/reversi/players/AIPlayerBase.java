@@ -8,6 +8,7 @@ import xyz.hotchpotch.reversi.core.Color;
 import xyz.hotchpotch.reversi.core.Player;
 import xyz.hotchpotch.reversi.core.Point;
 import xyz.hotchpotch.reversi.core.Rule;
+import xyz.hotchpotch.reversi.core.Symmetry;
 
 /**
  * AIプレーヤーの個別思考ロジックに関わらない共通的な処理を提供する基底クラスです。<br>
@@ -27,18 +28,19 @@ import xyz.hotchpotch.reversi.core.Rule;
     public Point decide(Board board, Color color, long remainingMillis) {
         
         // 石を置ける場所を調べる。
-        List<Point> availables = Point.stream()
-                .filter(p -> Rule.canPutAt(board, color, p))
-                .toList();
+        // 序盤などの対称性を持つ局面では、互いに等価な手のうち1つだけを候補とする。
+        long puttables = Symmetry.distinct(board, Rule.puttables(board, color));
         
         // 石を置ける場所が無しまたは一箇所の場合は選択の余地が無いため、直ちに結果を返す。
-        if (availables.isEmpty()) {
+        if (puttables == 0) {
             return null;
             
-        } else if (availables.size() == 1) {
-            return availables.get(0);
+        } else if (Long.bitCount(puttables) == 1) {
+            return Point.ofOrdinal(Long.numberOfTrailingZeros(puttables));
         }
         
+        List<Point> availables = Point.pointsOf(puttables);
+        
         Instant timelimit = timelimit(board, remainingMillis);
         
         // 残り時間が無い場合はランダムに手を選択する。
@@ -23,6 +23,7 @@ public class AIPlayers {
                 SimplestAIPlayer.class,
                 RandomAIPlayer.class,
                 DepthFirstAIPlayer.class,
+                AlphaBetaAIPlayer.class,
                 BreadthFirstAIPlayer.class,
                 MonteCarloAIPlayer.class,
                 CrazyAIPlayer.class);
@@ -0,0 +1,517 @@
+package xyz.hotchpotch.reversi.players;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import xyz.hotchpotch.reversi.core.Board;
+import xyz.hotchpotch.reversi.core.Children;
+import xyz.hotchpotch.reversi.core.Color;
+import xyz.hotchpotch.reversi.core.MutableBoard;
+import xyz.hotchpotch.reversi.core.Player;
+import xyz.hotchpotch.reversi.core.Point;
+import xyz.hotchpotch.reversi.core.TranspositionTable;
+import xyz.hotchpotch.reversi.core.TranspositionTable.Bound;
+
+/**
+ * 反復深化によるアルファベータ探索で最善手を探す {@link Player} の実装です。<br>
+ * <br>
+ * 探索はネガマックス法による principal variation search（PVS）であり、
+ * 読みの深さを1手ずつ深めながら、前回の反復の最善手から順に探索します。
+ * 2回目以降の反復では、前回の評価値を中心とする狭い探索窓（aspiration window）から探索を始め、
+ * 評価値が窓の外に出た場合は窓を広げて再探索します。<br>
+ * 最後まで完了した反復の最善手を保持しておき、制限時刻に達した時点でそれを返します。
+ * 読みの深さが空きマスの数に達した場合は、その時点で探索を終了します。<br>
+ * <br>
+ * 探索した局面の評価値と最善手は置換表（{@link TranspositionTable}）に記録し、
+ * 合流した局面や次の反復、次の手番の探索で、枝刈りと手の順序付けに再利用します。<br>
+ * <br>
+ * 複数のスレッドで探索する場合は Lazy SMP 方式をとります。
+ * 補助スレッドはメインスレッドと同じルート局面を、開始する読みの深さとルート局面の手の順序をずらして独立に探索し、
+ * 置換表だけを共有します。補助スレッドが記録した結果はメインスレッドの枝刈りと手の順序付けに用いられますが、
+ * このプレーヤーが返す手は常にメインスレッドの探索結果です。
+ * メインスレッドの探索が終了した時点で、補助スレッドの探索も打ち切ります。<br>
+ * 
+ * @author nmby
+ */
+public class AlphaBetaAIPlayer extends AIPlayerBase {
+    
+    // [static members] ********************************************************
+    
+    private static class TimeUpException extends Exception {
+    }
+    
+    /** 探索に用いるスレッドの数を指定するシステムプロパティの名前 */
+    public static final String THREADS_PROPERTY = "reversi.search.threads";
+    
+    /** 終局した局面の評価値の基準値（勝敗が決した局面は、どの静的評価値よりも優先される） */
+    private static final int WIN = 1_000_000;
+    
+    /** 評価値の上限 */
+    private static final int INFINITY = WIN + Point.HEIGHT * Point.WIDTH + 1;
+    
+    /** 前回の評価値を中心とする探索窓の、初期の半径 */
+    private static final int ASPIRATION = 40;
+    
+    /** 制限時刻を確認する間隔（ノード数。2の冪から1を引いた値） */
+    private static final int CHECK_INTERVAL = 0x3FF;
+    
+    /** 四隅の位置 */
+    private static final long[] CORNERS = {
+            Point.of("a1").bit(), Point.of("h1").bit(), Point.of("a8").bit(), Point.of("h8").bit() };
+    
+    /** 四隅それぞれの斜め隣（X打ち）の位置。{@link #CORNERS} の順に対応する。 */
+    private static final long[] X_SQUARES = {
+            Point.of("b2").bit(), Point.of("g2").bit(), Point.of("b7").bit(), Point.of("g7").bit() };
+    
+    /** 探索順序を決めるための、位置ごとの静的な重み（大きいほど先に探索する） */
+    private static final int[] SQUARE_WEIGHTS = {
+            9, 1, 6, 5, 5, 6, 1, 9,
+            1, 0, 3, 3, 3, 3, 0, 1,
+            6, 3, 4, 4, 4, 4, 3, 6,
+            5, 3, 4, 4, 4, 4, 3, 5,
+            5, 3, 4, 4, 4, 4, 3, 5,
+            6, 3, 4, 4, 4, 4, 3, 6,
+            1, 0, 3, 3, 3, 3, 0, 1,
+            9, 1, 6, 5, 5, 6, 1, 9 };
+    
+    /**
+     * 終局したリバーシ盤の、指定された色から見た評価値を返します。<br>
+     * 
+     * @param board 終局したリバーシ盤
+     * @param color 評価する側の色
+     * @return 評価値
+     */
+    private static int finalScore(Board board, Color color) {
+        int diff = board.discDifference(color);
+        return Integer.signum(diff) * WIN + diff;
+    }
+    
+    /**
+     * 終局していない局面の、手番側から見た静的な評価値を返します。<br>
+     * 隅の占有、空いている隅の斜め隣の占有、石を置ける場所の数の差から算出します。<br>
+     * 
+     * @param own 手番側の石の配置
+     * @param opp 相手側の石の配置
+     * @param ownPuttables 手番側の石を置ける場所
+     * @param oppPuttables 相手側の石を置ける場所
+     * @return 評価値
+     */
+    private static int evaluate(long own, long opp, long ownPuttables, long oppPuttables) {
+        int score = 0;
+        
+        for (int n = 0; n < CORNERS.length; n++) {
+            if ((own & CORNERS[n]) != 0) {
+                score += 100;
+            } else if ((opp & CORNERS[n]) != 0) {
+                score -= 100;
+            } else if ((own & X_SQUARES[n]) != 0) {
+                score -= 30;
+            } else if ((opp & X_SQUARES[n]) != 0) {
+                score += 30;
+            }
+        }
+        
+        score += 10 * (Long.bitCount(ownPuttables) - Long.bitCount(oppPuttables));
+        return score;
+    }
+    
+    /**
+     * 候補手の番号を、位置の静的な重みの降順に並べ替えます（挿入ソート）。<br>
+     * 
+     * @param children 子局面
+     * @param order 並べ替える候補手の番号
+     * @param size 並べ替える候補手の数
+     */
+    private static void sort(Children children, int[] order, int size) {
+        for (int i = 1; i < size; i++) {
+            int n = order[i];
+            int w = SQUARE_WEIGHTS[children.ordinal(n)];
+            int j = i;
+            while (0 < j && SQUARE_WEIGHTS[children.ordinal(order[j - 1])] < w) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = n;
+        }
+    }
+    
+    // [instance members] ******************************************************
+    
+    /** 置換表（手番をまたいで再利用し、全てのスレッドで共有する） */
+    private final TranspositionTable table;
+    
+    /** 探索に用いるスレッドの数 */
+    private final int threads;
+    
+    /** 補助スレッドを実行するスレッドプール（スレッドの数が1の場合は {@code null}） */
+    private final ExecutorService helpers;
+    
+    /**
+     * システムプロパティの指定に従った置換表（{@link TranspositionTable#fromProperties()} 参照）と
+     * スレッドの数（{@value #THREADS_PROPERTY}。指定が無い場合は1）を用いる、新たなプレーヤーを生成します。<br>
+     * 
+     * @throws IllegalArgumentException システムプロパティの値が不正な場合
+     */
+    public AlphaBetaAIPlayer() {
+        this(TranspositionTable.fromProperties(), Integer.getInteger(THREADS_PROPERTY, 1));
+    }
+    
+    /**
+     * 指定された置換表を用いて、単一のスレッドで探索する新たなプレーヤーを生成します。<br>
+     * 
+     * @param table 置換表
+     * @throws NullPointerException {@code table} が {@code null} の場合
+     */
+    public AlphaBetaAIPlayer(TranspositionTable table) {
+        this(table, 1);
+    }
+    
+    /**
+     * 指定された置換表とスレッドの数を用いる、新たなプレーヤーを生成します。<br>
+     * スレッドの数が2以上の場合は、メインスレッド（{@link #decide(Board, Color, long)} の呼び出し元のスレッド）に加えて
+     * {@code threads - 1} 個の補助スレッドで探索します。
+     * 補助スレッドはデーモンスレッドであり、一定時間使われなかった場合は終了します。<br>
+     * 
+     * @param table 置換表
+     * @param threads 探索に用いるスレッドの数
+     * @throws NullPointerException {@code table} が {@code null} の場合
+     * @throws IllegalArgumentException {@code threads} が1未満の場合
+     */
+    public AlphaBetaAIPlayer(TranspositionTable table, int threads) {
+        Objects.requireNonNull(table, "table");
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads: %d".formatted(threads));
+        }
+        
+        this.table = table;
+        this.threads = threads;
+        
+        if (1 < threads) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    threads - 1, threads - 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    r -> {
+                        Thread thread = new Thread(r, "AlphaBetaAIPlayer-helper");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            helpers = executor;
+        } else {
+            helpers = null;
+        }
+    }
+    
+    @Override
+    protected Instant timelimit(Board board, long remainingMillis) {
+        final long margin = 20;
+        
+        int blanks = board.empties();
+        assert 1 < blanks;
+        
+        if (25 < blanks) {
+            // 中盤は勝負どころなので厚めに時間を割り当てる。
+            long millis = (remainingMillis - margin) * 5 / blanks;
+            return Instant.now().plusMillis(millis);
+            
+        } else {
+            long millis = (remainingMillis - margin) * 2 / blanks;
+            return Instant.now().plusMillis(millis);
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br>
+     * この実装は、反復深化によるアルファベータ探索により最善手を探します。<br>
+     */
+    @Override
+    protected Point decide2(Board board, Color color, List<Point> availables, Instant timelimit) {
+        long deadline = System.nanoTime() + Math.max(0, Instant.now().until(timelimit, ChronoUnit.NANOS));
+        AtomicBoolean stop = new AtomicBoolean();
+        table.newSearch();
+        
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[threads - 1];
+        for (int id = 1; id < threads; id++) {
+            Searcher helper = new Searcher(board, color, availables, deadline, stop, id);
+            // 補助スレッドの失敗は手の決定に影響させない。手を決めるのはメインスレッドの探索結果のみである。
+            futures[id - 1] = CompletableFuture.runAsync(helper::iterate, helpers).exceptionally(e -> null);
+        }
+        
+        Point best;
+        try {
+            best = new Searcher(board, color, availables, deadline, stop, 0).iterate();
+        } finally {
+            // 補助スレッドの探索を打ち切り、次の手番の探索と重ならないよう終了を待つ。
+            stop.set(true);
+            CompletableFuture.allOf(futures).join();
+        }
+        
+        return best != null ? best : proxy.decide(board, color, 0);
+    }
+    
+    /**
+     * 1つのスレッドが用いる探索の状態を保持するクラスです。<br>
+     * 
+     * @author nmby
+     */
+    private class Searcher {
+        
+        private final MutableBoard board;
+        private final Children children;
+        private final int[] order;
+        private final long deadline;
+        private final AtomicBoolean stop;
+        private final int id;
+        
+        /** 子局面を展開するためのバッファ（リバーシ盤の手数ごとに再利用する） */
+        private final Children[] buffers = new Children[Point.HEIGHT * Point.WIDTH * 2];
+        
+        /** 子局面を探索する順序（リバーシ盤の手数ごとに再利用する） */
+        private final int[][] orders = new int[Point.HEIGHT * Point.WIDTH * 2][Point.HEIGHT * Point.WIDTH];
+        
+        /** 探索したノードの数 */
+        private long nodes;
+        
+        /**
+         * 新たな探索の状態を生成します。<br>
+         * 
+         * @param board ルート局面のリバーシ盤
+         * @param color 手番
+         * @param availables ルート局面の候補手
+         * @param deadline 制限時刻（{@link System#nanoTime()} の値）
+         * @param stop 探索の打ち切りを指示するフラグ
+         * @param id スレッドの番号（メインスレッドは {@code 0}）
+         */
+        private Searcher(Board board, Color color, List<Point> availables, long deadline, AtomicBoolean stop, int id) {
+            this.board = new MutableBoard(board);
+            this.children = this.board.children(color, new Children());
+            this.deadline = deadline;
+            this.stop = stop;
+            this.id = id;
+            
+            // ルート局面の候補手を位置の静的な重みの順に並べ、補助スレッドではスレッドごとに先頭をずらす。
+            order = new int[availables.size()];
+            int size = 0;
+            for (int n = 0; n < children.size(); n++) {
+                if (availables.contains(children.point(n))) {
+                    order[size++] = n;
+                }
+            }
+            assert size == order.length;
+            sort(children, order, size);
+            
+            int shift = id % size;
+            int[] rotated = new int[size];
+            for (int k = 0; k < size; k++) {
+                rotated[k] = order[(k + shift) % size];
+            }
+            System.arraycopy(rotated, 0, order, 0, size);
+        }
+        
+        /**
+         * 読みの深さを1手ずつ深めながら、時間切れまたは探索の打ち切りの指示まで探索します。<br>
+         * 補助スレッドのうち番号が奇数のものは、1手深い読みから探索を始めます。<br>
+         * 
+         * @return 完了した反復のうち最も深いものの最善手（完了した反復が無い場合は {@code null}）
+         */
+        private Point iterate() {
+            Point best = null;
+            int score = 0;
+            int blanks = board.empties();
+            
+            try {
+                for (int depth = 1 + id % 2; depth <= blanks; depth++) {
+                    int alpha = -INFINITY;
+                    int beta = INFINITY;
+                    if (best != null && Math.abs(score) < WIN) {
+                        alpha = score - ASPIRATION;
+                        beta = score + ASPIRATION;
+                    }
+                    
+                    while (true) {
+                        int v = searchRoot(depth, alpha, beta);
+                        if (v <= alpha) {
+                            alpha = alpha - (beta - alpha) < -WIN ? -INFINITY : alpha - (beta - alpha);
+                        } else if (beta <= v) {
+                            beta = WIN < beta + (beta - alpha) ? INFINITY : beta + (beta - alpha);
+                        } else {
+                            score = v;
+                            break;
+                        }
+                    }
+                    
+                    // 探索が完了した反復の最善手を記録する（最善手は order の先頭に移動されている）。
+                    best = children.point(order[0]);
+                    
+                    if (WIN <= Math.abs(score)) {
+                        // 勝敗が決した場合はそれ以上深く読む必要がない。
+                        break;
+                    }
+                }
+            } catch (TimeUpException e) {
+                // 制限時刻に達した場合は、完了した反復のうち最も深いものの結果を用いる。
+            }
+            return best;
+        }
+        
+        /**
+         * ルート局面を指定された深さまで探索し、評価値を返します。<br>
+         * 探索窓の内側の評価値が得られた場合は、最善手をルート局面の候補手の先頭に移動します。<br>
+         * 
+         * @param depth 読みの深さ
+         * @param alpha 探索窓の下限
+         * @param beta 探索窓の上限
+         * @return 評価値（探索窓の外の場合は、その方向の境界値）
+         * @throws TimeUpException 時間切れの場合、または探索の打ち切りが指示された場合
+         */
+        private int searchRoot(int depth, int alpha, int beta) throws TimeUpException {
+            
+            Color color = children.color();
+            int bestIdx = 0;
+            
+            for (int k = 0; k < order.length; k++) {
+                board.apply(children, order[k]);
+                int v;
+                if (k == 0) {
+                    v = -search(color.reversed(), depth - 1, -beta, -alpha, false);
+                } else {
+                    v = -search(color.reversed(), depth - 1, -alpha - 1, -alpha, false);
+                    if (alpha < v && v < beta) {
+                        v = -search(color.reversed(), depth - 1, -beta, -alpha, false);
+                    }
+                }
+                board.undo();
+                
+                if (alpha < v) {
+                    alpha = v;
+                    bestIdx = k;
+                    if (beta <= alpha) {
+                        return beta;
+                    }
+                }
+            }
+            
+            int bestOrd = order[bestIdx];
+            System.arraycopy(order, 0, order, 1, bestIdx);
+            order[0] = bestOrd;
+            return alpha;
+        }
+        
+        /**
+         * 現在のリバーシ盤を指定された深さまで探索し、手番側から見た評価値を返します（fail-hard）。<br>
+         * 探索中はリバーシ盤に手を適用しては取り消し、
+         * 正常に終了した場合は呼び出し時点の状態に戻します。<br>
+         * 
+         * @param color 手番
+         * @param depth 残りの読みの深さ
+         * @param alpha 探索窓の下限
+         * @param beta 探索窓の上限
+         * @param passed 直前の手がパスだった場合は {@code true}
+         * @return 評価値
+         * @throws TimeUpException 時間切れの場合、または探索の打ち切りが指示された場合
+         */
+        private int search(Color color, int depth, int alpha, int beta, boolean passed)
+                throws TimeUpException {
+            
+            if ((++nodes & CHECK_INTERVAL) == 0 && (stop.get() || deadline < System.nanoTime())) {
+                throw new TimeUpException();
+            }
+            
+            if (depth == 0) {
+                // 末端では子局面を展開せず、双方とも石を置けない場合だけを終局として扱う。
+                long ownPuttables = board.puttables(color);
+                long oppPuttables = board.puttables(color.reversed());
+                return (ownPuttables | oppPuttables) == 0
+                        ? finalScore(board, color)
+                        : evaluate(board.mask(color), board.mask(color.reversed()), ownPuttables, oppPuttables);
+            }
+            
+            // 同じ深さ以上で探索済みの局面は、記録された評価値で探索窓の外と判定できれば探索を省略する。
+            long key = TranspositionTable.key(board, color);
+            long entry = table.probe(key);
+            int ttMove = -1;
+            if (entry != 0) {
+                ttMove = TranspositionTable.move(entry);
+                if (depth <= TranspositionTable.depth(entry)) {
+                    int score = TranspositionTable.score(entry);
+                    Bound bound = TranspositionTable.bound(entry);
+                    if (bound == Bound.EXACT
+                            || bound == Bound.LOWER && beta <= score
+                            || bound == Bound.UPPER && score <= alpha) {
+                        return Math.max(alpha, Math.min(beta, score));
+                    }
+                }
+            }
+            
+            int ply = board.depth();
+            if (buffers[ply] == null) {
+                buffers[ply] = new Children();
+            }
+            Children children = board.children(color, buffers[ply]);
+            
+            if (children.size() == 0) {
+                // パスの場合は盤面を変えずに手番だけを入れ替える（子局面のバッファは使用していないため共用できる）。
+                return passed
+                        ? finalScore(board, color)
+                        : -search(color.reversed(), depth, -beta, -alpha, true);
+            }
+            
+            int[] order = orders[ply];
+            for (int n = 0; n < children.size(); n++) {
+                order[n] = n;
+            }
+            sort(children, order, children.size());
+            
+            // 置換表に記録された最善手を最初に探索する。
+            for (int k = 0; 0 <= ttMove && k < children.size(); k++) {
+                if (children.ordinal(order[k]) == ttMove) {
+                    int n = order[k];
+                    System.arraycopy(order, 0, order, 1, k);
+                    order[0] = n;
+                    break;
+                }
+            }
+            
+            int alpha0 = alpha;
+            int bestMove = -1;
+            
+            for (int k = 0; k < children.size(); k++) {
+                board.apply(children, order[k]);
+                int v;
+                if (k == 0) {
+                    v = -search(color.reversed(), depth - 1, -beta, -alpha, false);
+                } else {
+                    v = -search(color.reversed(), depth - 1, -alpha - 1, -alpha, false);
+                    if (alpha < v && v < beta) {
+                        v = -search(color.reversed(), depth - 1, -beta, -alpha, false);
+                    }
+                }
+                board.undo();
+                
+                if (alpha < v) {
+                    alpha = v;
+                    bestMove = children.ordinal(order[k]);
+                    if (beta <= alpha) {
+                        table.store(key, bestMove, beta, Bound.LOWER, depth);
+                        return beta;
+                    }
+                }
+            }
+            
+            if (alpha0 < alpha) {
+                table.store(key, bestMove, alpha, Bound.EXACT, depth);
+            } else {
+                table.store(key, -1, alpha, Bound.UPPER, depth);
+            }
+            return alpha;
+        }
+    }
+}
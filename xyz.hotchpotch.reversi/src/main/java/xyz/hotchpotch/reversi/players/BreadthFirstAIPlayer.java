@@ -2,16 +2,17 @@ package xyz.hotchpotch.reversi.players;
 
 import java.time.Instant;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 import xyz.hotchpotch.reversi.core.Board;
+import xyz.hotchpotch.reversi.core.Children;
 import xyz.hotchpotch.reversi.core.Color;
 import xyz.hotchpotch.reversi.core.Move;
 import xyz.hotchpotch.reversi.core.Player;
@@ -63,39 +64,37 @@ public class BreadthFirstAIPlayer extends AIPlayerBase {
                 return;
             }
             
-            List<Point> availables = Point.stream()
-                    .filter(p -> Rule.canPutAt(board, color, p))
-                    .toList();
+            Children expanded = board.children(color);
             
-            children = availables.isEmpty()
-                    ? List.of(new Node(this, board, color.reversed()))
-                    : availables.stream()
-                            .map(p -> new Node(this, board.getApplied(new Move(color, p)), color.reversed()))
-                            .toList();
+            if (expanded.size() == 0) {
+                children = List.of(new Node(this, board, color.reversed()));
+                
+            } else {
+                children = new ArrayList<>(expanded.size());
+                for (int n = 0; n < expanded.size(); n++) {
+                    children.add(new Node(this, expanded.board(n), color.reversed()));
+                }
+            }
             updateScore();
         }
     }
     
     /** 石を置ける場所の数の差で有利不利を判定する評価関数 */
     private static final ToIntFunction<Board> evaluator1 = board -> {
-        int black = (int) Point.stream().filter(p -> Rule.canPutAt(board, Color.BLACK, p)).count();
-        int white = (int) Point.stream().filter(p -> Rule.canPutAt(board, Color.WHITE, p)).count();
+        int black = Long.bitCount(Rule.puttables(board, Color.BLACK));
+        int white = Long.bitCount(Rule.puttables(board, Color.WHITE));
         
         return black - white;
     };
     
     /** 置かれている石の数の差で有利不利を判定する評価関数 */
-    private static final ToIntFunction<Board> evaluator2 = board -> {
-        Map<Color, Integer> counts = board.counts();
-        
-        return counts.get(Color.BLACK) - counts.get(Color.WHITE);
-    };
+    private static final ToIntFunction<Board> evaluator2 = board -> board.discDifference(Color.BLACK);
     
     /** リバーシ盤に対する評価関数。黒の有利を正の値、白の有利を負の値として算出します。 */
     private static final ToIntFunction<Board> evaluator = board -> {
         int eval1 = evaluator1.applyAsInt(board);
         int eval2 = evaluator2.applyAsInt(board);
-        int blanks = (int) Point.stream().map(board::colorAt).filter(Objects::isNull).count();
+        int blanks = board.empties();
         
         return eval1 * blanks + eval2 * (Point.HEIGHT * Point.WIDTH - blanks);
     };
@@ -106,7 +105,7 @@ public class BreadthFirstAIPlayer extends AIPlayerBase {
     protected Instant timelimit(Board board, long remainingMillis) {
         final long margin = 20;
         
-        int blanks = (int) Point.stream().map(board::colorAt).filter(Objects::isNull).count();
+        int blanks = board.empties();
         assert 1 < blanks;
         
         if (50 < blanks) {
@@ -6,13 +6,16 @@ import java.util.Objects;
 
 import xyz.hotchpotch.reversi.core.Board;
 import xyz.hotchpotch.reversi.core.Color;
-import xyz.hotchpotch.reversi.core.Move;
+import xyz.hotchpotch.reversi.core.EndgameSolver;
 import xyz.hotchpotch.reversi.core.Player;
 import xyz.hotchpotch.reversi.core.Point;
-import xyz.hotchpotch.reversi.core.Rule;
+import xyz.hotchpotch.reversi.core.TranspositionTable;
 
 /**
- * 深さ優先探索により必勝手を探す {@link Player} の実装です。<br>
+ * 終盤の局面を読み切り、双方が最善を尽くした場合の石数差が最大となる手を選ぶ {@link Player} の実装です。<br>
+ * 読み切りには {@link EndgameSolver#bestMove(Board, Color, Instant)} を用い、勝敗を読み切った後に石数差を読み切ります。
+ * 制限時刻までに読み切れなかった場合も、それまでに評価の定まった最善の手を選びます。
+ * 読み切った局面の結果はソルバーの置換表に残り、次の手番以降の探索で再利用されます。<br>
  * 
  * @author nmby
  */
@@ -20,20 +23,59 @@ public class DepthFirstAIPlayer extends AIPlayerBase {
     
     // [static members] ********************************************************
     
-    private static class TimeUpException extends Exception {
-    }
+    /**
+     * 読み切りを始める空きマスの数。<br>
+     * 1 CPU で、空きマス 20 の局面の読み切りは多くが数秒で終わり（ランダムな5局面で 0.4～9 秒）、
+     * 空きマス 22 の局面では 20～50 秒を要する（ランダムな3局面）。
+     * 空きマス 20 の時点で持ち時間の 4/20 を割り当てるため、持ち時間が1分程度あれば多くの場合に読み切ることができる。
+     */
+    private static final int SOLVE_EMPTIES = 20;
     
     // [instance members] ******************************************************
     
+    /** 完全読みソルバー（置換表を手番をまたいで再利用する） */
+    private final EndgameSolver solver;
+    
+    /**
+     * システムプロパティの指定に従った置換表（{@link TranspositionTable#fromProperties()} 参照）を持つソルバーを用いる、
+     * 新たなプレーヤーを生成します。<br>
+     * 
+     * @throws IllegalArgumentException システムプロパティの値が不正な場合
+     */
+    public DepthFirstAIPlayer() {
+        this(TranspositionTable.fromProperties());
+    }
+    
+    /**
+     * 指定された置換表を持つソルバーを用いる、新たなプレーヤーを生成します。<br>
+     * 置換表には石数差を評価値として記録するため、評価関数による探索を行う他のプレーヤーと共有することはできません。<br>
+     * 
+     * @param table 置換表
+     * @throws NullPointerException {@code table} が {@code null} の場合
+     */
+    public DepthFirstAIPlayer(TranspositionTable table) {
+        this(new EndgameSolver(Objects.requireNonNull(table, "table")));
+    }
+    
+    /**
+     * 指定されたソルバーを用いる、新たなプレーヤーを生成します。<br>
+     * 
+     * @param solver 完全読みソルバー
+     * @throws NullPointerException {@code solver} が {@code null} の場合
+     */
+    public DepthFirstAIPlayer(EndgameSolver solver) {
+        this.solver = Objects.requireNonNull(solver, "solver");
+    }
+    
     @Override
     protected Instant timelimit(Board board, long remainingMillis) {
         final long margin = 10;
         
-        int blanks = (int) Point.stream().map(board::colorAt).filter(Objects::isNull).count();
+        int blanks = board.empties();
         assert 1 < blanks;
         
-        if (20 < blanks) {
-            // 最初の40手はランダムに手を選ぶことにし、思考時間を割り当てない。
+        if (SOLVE_EMPTIES < blanks) {
+            // 読み切りを始めるまではランダムに手を選ぶことにし、思考時間を割り当てない。
             return Instant.now().minusMillis(margin);
             
         } else {
@@ -46,68 +88,12 @@ public class DepthFirstAIPlayer extends AIPlayerBase {
     /**
      * {@inheritDoc}
      * <br>
-     * この実装は、深さ優先探索により必勝手を探します。<br>
+     * この実装は、局面を読み切って石数差が最大となる手を選びます。
+     * 制限時刻までに読み切れなかった場合は、勝敗を読み切った段階の最善手か、
+     * 中断した段階で評価の定まった手のうち最善の手を選びます（{@link EndgameSolver#bestMove(Board, Color, Instant)} 参照）。<br>
      */
     @Override
     protected Point decide2(Board board, Color color, List<Point> availables, Instant timelimit) {
-        try {
-            Point drawable = null;
-            
-            for (Point p : availables) {
-                Color c = solve(board.getApplied(new Move(color, p)), color.reversed(), timelimit);
-                if (c == color) {
-                    return p;
-                    
-                } else if (c == null && drawable == null) {
-                    drawable = p;
-                }
-            }
-            
-            return drawable != null
-                    ? drawable
-                    : proxy.decide(board, color, 0);
-            
-        } catch (TimeUpException e) {
-            return proxy.decide(board, color, 0);
-        }
-    }
-    
-    /**
-     * 黒白双方のプレーヤーが最善手を指した場合の勝者の色を返します。<br>
-     * 
-     * @param board リバーシ盤
-     * @param color 手番
-     * @return 黒白双方のプレーヤーが最善手を指した場合の勝者の色（引き分けの場合は {@code null}）
-     * @throws TimeUpException 時間切れの場合
-     */
-    private Color solve(Board board, Color color, Instant timelimit) throws TimeUpException {
-        if (timelimit.isBefore(Instant.now())) {
-            throw new TimeUpException();
-        }
-        
-        List<Point> availables = Point.stream()
-                .filter(p -> Rule.canPutAt(board, color, p))
-                .toList();
-        
-        if (availables.isEmpty()) {
-            return Rule.canPut(board, color.reversed())
-                    ? solve(board, color.reversed(), timelimit)
-                    : Rule.winner(board);
-        }
-        
-        boolean canDraw = false;
-        
-        for (Point p : availables) {
-            Color c = solve(board.getApplied(new Move(color, p)), color.reversed(), timelimit);
-            
-            if (c == color) {
-                return color;
-                
-            } else if (c == null) {
-                canDraw = true;
-            }
-        }
-        
-        return canDraw ? null : color.reversed();
+        return solver.bestMove(board, color, timelimit);
     }
 }
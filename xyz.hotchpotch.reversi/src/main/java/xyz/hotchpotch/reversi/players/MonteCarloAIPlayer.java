@@ -1,16 +1,15 @@
 package xyz.hotchpotch.reversi.players;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
 
 import xyz.hotchpotch.reversi.core.Board;
+import xyz.hotchpotch.reversi.core.Children;
 import xyz.hotchpotch.reversi.core.Color;
 import xyz.hotchpotch.reversi.core.Move;
+import xyz.hotchpotch.reversi.core.MutableBoard;
 import xyz.hotchpotch.reversi.core.Player;
 import xyz.hotchpotch.reversi.core.Point;
 import xyz.hotchpotch.reversi.core.Rule;
@@ -24,51 +23,6 @@ public class MonteCarloAIPlayer extends AIPlayerBase {
     
     // [static members] ********************************************************
     
-    /**
-     * {@link Board} の実装です。
-     * このクラスのオブジェクトは可変です。<br>
-     * 
-     * プレイアウトの高速化のため、この実装は {@link Board#getApplied(Move)} の代わりに
-     * {@link #apply(Move)} を提供します。<br>
-     * 
-     * @author nmby
-     */
-    private static class MutableBoard implements Board {
-        private final Map<Point, Color> map;
-        
-        private MutableBoard(Board board) {
-            assert board != null;
-            
-            this.map = new HashMap<>(Board.boardToMap(board));
-        }
-        
-        @Override
-        public Color colorAt(Point point) {
-            assert point != null;
-            
-            return map.get(point);
-        }
-        
-        /**
-         * このリバーシ盤に指定された手を適用します。<br>
-         */
-        public void apply(Move move) {
-            assert move != null;
-            assert Rule.canApply(this, move);
-            
-            if (move.point() != null) {
-                Set<Point> reversibles = Rule.reversibles(this, move);
-                reversibles.forEach(p -> map.put(p, move.color()));
-                map.put(move.point(), move.color());
-            }
-        }
-        
-        @Override
-        public Board getApplied(Move move) {
-            throw new UnsupportedOperationException();
-        }
-    }
-    
     private static class Candidate implements Comparable<Candidate> {
         private final Point point;
         private final Board nextBoard;
@@ -126,7 +80,7 @@ public class MonteCarloAIPlayer extends AIPlayerBase {
     protected Instant timelimit(Board board, long remainingMillis) {
         final long margin = 20;
         
-        int blanks = (int) Point.stream().map(board::colorAt).filter(Objects::isNull).count();
+        int blanks = board.empties();
         assert 1 < blanks;
         
         if (50 < blanks) {
@@ -155,9 +109,13 @@ public class MonteCarloAIPlayer extends AIPlayerBase {
      */
     @Override
     protected Point decide2(Board board, Color color, List<Point> availables, Instant timelimit) {
-        List<Candidate> candidates = availables.stream()
-                .map(p -> new Candidate(p, board.getApplied(new Move(color, p))))
-                .toList();
+        Children children = board.children(color);
+        List<Candidate> candidates = new ArrayList<>(availables.size());
+        for (int n = 0; n < children.size(); n++) {
+            if (availables.contains(children.point(n))) {
+                candidates.add(new Candidate(children.point(n), children.board(n)));
+            }
+        }
         
         // 本当はモンテカルロ法は並列処理と相性が良いが、
         // ここでは実装の簡略さを優先させることにする。
@@ -1,20 +1,19 @@
 package xyz.hotchpotch.reversi.players;
 
-import java.util.List;
 import java.util.Random;
 
-import xyz.hotchpotch.reversi.core.Board;
+import xyz.hotchpotch.reversi.core.BitboardPlayer;
 import xyz.hotchpotch.reversi.core.Color;
 import xyz.hotchpotch.reversi.core.Player;
-import xyz.hotchpotch.reversi.core.Point;
 import xyz.hotchpotch.reversi.core.Rule;
 
 /**
  * 自身の手をランダムに選択する {@link Player} の実装です。<br>
+ * 石の配置をマスクのまま扱う {@link BitboardPlayer} として実装されています。<br>
  * 
  * @author nmby
  */
-public class RandomAIPlayer implements Player {
+public class RandomAIPlayer implements BitboardPlayer {
     
     // [static members] ********************************************************
     
@@ -28,13 +27,18 @@ public class RandomAIPlayer implements Player {
      * この実装は、石を置ける位置の中からランダムに自身の手を選択します。<br>
      */
     @Override
-    public Point decide(Board board, Color color, long remainingMillis) {
-        List<Point> availables = Point.stream()
-                .filter(p -> Rule.canPutAt(board, color, p))
-                .toList();
+    public int decide(long black, long white, Color color, long remainingMillis) {
+        long puttables = color == Color.BLACK
+                ? Rule.puttables(black, white)
+                : Rule.puttables(white, black);
+        if (puttables == 0) {
+            return PASS;
+        }
         
-        return availables.isEmpty()
-                ? null
-                : availables.get(random.nextInt(availables.size()));
+        // 石を置ける位置の中から n 番目（下位ビットから数えて）のものを選ぶ。
+        for (int n = random.nextInt(Long.bitCount(puttables)); 0 < n; n--) {
+            puttables &= puttables - 1;
+        }
+        return Long.numberOfTrailingZeros(puttables);
     }
 }
@@ -0,0 +1,81 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BatchKernelTest {
+    
+    // [static members] ********************************************************
+    
+    /** 検証対象の全ての実装（この実行環境で Vector API が利用できない場合はスカラー演算のみ） */
+    private static List<BatchKernel> kernels() {
+        List<BatchKernel> kernels = new ArrayList<>(List.of(ScalarBatchKernel.INSTANCE));
+        BatchKernel best = BatchKernel.best();
+        if (best.isVectorized()) {
+            kernels.add(best);
+        }
+        return kernels;
+    }
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testPuttablesAndFlips() {
+        Random random = new Random(0);
+        
+        // レーン数で割り切れない局面数として、端数の処理も確認する。
+        int n = 1003;
+        long[] own = new long[n];
+        long[] opp = new long[n];
+        long[] put = new long[n];
+        for (int i = 0; i < n; i++) {
+            long occupied = random.nextLong() | random.nextLong();
+            own[i] = occupied & random.nextLong();
+            opp[i] = occupied & ~own[i];
+            
+            // 空きマスのいずれか（または石を置かない場合の 0）
+            long empties = ~occupied;
+            int k = empties == 0 ? 0 : random.nextInt(Long.bitCount(empties) + 1);
+            put[i] = 0L;
+            for (long m = empties; m != 0 && 0 < k; m &= m - 1, k--) {
+                put[i] = m & -m;
+            }
+        }
+        
+        for (BatchKernel kernel : kernels()) {
+            long[] moves = new long[n];
+            long[] flips = new long[n];
+            kernel.puttables(own, opp, moves, n);
+            kernel.flips(own, opp, put, flips, n);
+            
+            for (int i = 0; i < n; i++) {
+                assertEquals(Bits.puttables(own[i], opp[i]), moves[i]);
+                assertEquals(
+                        put[i] == 0 ? 0L : Bits.flips(own[i], opp[i], Long.numberOfTrailingZeros(put[i])),
+                        flips[i]);
+            }
+        }
+    }
+    
+    @Test
+    void testBest() {
+        assertNotNull(BatchKernel.best());
+        
+        String original = System.getProperty("reversi.batch.vector");
+        try {
+            System.setProperty("reversi.batch.vector", "false");
+            assertSame(ScalarBatchKernel.INSTANCE, BatchKernel.best());
+        } finally {
+            if (original == null) {
+                System.clearProperty("reversi.batch.vector");
+            } else {
+                System.setProperty("reversi.batch.vector", original);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class BitBoardTest {
+    
+    // [static members] ********************************************************
+    
+    private static final Map<Point, Color> allBlack = Point.stream()
+            .collect(Collectors.toMap(Function.identity(), p -> Color.BLACK));
+    
+    private static final Map<Point, Color> allWhite = Point.stream()
+            .collect(Collectors.toMap(Function.identity(), p -> Color.WHITE));
+    
+    private static final Map<Point, Color> allEmpty = Map.of();
+    
+    private static final Map<Point, Color> initMap = Map.of(
+            Point.of(3, 3), Color.WHITE,
+            Point.of(4, 4), Color.WHITE,
+            Point.of(3, 4), Color.BLACK,
+            Point.of(4, 3), Color.BLACK);
+    
+    private static final Map<Point, Color> linedMap = Map.of(
+            Point.of(1, 0), Color.WHITE,
+            Point.of(1, 1), Color.WHITE,
+            Point.of(1, 2), Color.WHITE,
+            Point.of(1, 3), Color.WHITE,
+            Point.of(1, 4), Color.WHITE,
+            Point.of(1, 5), Color.WHITE,
+            Point.of(1, 6), Color.WHITE,
+            Point.of(1, 7), Color.WHITE);
+    
+    private static BitBoard bitBoard(Map<Point, Color> map) {
+        return new BitBoard(new BoardImpl(map));
+    }
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testConstructor() {
+        assertEquals(new BoardImpl().toString(), new BitBoard().toString());
+        assertEquals(new BoardImpl(linedMap).toString(), bitBoard(linedMap).toString());
+        assertEquals(new BoardImpl(allBlack).toString(), bitBoard(allBlack).toString());
+    }
+    
+    @Test
+    void testColorAt() {
+        Board testee = new BitBoard();
+        
+        for (Point p : Point.values()) {
+            if ("d4".equals(p.pos()) || "e5".equals(p.pos())) {
+                assertSame(Color.WHITE, testee.colorAt(p));
+            } else if ("d5".equals(p.pos()) || "e4".equals(p.pos())) {
+                assertSame(Color.BLACK, testee.colorAt(p));
+            } else {
+                assertNull(testee.colorAt(p));
+            }
+        }
+        
+        assertThrows(NullPointerException.class, () -> testee.colorAt(null));
+    }
+    
+    @Test
+    void testCounts() {
+        assertEquals(Map.of(Color.BLACK, 2, Color.WHITE, 2), new BitBoard().counts());
+        assertEquals(Map.of(Color.BLACK, 64, Color.WHITE, 0), bitBoard(allBlack).counts());
+        assertEquals(Map.of(Color.BLACK, 0, Color.WHITE, 64), bitBoard(allWhite).counts());
+        assertEquals(Map.of(Color.BLACK, 0, Color.WHITE, 0), bitBoard(allEmpty).counts());
+    }
+    
+    @Test
+    void testCount() {
+        for (Map<Point, Color> map : List.of(initMap, linedMap, allBlack, allWhite, allEmpty)) {
+            Board expected = new BoardImpl(map);
+            Board testee = bitBoard(map);
+            
+            assertEquals(expected.count(Color.BLACK), testee.count(Color.BLACK));
+            assertEquals(expected.count(Color.WHITE), testee.count(Color.WHITE));
+            assertEquals(expected.empties(), testee.empties());
+            assertEquals(expected.discDifference(Color.BLACK), testee.discDifference(Color.BLACK));
+        }
+        
+        assertThrows(NullPointerException.class, () -> new BitBoard().count(null));
+    }
+    
+    @Test
+    void testPuttables() {
+        for (Map<Point, Color> map : List.of(initMap, linedMap, allBlack, allWhite, allEmpty)) {
+            Board expected = new BoardImpl(map);
+            Board testee = bitBoard(map);
+            
+            for (Color color : Color.values()) {
+                long puttables = Point.stream()
+                        .filter(p -> Rule.canPutAt(expected, color, p))
+                        .mapToLong(Point::bit)
+                        .reduce(0L, (a, b) -> a | b);
+                assertEquals(puttables, testee.puttables(color));
+                assertEquals(puttables, testee.puttables(color));
+            }
+        }
+        
+        // 導出された値は、初回の問い合わせ以降も等しい値が返される。
+        Board testee = new BitBoard();
+        assertEquals(testee.puttables(Color.BLACK), testee.puttables(Color.BLACK));
+        assertThrows(NullPointerException.class, () -> testee.puttables(null));
+    }
+    
+    @Test
+    void testGetApplied1() {
+        Board expected = new BoardImpl();
+        Board testee = new BitBoard();
+        Color color = Color.BLACK;
+        
+        // 各手番で最後に見つかった石を置ける位置に打ち、ゲーム終了まで進める。
+        while (Rule.isGameOngoing(expected)) {
+            Point point = null;
+            for (Point p : Point.values()) {
+                if (Rule.canPutAt(expected, color, p)) {
+                    point = p;
+                }
+            }
+            Move move = new Move(color, point);
+            
+            expected = expected.getApplied(move);
+            testee = testee.getApplied(move);
+            
+            assertEquals(expected.toString(), testee.toString());
+            assertTrue(testee instanceof BitBoard);
+            color = color.reversed();
+        }
+    }
+    
+    @Test
+    void testGetApplied2() {
+        Board testee1 = new BitBoard();
+        
+        assertThrows(
+                NullPointerException.class,
+                () -> testee1.getApplied(null));
+        
+        // ルール違反
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> testee1.getApplied(new Move(Color.BLACK, Point.of("a1"))));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> testee1.getApplied(new Move(Color.BLACK, Point.of("d4"))));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> testee1.getApplied(new Move(Color.BLACK, null)));
+        
+        Board testee2 = bitBoard(linedMap);
+        assertSame(testee2, testee2.getApplied(new Move(Color.BLACK, null)));
+    }
+    
+    @Test
+    void testEquals() {
+        Board test1a = bitBoard(initMap);
+        Board test1b = new BitBoard();
+        Board test2 = bitBoard(allBlack);
+        
+        assertTrue(test1a.equals(test1a));
+        assertTrue(test1a.equals(test1b));
+        assertTrue(test1a.equals(new BoardImpl(initMap)));
+        assertTrue(new BoardImpl(initMap).equals(test1a));
+        
+        assertFalse(test1a.equals(test2));
+        assertFalse(test1a.equals(null));
+        assertFalse(test1a.equals("abc"));
+    }
+    
+    @Test
+    void testHashCode() {
+        assertEquals(new BoardImpl(initMap).hashCode(), new BitBoard().hashCode());
+        assertEquals(new BoardImpl(allEmpty).hashCode(), bitBoard(allEmpty).hashCode());
+        assertEquals(new BoardImpl(allBlack).hashCode(), bitBoard(allBlack).hashCode());
+        assertEquals(new BoardImpl(allWhite).hashCode(), bitBoard(allWhite).hashCode());
+        assertEquals(new BoardImpl(linedMap).hashCode(), bitBoard(linedMap).hashCode());
+    }
+}
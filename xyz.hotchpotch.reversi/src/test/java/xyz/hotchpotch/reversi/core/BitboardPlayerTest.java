@@ -0,0 +1,53 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class BitboardPlayerTest {
+    
+    // [static members] ********************************************************
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testOf() {
+        BitboardPlayer bp = (black, white, color, remainingMillis) -> BitboardPlayer.PASS;
+        assertSame(bp, BitboardPlayer.of(bp));
+        
+        Player player = (board, color, remainingMillis) -> Point.of("d3");
+        BitboardPlayer adapter = BitboardPlayer.of(player);
+        Board init = Board.initBoard();
+        long black = init.mask(Color.BLACK);
+        long white = init.mask(Color.WHITE);
+        
+        assertEquals(Point.of("d3").ordinal(), adapter.decide(black, white, Color.BLACK, 1000));
+        assertEquals(Point.of("d3"), adapter.decide(init, Color.BLACK, 1000));
+        
+        BitboardPlayer passer = BitboardPlayer.of((board, color, remainingMillis) -> null);
+        assertEquals(BitboardPlayer.PASS, passer.decide(black, white, Color.BLACK, 1000));
+        assertNull(passer.decide(init, Color.BLACK, 1000));
+        
+        assertThrows(IllegalArgumentException.class, () -> adapter.decide(1L, 1L, Color.BLACK, 1000));
+        assertThrows(NullPointerException.class, () -> BitboardPlayer.of(null));
+    }
+    
+    @Test
+    void testDecideBoard() {
+        Board init = Board.initBoard();
+        long[] received = new long[2];
+        BitboardPlayer bp = (black, white, color, remainingMillis) -> {
+            received[0] = black;
+            received[1] = white;
+            return color == Color.BLACK ? Point.of("c4").ordinal() : BitboardPlayer.PASS;
+        };
+        
+        assertEquals(Point.of("c4"), bp.decide(init, Color.BLACK, 1000));
+        assertEquals(init.mask(Color.BLACK), received[0]);
+        assertEquals(init.mask(Color.WHITE), received[1]);
+        assertNull(bp.decide(init, Color.WHITE, 1000));
+        
+        BitboardPlayer illegal = (black, white, color, remainingMillis) -> 64;
+        assertThrows(IndexOutOfBoundsException.class, () -> illegal.decide(init, Color.BLACK, 1000));
+    }
+}
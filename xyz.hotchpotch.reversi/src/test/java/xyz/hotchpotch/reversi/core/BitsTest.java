@@ -0,0 +1,90 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BitsTest {
+    
+    // [static members] ********************************************************
+    
+    /** 任意の石の配置（ゲーム上あり得ない配置を含む）を生成します。 */
+    private static Board randomBoard(Random random) {
+        Map<Point, Color> map = new HashMap<>();
+        for (Point p : Point.values()) {
+            int n = random.nextInt(3);
+            if (n < 2) {
+                map.put(p, Color.values()[n]);
+            }
+        }
+        return new BoardImpl(map);
+    }
+    
+    /** 従来の方法（各方向を辿る方法）で、石を置ける位置を求めます。 */
+    private static long puttablesByWalk(Board board, Color color) {
+        assert !(board instanceof BitBoard);
+        
+        long bits = 0L;
+        for (Point p : Point.values()) {
+            if (Rule.canPutAt(board, color, p)) {
+                bits |= 1L << p.ordinal();
+            }
+        }
+        return bits;
+    }
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testShift() {
+        for (Point p : Point.values()) {
+            for (Direction d : Direction.values()) {
+                long expected = p.hasNext(d) ? 1L << p.next(d).ordinal() : 0L;
+                assertEquals(expected, Bits.shift(1L << p.ordinal(), d.ordinal()));
+            }
+        }
+    }
+    
+    @Test
+    void testPuttables() {
+        Random random = new Random(0);
+        
+        for (int n = 0; n < 2000; n++) {
+            Board board = randomBoard(random);
+            long black = board.mask(Color.BLACK);
+            long white = board.mask(Color.WHITE);
+            
+            assertEquals(puttablesByWalk(board, Color.BLACK), Bits.puttables(black, white));
+            assertEquals(puttablesByWalk(board, Color.WHITE), Bits.puttables(white, black));
+        }
+    }
+    
+    @Test
+    void testFlips() {
+        Random random = new Random(0);
+        
+        for (int n = 0; n < 2000; n++) {
+            Board board = randomBoard(random);
+            Color color = Color.values()[random.nextInt(2)];
+            long own = board.mask(color);
+            long opp = board.mask(color.reversed());
+            
+            for (Point p : Point.values()) {
+                if (Rule.canPutAt(board, color, p)) {
+                    long expected = 0L;
+                    for (Point q : Rule.reversibles(board, new Move(color, p))) {
+                        expected |= 1L << q.ordinal();
+                    }
+                    assertEquals(expected, Bits.flips(own, opp, p.ordinal()));
+                    
+                } else if (board.colorAt(p) == null) {
+                    assertEquals(0L, Bits.flips(own, opp, p.ordinal()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BoardCodecTest {
+    
+    // [static members] ********************************************************
+    
+    /** ランダムな手でゲーム終了まで進めたときの、全ての局面を返します。 */
+    private static List<Board> randomGame(Random random) {
+        List<Board> boards = new ArrayList<>();
+        Board board = Board.initBoard();
+        Color color = Color.BLACK;
+        boards.add(board);
+        
+        while (Rule.isGameOngoing(board)) {
+            long puttables = Rule.puttables(board, color);
+            Point point = puttables == 0
+                    ? null
+                    : Point.pointsOf(puttables).get(random.nextInt(Long.bitCount(puttables)));
+            board = board.getApplied(new Move(color, point));
+            color = color.reversed();
+            boards.add(board);
+        }
+        return boards;
+    }
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testPutAndGet() {
+        List<Board> boards = randomGame(new Random(0));
+        
+        for (ByteOrder order : List.of(ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN)) {
+            ByteBuffer buf = ByteBuffer.allocate(boards.size() * BoardCodec.BYTES).order(order);
+            
+            for (Board board : boards) {
+                BoardCodec.put(buf, board);
+            }
+            assertFalse(buf.hasRemaining());
+            
+            buf.flip();
+            for (Board board : boards) {
+                Board actual = BoardCodec.get(buf);
+                assertEquals(board, actual);
+                assertEquals(board.zobristKey(), actual.zobristKey());
+            }
+            assertFalse(buf.hasRemaining());
+        }
+        
+        ByteBuffer buf = ByteBuffer.allocate(BoardCodec.BYTES - 1);
+        assertThrows(BufferOverflowException.class, () -> BoardCodec.put(buf, Board.initBoard()));
+        assertThrows(BufferUnderflowException.class, () -> BoardCodec.get(buf));
+        assertEquals(0, buf.position());
+        
+        assertThrows(NullPointerException.class, () -> BoardCodec.put(null, Board.initBoard()));
+        assertThrows(NullPointerException.class, () -> BoardCodec.put(buf, null));
+        assertThrows(NullPointerException.class, () -> BoardCodec.get(null));
+    }
+    
+    @Test
+    void testPutAndGetAbsolute() {
+        List<Board> boards = randomGame(new Random(1));
+        ByteBuffer buf = ByteBuffer.allocateDirect(boards.size() * BoardCodec.BYTES);
+        
+        for (int n = boards.size() - 1; 0 <= n; n--) {
+            BoardCodec.put(buf, n * BoardCodec.BYTES, boards.get(n));
+        }
+        assertEquals(0, buf.position());
+        
+        for (int n = 0; n < boards.size(); n++) {
+            assertEquals(boards.get(n), BoardCodec.get(buf, n * BoardCodec.BYTES));
+        }
+        assertEquals(0, buf.position());
+        
+        assertThrows(
+                IndexOutOfBoundsException.class,
+                () -> BoardCodec.put(buf, buf.limit() - BoardCodec.BYTES + 1, Board.initBoard()));
+        assertThrows(IndexOutOfBoundsException.class, () -> BoardCodec.get(buf, -1));
+    }
+    
+    @Test
+    void testGetIllegal() {
+        ByteBuffer buf = ByteBuffer.allocate(BoardCodec.BYTES);
+        buf.putLong(Point.of("a1").bit()).putLong(Point.of("a1").bit()).flip();
+        
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.get(buf, 0));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.get(buf));
+    }
+    
+    @Test
+    void testPutAndGetTurn() {
+        ByteBuffer buf = ByteBuffer.allocate(2 * (BoardCodec.BYTES + BoardCodec.TURN_BYTES));
+        Board next = Board.initBoard().getApplied(new Move(Color.BLACK, Point.of("d3")));
+        
+        BoardCodec.put(buf, Board.initBoard());
+        BoardCodec.putTurn(buf, Color.BLACK);
+        BoardCodec.put(buf, next);
+        BoardCodec.putTurn(buf, Color.WHITE);
+        buf.flip();
+        
+        assertEquals(Board.initBoard(), BoardCodec.get(buf));
+        assertSame(Color.BLACK, BoardCodec.getTurn(buf));
+        assertEquals(next, BoardCodec.get(buf));
+        assertSame(Color.WHITE, BoardCodec.getTurn(buf));
+        
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.getTurn(ByteBuffer.wrap(new byte[] { 2 })));
+        assertThrows(NullPointerException.class, () -> BoardCodec.putTurn(buf, null));
+    }
+}
@@ -67,6 +67,32 @@ class BoardImplTest {
                 new BoardImpl(linedMap).toString());
     }
     
+    @Test
+    void testMask() {
+        Board testee = new BoardImpl(linedMap);
+        
+        assertEquals(0L, testee.mask(Color.BLACK));
+        assertEquals(0xFF00L, testee.mask(Color.WHITE));
+        assertEquals(-1L, new BoardImpl(allBlack).mask(Color.BLACK));
+        assertThrows(NullPointerException.class, () -> testee.mask(null));
+    }
+    
+    @Test
+    void testPuttables() {
+        Board testee = new BoardImpl(initMap);
+        
+        assertEquals(Point.of("d3").bit() | Point.of("c4").bit() | Point.of("f5").bit() | Point.of("e6").bit(),
+                testee.puttables(Color.BLACK));
+        assertEquals(Point.of("e3").bit() | Point.of("f4").bit() | Point.of("c5").bit() | Point.of("d6").bit(),
+                testee.puttables(Color.WHITE));
+        assertEquals(0L, new BoardImpl(allBlack).puttables(Color.WHITE));
+        assertEquals(0L, new BoardImpl(allEmpty).puttables(Color.BLACK));
+        
+        // 導出された値は、初回の問い合わせ以降も等しい値が返される。
+        assertEquals(testee.puttables(Color.BLACK), testee.puttables(Color.BLACK));
+        assertThrows(NullPointerException.class, () -> testee.puttables(null));
+    }
+    
     @Test
     void testColorAt() {
         Board testee = new BoardImpl();
@@ -242,10 +268,10 @@ class BoardImplTest {
     
     @Test
     void testHashCode() {
-        assertEquals(initMap.hashCode(), new BoardImpl().hashCode());
-        assertEquals(allEmpty.hashCode(), new BoardImpl(Map.of()).hashCode());
-        assertEquals(allBlack.hashCode(), new BoardImpl(allBlack).hashCode());
-        assertEquals(allWhite.hashCode(), new BoardImpl(allWhite).hashCode());
+        assertEquals(new BoardImpl(initMap).hashCode(), new BoardImpl().hashCode());
+        assertEquals(Board.hashCode(new BoardImpl(allEmpty)), new BoardImpl(Map.of()).hashCode());
+        assertEquals(Board.hashCode(new BoardImpl(allBlack)), new BoardImpl(allBlack).hashCode());
+        assertEquals(Board.hashCode(new BoardImpl(allWhite)), new BoardImpl(allWhite).hashCode());
     }
     
     @Test
@@ -2,6 +2,7 @@ package xyz.hotchpotch.reversi.core;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -38,6 +39,21 @@ class BoardTest {
             Point.of(1, 6), Color.WHITE,
             Point.of(1, 7), Color.WHITE);
     
+    /** {@link Board#zobristKey()} のデフォルト実装による値を返します。 */
+    private static long defaultKey(Board board) {
+        return new Board() {
+            @Override
+            public Color colorAt(Point point) {
+                return board.colorAt(point);
+            }
+            
+            @Override
+            public Board getApplied(Move move) {
+                throw new UnsupportedOperationException();
+            }
+        }.zobristKey();
+    }
+    
     // [instance members] ******************************************************
     
     @Test
@@ -78,9 +94,80 @@ class BoardTest {
     void testHashCode() {
         assertThrows(NullPointerException.class, () -> Board.hashCode(null));
         
-        assertEquals(initMap.hashCode(), Board.hashCode(new BoardImpl(initMap)));
-        assertEquals(allBlack.hashCode(), Board.hashCode(new BoardImpl(allBlack)));
-        assertEquals(allEmpty.hashCode(), Board.hashCode(new BoardImpl(allEmpty)));
+        for (Map<Point, Color> map : List.of(initMap, allBlack, allWhite, allEmpty, linedMap)) {
+            Board board = new BoardImpl(map);
+            
+            assertEquals(Long.hashCode(board.zobristKey()), Board.hashCode(board));
+            assertEquals(Board.hashCode(board), Board.hashCode(new BitBoard(board)));
+        }
+        assertEquals(Board.hashCode(new BoardImpl(initMap)), Board.hashCode(Board.initBoard()));
+    }
+    
+    @Test
+    void testZobristKey() {
+        Board impl = new BoardImpl();
+        Board bit = new BitBoard();
+        Color color = Color.BLACK;
+        
+        assertEquals(0L, new BoardImpl(allEmpty).zobristKey());
+        assertEquals(0L, new BitBoard(new BoardImpl(allEmpty)).zobristKey());
+        assertNotEquals(new BoardImpl(allBlack).zobristKey(), new BoardImpl(allWhite).zobristKey());
+        
+        // 差分更新された値と、石の配置から算出した値とが一致すること
+        while (Rule.isGameOngoing(impl)) {
+            Point point = null;
+            for (Point p : Point.values()) {
+                if (Rule.canPutAt(impl, color, p)) {
+                    point = p;
+                    break;
+                }
+            }
+            Move move = new Move(color, point);
+            impl = impl.getApplied(move);
+            bit = bit.getApplied(move);
+            
+            long expected = Bits.zobrist(impl.mask(Color.BLACK), impl.mask(Color.WHITE));
+            assertEquals(expected, impl.zobristKey());
+            assertEquals(expected, bit.zobristKey());
+            assertEquals(expected, defaultKey(impl));
+            color = color.reversed();
+        }
+    }
+    
+    @Test
+    void testParseInline() {
+        for (Map<Point, Color> map : List.of(initMap, linedMap, allBlack, allWhite, allEmpty)) {
+            Board expected = new BoardImpl(map);
+            Board actual = Board.parseInline(Board.toStringInline(expected));
+            
+            assertEquals(expected, actual);
+            assertEquals(expected.zobristKey(), actual.zobristKey());
+        }
+        
+        assertThrows(NullPointerException.class, () -> Board.parseInline(null));
+        assertThrows(IllegalArgumentException.class, () -> Board.parseInline(""));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Board.parseInline(Board.toStringInline(new BoardImpl()) + "・"));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Board.parseInline(Board.toStringInline(new BoardImpl()).replace('●', 'x')));
+    }
+    
+    @Test
+    void testMask() {
+        Board impl = new BoardImpl();
+        
+        assertEquals(Point.of("e4").bit() | Point.of("d5").bit(), impl.mask(Color.BLACK));
+        assertEquals(Point.of("d4").bit() | Point.of("e5").bit(), impl.mask(Color.WHITE));
+        assertEquals(impl.mask(Color.BLACK), new BitBoard().mask(Color.BLACK));
+        assertEquals(impl.mask(Color.WHITE), new BitBoard().mask(Color.WHITE));
+        assertEquals(-1L, new BoardImpl(allBlack).mask(Color.BLACK));
+        assertEquals(0L, new BoardImpl(allBlack).mask(Color.WHITE));
+        assertEquals(0xFF00L, new BoardImpl(linedMap).mask(Color.WHITE));
+        
+        assertThrows(NullPointerException.class, () -> impl.mask(null));
+        assertThrows(NullPointerException.class, () -> new BitBoard().mask(null));
     }
     
     @Test
@@ -165,4 +252,35 @@ class BoardTest {
         assertEquals(Map.of(Color.BLACK, 0, Color.WHITE, 64), new BoardImpl(allWhite).counts());
         assertEquals(Map.of(Color.BLACK, 0, Color.WHITE, 0), new BoardImpl(allEmpty).counts());
     }
+    
+    @Test
+    void testCount() {
+        assertEquals(2, new BoardImpl(initMap).count(Color.BLACK));
+        assertEquals(2, new BoardImpl(initMap).count(Color.WHITE));
+        assertEquals(0, new BoardImpl(linedMap).count(Color.BLACK));
+        assertEquals(8, new BoardImpl(linedMap).count(Color.WHITE));
+        assertEquals(64, new BoardImpl(allBlack).count(Color.BLACK));
+        assertEquals(0, new BoardImpl(allEmpty).count(Color.WHITE));
+        
+        assertThrows(NullPointerException.class, () -> new BoardImpl().count(null));
+    }
+    
+    @Test
+    void testEmpties() {
+        assertEquals(60, new BoardImpl(initMap).empties());
+        assertEquals(56, new BoardImpl(linedMap).empties());
+        assertEquals(0, new BoardImpl(allWhite).empties());
+        assertEquals(64, new BoardImpl(allEmpty).empties());
+    }
+    
+    @Test
+    void testDiscDifference() {
+        assertEquals(0, new BoardImpl(initMap).discDifference(Color.BLACK));
+        assertEquals(-8, new BoardImpl(linedMap).discDifference(Color.BLACK));
+        assertEquals(8, new BoardImpl(linedMap).discDifference(Color.WHITE));
+        assertEquals(64, new BoardImpl(allBlack).discDifference(Color.BLACK));
+        assertEquals(0, new BoardImpl(allEmpty).discDifference(Color.WHITE));
+        
+        assertThrows(NullPointerException.class, () -> new BoardImpl().discDifference(null));
+    }
 }
@@ -0,0 +1,75 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ChildrenTest {
+    
+    // [static members] ********************************************************
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testConstructor() {
+        Children testee = new Children();
+        
+        assertEquals(0, testee.size());
+        assertNull(testee.color());
+        assertEquals(0, testee.boards().length);
+        assertThrows(IndexOutOfBoundsException.class, () -> testee.board(0));
+    }
+    
+    @Test
+    void testChildren() {
+        Random random = new Random(0);
+        Children buffer = new Children();
+        
+        for (int n = 0; n < 20; n++) {
+            Board board = Board.initBoard();
+            Color color = Color.BLACK;
+            
+            while (Rule.isGameOngoing(board)) {
+                Board[] boards = { board, new BoardImpl(Board.boardToMap(board)), new MutableBoard(board) };
+                
+                for (Board b : boards) {
+                    Children testee = b.children(color, buffer);
+                    assertSame(buffer, testee);
+                    assertSame(color, testee.color());
+                    assertEquals(Long.bitCount(Rule.puttables(board, color)), testee.size());
+                    
+                    int prev = -1;
+                    for (int k = 0; k < testee.size(); k++) {
+                        Move move = testee.move(k);
+                        Board expected = board.getApplied(move);
+                        
+                        assertTrue(prev < testee.ordinal(k));
+                        assertSame(testee.point(k), move.point());
+                        assertEquals(Rule.flips(board, move), testee.flips(k));
+                        assertEquals(expected, testee.board(k));
+                        assertEquals(expected.zobristKey(), testee.key(k));
+                        assertEquals(expected.zobristKey(), testee.board(k).zobristKey());
+                        assertSame(testee.board(k), testee.board(k));
+                        prev = testee.ordinal(k);
+                    }
+                    assertThrows(IndexOutOfBoundsException.class, () -> testee.flips(testee.size()));
+                }
+                
+                Children children = board.children(color);
+                board = children.size() == 0
+                        ? board
+                        : children.board(random.nextInt(children.size()));
+                color = color.reversed();
+            }
+            
+            // ゲーム終了時は子局面を持たない。
+            assertEquals(0, board.children(Color.BLACK, buffer).size());
+            assertEquals(0, buffer.boards().length);
+        }
+        
+        assertThrows(NullPointerException.class, () -> Board.initBoard().children(null));
+        assertThrows(NullPointerException.class, () -> Board.initBoard().children(Color.BLACK, null));
+    }
+}
@@ -0,0 +1,45 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class DerivedDataTest {
+    
+    // [static members] ********************************************************
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testValues() {
+        Board board = Board.initBoard();
+        DerivedData testee = new DerivedData(board.mask(Color.BLACK), board.mask(Color.WHITE));
+        
+        for (Color color : Color.values()) {
+            assertEquals(Bits.puttables(board.mask(color), board.mask(color.reversed())), testee.puttables(color));
+        }
+    }
+    
+    @Test
+    void testConcurrentAccess() {
+        Random random = new Random(0);
+        
+        // 複数のスレッドが同時に初回の問い合わせを行っても、全てのスレッドが正しい値を得る。
+        for (int n = 0; n < 100; n++) {
+            long black = random.nextLong();
+            long white = random.nextLong() & ~black;
+            Board board = new BitBoard(black, white);
+            long expected = Bits.puttables(black, white);
+            
+            Map<Long, Boolean> seen = new ConcurrentHashMap<>();
+            IntStream.range(0, 8).parallel().forEach(i -> seen.put(board.puttables(Color.BLACK), true));
+            
+            assertEquals(Map.of(expected, true), seen);
+        }
+    }
+}
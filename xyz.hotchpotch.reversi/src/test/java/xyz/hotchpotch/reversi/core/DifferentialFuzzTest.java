@@ -0,0 +1,399 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 参照実装（{@link BoardImpl} と、方向を1マスずつ辿る {@link Rule} の判定）と、
+ * ビットボードによる高速な実装とが、同じ手順に対して完全に同じ結果を返すことを
+ * シード付きのランダム対局によって確認するテストです。<br>
+ * <br>
+ * 対局数とシードはシステムプロパティ {@code reversi.fuzz.games}, {@code reversi.fuzz.seed} で変更できます。
+ * 相違が見つかった場合は、相違を再現する手順をできるだけ短く縮めたうえで報告します。<br>
+ */
+class DifferentialFuzzTest {
+    
+    // [static members] ********************************************************
+    
+    private static final int GAMES = Integer.getInteger("reversi.fuzz.games", 2_000);
+    private static final long SEED = Long.getLong("reversi.fuzz.seed", 0x5EEDL);
+    
+    /**
+     * 手順を再現した結果を表すレコードです。<br>
+     * 
+     * @param step 相違が見つかった手の番号（その手を適用する前の局面で見つかった場合を含む）
+     * @param message 相違の内容（相違が無い場合は {@code null}）
+     * @param illegal 手順が参照実装において不正な場合は {@code true}
+     */
+    private static record Outcome(int step, String message, boolean illegal) {
+        
+        private static final Outcome OK = new Outcome(-1, null, false);
+        
+        private static Outcome diverged(int step, String message) {
+            return new Outcome(step, message, false);
+        }
+        
+        private static Outcome illegal(int step) {
+            return new Outcome(step, "illegal under the reference", true);
+        }
+        
+        private boolean diverged() {
+            return message != null && !illegal;
+        }
+    }
+    
+    /** 参照実装により、石を置ける位置のマスクを求めます。 */
+    private static long refPuttables(Board ref, Color color) {
+        long mask = 0L;
+        for (Point p : Point.values()) {
+            if (Rule.canPutAt(ref, color, p)) {
+                mask |= p.bit();
+            }
+        }
+        return mask;
+    }
+    
+    /** 参照実装により、石の配置のマスクを求めます。 */
+    private static long refMask(Board ref, Color color) {
+        long mask = 0L;
+        for (Point p : Point.values()) {
+            if (ref.colorAt(p) == color) {
+                mask |= p.bit();
+            }
+        }
+        return mask;
+    }
+    
+    /**
+     * 高速な実装を用いて、指定されたシードのランダム対局の手順を生成します。
+     * 生成された手順の妥当性は {@link #replay(List)} で参照実装により検証されます。<br>
+     */
+    private static List<Move> randomGame(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Move> moves = new ArrayList<>();
+        long own = Board.initBoard().mask(Color.BLACK);
+        long opp = Board.initBoard().mask(Color.WHITE);
+        Color color = Color.BLACK;
+        
+        while ((Rule.puttables(own, opp) | Rule.puttables(opp, own)) != 0) {
+            long m = Rule.puttables(own, opp);
+            if (m == 0) {
+                moves.add(new Move(color, null));
+            } else {
+                for (int n = random.nextInt(Long.bitCount(m)); 0 < n; n--) {
+                    m &= m - 1;
+                }
+                int ord = Long.numberOfTrailingZeros(m);
+                long f = Rule.flips(own, opp, ord);
+                own |= f | (1L << ord);
+                opp &= ~f;
+                moves.add(new Move(color, Point.ofOrdinal(ord)));
+            }
+            long tmp = own;
+            own = opp;
+            opp = tmp;
+            color = color.reversed();
+        }
+        return moves;
+    }
+    
+    /**
+     * 指定された手順を参照実装と全ての高速な実装で再現し、各局面で結果を突き合わせます。<br>
+     * 
+     * @param moves 黒番から始まり、手番が交互に入れ替わる手順
+     * @return 最初に見つかった相違、または手順の不正
+     */
+    private static Outcome replay(List<Move> moves) {
+        Board ref = new BoardImpl();
+        Board bit = new BitBoard();
+        MutableBoard mutable = new MutableBoard();
+        MutableBoard viaChildren = new MutableBoard();
+        Children children = new Children();
+        Color turn = Color.BLACK;
+        long[] refMoves = { refPuttables(ref, Color.BLACK), refPuttables(ref, Color.WHITE) };
+        
+        for (int step = 0; step <= moves.size(); step++) {
+            String diff = compare(ref, refMoves, bit, mutable, viaChildren, children, turn);
+            if (diff != null) {
+                return Outcome.diverged(step, diff);
+            }
+            if (step == moves.size()) {
+                break;
+            }
+            
+            Move move = moves.get(step);
+            long own = refMoves[turn.ordinal()];
+            long opp = refMoves[turn.reversed().ordinal()];
+            if (move.color() != turn || (own | opp) == 0
+                    || (move.point() == null ? own != 0 : (own & move.point().bit()) == 0)) {
+                return Outcome.illegal(step);
+            }
+            
+            // 参照実装
+            ref = ref.getApplied(move);
+            refMoves = new long[] { refPuttables(ref, Color.BLACK), refPuttables(ref, Color.WHITE) };
+            boolean refOver = (refMoves[0] | refMoves[1]) == 0;
+            boolean refOppPass = !refOver && refMoves[turn.reversed().ordinal()] == 0;
+            
+            // 不変のビットボードと、検証・適用を一度に行う Rule.apply
+            MoveResult result = Rule.apply(bit, move);
+            MoveResult.Status expected = refOver ? MoveResult.Status.GAME_OVER : MoveResult.Status.APPLIED;
+            if (result.status() != expected || result.opponentMustPass() != refOppPass) {
+                return Outcome.diverged(step, "Rule.apply(%s): %s, expected %s, opponentMustPass=%b"
+                        .formatted(move, result, expected, refOppPass));
+            }
+            bit = result.board();
+            
+            // 可変のビットボード（手を直接適用するものと、子局面のバッファを介して適用するもの）
+            mutable.apply(move);
+            if (move.point() == null) {
+                viaChildren.apply(move);
+            } else {
+                viaChildren.children(turn, children);
+                int index = indexOf(children, move.point().ordinal());
+                if (index < 0) {
+                    return Outcome.diverged(step, "Children lacks %s".formatted(move));
+                }
+                viaChildren.apply(children, index);
+            }
+            
+            turn = turn.reversed();
+        }
+        
+        // 終局していれば勝者を突き合わせ、可変のビットボードは初期状態まで巻き戻す。
+        if ((refMoves[0] | refMoves[1]) == 0) {
+            int diff = Long.bitCount(refMask(ref, Color.BLACK)) - Long.bitCount(refMask(ref, Color.WHITE));
+            Color refWinner = diff == 0 ? null : diff < 0 ? Color.WHITE : Color.BLACK;
+            for (Board fast : List.of(bit, mutable, viaChildren)) {
+                if (Rule.winner(fast) != refWinner) {
+                    return Outcome.diverged(moves.size(), "winner of %s: %s, expected %s"
+                            .formatted(fast.getClass().getSimpleName(), Rule.winner(fast), refWinner));
+                }
+            }
+        }
+        while (0 < mutable.depth()) {
+            mutable.undo();
+        }
+        if (!Board.equals(mutable, Board.initBoard())
+                || mutable.zobristKey() != Board.initBoard().zobristKey()) {
+            return Outcome.diverged(moves.size(), "MutableBoard did not undo to the initial board");
+        }
+        return Outcome.OK;
+    }
+    
+    private static int indexOf(Children children, int ordinal) {
+        for (int i = 0; i < children.size(); i++) {
+            if (children.ordinal(i) == ordinal) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * ある局面について、参照実装と各高速実装の石の配置、石の数、Zobrist ハッシュ、
+     * 石を置ける位置、ひっくり返る石と子局面、ゲーム継続の判定を突き合わせます。<br>
+     * 
+     * @param refMoves 参照実装により求めた、黒と白それぞれの石を置ける位置のマスク
+     * @return 相違の内容（相違が無い場合は {@code null}）
+     */
+    private static String compare(Board ref, long[] refMoves,
+            Board bit, MutableBoard mutable, MutableBoard viaChildren, Children children, Color turn) {
+        
+        long black = refMask(ref, Color.BLACK);
+        long white = refMask(ref, Color.WHITE);
+        
+        for (Board fast : List.of(bit, mutable, viaChildren)) {
+            String name = fast.getClass().getSimpleName();
+            if (fast.mask(Color.BLACK) != black || fast.mask(Color.WHITE) != white) {
+                return "discs of %s:%n%s%nexpected:%n%s".formatted(name, fast, ref);
+            }
+            if (fast.zobristKey() != ref.zobristKey()) {
+                return "zobristKey of %s".formatted(name);
+            }
+            if (fast.count(Color.BLACK) != Long.bitCount(black)
+                    || fast.count(Color.WHITE) != Long.bitCount(white)
+                    || fast.empties() != Long.bitCount(~(black | white))) {
+                return "counts of %s: %s".formatted(name, fast.counts());
+            }
+        }
+        
+        for (Color color : Color.values()) {
+            long own = color == Color.BLACK ? black : white;
+            long opp = color == Color.BLACK ? white : black;
+            long expected = refMoves[color.ordinal()];
+            
+            if (Rule.puttables(bit, color) != expected
+                    || Rule.puttables(mutable, color) != expected
+                    || Rule.puttables(own, opp) != expected) {
+                return "puttables of %s: %016x, expected %016x"
+                        .formatted(color, Rule.puttables(bit, color), expected);
+            }
+            if (Rule.canPut(bit, color) != (expected != 0)) {
+                return "canPut of %s".formatted(color);
+            }
+            
+            bit.children(color, children);
+            long expanded = 0L;
+            for (int i = 0; i < children.size(); i++) {
+                expanded |= 1L << children.ordinal(i);
+            }
+            if (expanded != expected) {
+                return "children of %s: %016x, expected %016x".formatted(color, expanded, expected);
+            }
+            
+            // 手番側については、石を置ける全ての位置についてひっくり返る石と子局面を突き合わせる。
+            if (color != turn) {
+                continue;
+            }
+            for (int i = 0; i < children.size(); i++) {
+                Move move = new Move(color, children.point(i));
+                long refFlips = Rule.flips(ref, move);
+                
+                if (Rule.flips(bit, move) != refFlips
+                        || Rule.flips(mutable, move) != refFlips
+                        || Rule.flips(own, opp, move.point().ordinal()) != refFlips
+                        || children.flips(i) != refFlips) {
+                    return "flips of %s: %016x, expected %016x"
+                            .formatted(move, Rule.flips(bit, move), refFlips);
+                }
+                
+                long put = move.point().bit();
+                long childOwn = own | put | refFlips;
+                long childOpp = opp & ~refFlips;
+                Board child = children.board(i);
+                if (child.mask(color) != childOwn || child.mask(color.reversed()) != childOpp) {
+                    return "children board of %s".formatted(move);
+                }
+                if (children.key(i) != (color == Color.BLACK
+                        ? Bits.zobrist(childOwn, childOpp)
+                        : Bits.zobrist(childOpp, childOwn))) {
+                    return "children key of %s".formatted(move);
+                }
+            }
+        }
+        
+        boolean refOngoing = (refMoves[0] | refMoves[1]) != 0;
+        if (Rule.isGameOngoing(bit) != refOngoing || Rule.isGameOngoing(mutable) != refOngoing) {
+            return "isGameOngoing: %b, expected %b".formatted(Rule.isGameOngoing(bit), refOngoing);
+        }
+        return null;
+    }
+    
+    /**
+     * 相違を再現する手順を、相違が再現する範囲で縮めます。<br>
+     * 相違が見つかった手より後ろを切り捨てたうえで、手番の交互性を保つよう偶数手の区間を取り除くことを、
+     * 長い区間から順に、縮められなくなるまで繰り返します。<br>
+     * 
+     * @param moves 相違を再現する手順
+     * @param oracle 手順を再現した結果を返す関数
+     * @return 縮めた手順
+     */
+    private static List<Move> shrink(List<Move> moves, Function<List<Move>, Outcome> oracle) {
+        Outcome outcome = oracle.apply(moves);
+        assert outcome.diverged();
+        
+        List<Move> current = List.copyOf(moves.subList(0, Math.min(moves.size(), outcome.step() + 1)));
+        
+        for (int len = current.size() & ~1; 2 <= len; len -= 2) {
+            for (int start = 0; start + len <= current.size(); start++) {
+                List<Move> candidate = new ArrayList<>(current.subList(0, start));
+                candidate.addAll(current.subList(start + len, current.size()));
+                
+                Outcome o = oracle.apply(candidate);
+                if (o.diverged()) {
+                    current = List.copyOf(candidate.subList(0, Math.min(candidate.size(), o.step() + 1)));
+                    len = (current.size() & ~1) + 2;
+                    break;
+                }
+            }
+        }
+        return current;
+    }
+    
+    private static String format(List<Move> moves) {
+        return moves.stream()
+                .map(m -> m.point() == null ? "--" : m.point().pos())
+                .collect(Collectors.joining(" "));
+    }
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testRandomGames() {
+        List<Long> failures = LongStream.range(SEED, SEED + GAMES)
+                .parallel()
+                .filter(seed -> replay(randomGame(seed)).message() != null)
+                .limit(1)
+                .boxed()
+                .toList();
+        
+        if (!failures.isEmpty()) {
+            long seed = failures.get(0);
+            List<Move> moves = randomGame(seed);
+            Outcome outcome = replay(moves);
+            List<Move> minimal = outcome.illegal() ? moves : shrink(moves, DifferentialFuzzTest::replay);
+            
+            fail("seed %d: %s%nminimal moves: %s%n%s".formatted(
+                    seed, outcome.message(), format(minimal), replay(minimal).message()));
+        }
+    }
+    
+    @Test
+    void testReplay() {
+        // 終局までの手順、途中までの手順、空の手順はいずれも相違なし
+        List<Move> game = randomGame(1);
+        assertNull(replay(game).message());
+        assertNull(replay(game.subList(0, game.size() / 2)).message());
+        assertNull(replay(List.of()).message());
+        
+        // 不正な手順は相違ではなく不正として報告される
+        assertTrue(replay(List.of(new Move(Color.BLACK, Point.of("a1")))).illegal());
+        assertTrue(replay(List.of(new Move(Color.WHITE, Point.of("e3")))).illegal());
+        assertTrue(replay(List.of(new Move(Color.BLACK, null))).illegal());
+    }
+    
+    @Test
+    void testShrink() {
+        // 「f5 に黒石を置くと相違が生じる」という架空の実装に対して、
+        // 手順が f5 を含む最短の形まで縮められることを確認する。
+        Point target = Point.of("f5");
+        Function<List<Move>, Outcome> oracle = moves -> {
+            Outcome o = replay(moves);
+            if (o.illegal()) {
+                return o;
+            }
+            for (int step = 0; step < moves.size(); step++) {
+                if (Objects.equals(moves.get(step).point(), target) && moves.get(step).color() == Color.BLACK) {
+                    return Outcome.diverged(step, "fake divergence");
+                }
+            }
+            return Outcome.OK;
+        };
+        
+        List<Move> game = null;
+        for (long seed = 0; game == null; seed++) {
+            List<Move> candidate = randomGame(seed);
+            if (oracle.apply(candidate).diverged() && 10 < oracle.apply(candidate).step()) {
+                game = candidate;
+            }
+        }
+        
+        List<Move> minimal = shrink(game, oracle);
+        assertTrue(oracle.apply(minimal).diverged());
+        assertTrue(minimal.size() < game.size());
+        assertEquals(target, minimal.get(minimal.size() - 1).point());
+        
+        // f5 は初手で置ける位置なので、1手まで縮められる。
+        assertEquals(List.of(new Move(Color.BLACK, target)), minimal);
+    }
+}
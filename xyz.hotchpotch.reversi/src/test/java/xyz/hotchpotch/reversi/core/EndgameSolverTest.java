@@ -0,0 +1,380 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class EndgameSolverTest {
+    
+    // [static members] ********************************************************
+    
+    /** 枝刈りを行わないミニマックス法により、終局時の石数差を求めます。 */
+    private static int minimax(VariantBoard board, Color color) {
+        BitSet puttables = board.puttables(color);
+        if (puttables.isEmpty()) {
+            return board.canPut(color.reversed())
+                    ? -minimax(board, color.reversed())
+                    : board.count(color) - board.count(color.reversed());
+        }
+        return puttables.stream()
+                .map(sq -> -minimax(board.applied(color, sq), color.reversed()))
+                .max()
+                .getAsInt();
+    }
+    
+    /** 枝刈りを行わないミニマックス法により、標準の盤面の終局時の石数差を求めます。 */
+    private static int minimax(Board board, Color color) {
+        long puttables = Rule.puttables(board, color);
+        if (puttables == 0) {
+            return Rule.canPut(board, color.reversed())
+                    ? -minimax(board, color.reversed())
+                    : board.discDifference(color);
+        }
+        return Point.pointsOf(puttables).stream()
+                .mapToInt(p -> -minimax(board.getApplied(new Move(color, p)), color.reversed()))
+                .max()
+                .getAsInt();
+    }
+    
+    /** ゲーム開始時状態から、空きマスが指定された数になるまでランダムに手を進めたリバーシ盤を返します。 */
+    private static VariantBoard randomBoard(Geometry geometry, Random random, int empties) {
+        VariantBoard board = VariantBoard.initial(geometry);
+        Color color = Color.BLACK;
+        while (empties < geometry.squares() - board.count(Color.BLACK) - board.count(Color.WHITE)
+                && board.isGameOngoing()) {
+            int[] squares = board.puttables(color).stream().toArray();
+            if (0 < squares.length) {
+                board = board.applied(color, squares[random.nextInt(squares.length)]);
+            }
+            color = color.reversed();
+        }
+        return board;
+    }
+    
+    /** パスを表す事象の種類（{@link #event(int, int)} 参照） */
+    private static final int PASS = 0;
+    
+    /** 空きマスを残した終局を表す事象の種類（{@link #event(int, int)} 参照） */
+    private static final int EARLY_END = 1;
+    
+    /** 指定された種類の事象が、指定された数の空きマスがある局面で起きたことを表すビットを返します。 */
+    private static long event(int kind, int empties) {
+        return 1L << (2 * empties + kind);
+    }
+    
+    /**
+     * 指定された数の空きマスを残し、他のマスに黒白の石をランダムに配置したリバーシ盤を返します。<br>
+     * 黒石の割合も局面ごとにランダムに決め、一方の色に偏った（双方とも置けなくなりやすい）局面も生成します。
+     */
+    private static Board randomFilledBoard(Random random, int empties) {
+        double ratio = random.nextDouble();
+        long black = 0;
+        long white = 0;
+        for (int ord = 0; ord < Point.HEIGHT * Point.WIDTH; ord++) {
+            if (random.nextDouble() < ratio) {
+                black |= 1L << ord;
+            } else {
+                white |= 1L << ord;
+            }
+        }
+        for (int i = 0; i < empties;) {
+            long bit = 1L << random.nextInt(Point.HEIGHT * Point.WIDTH);
+            if (((black | white) & bit) != 0) {
+                black &= ~bit;
+                white &= ~bit;
+                i++;
+            }
+        }
+        return new BitBoard(black, white);
+    }
+    
+    /**
+     * ルート局面より後の局面に現れるパスと空きマスを残した終局を、
+     * 局面の空きマスの数ごとに調べます（{@link #event(int, int)} 参照）。
+     */
+    private static long passesAndEarlyEnds(Board board, Color color) {
+        long events = 0;
+        for (Point p : Point.pointsOf(Rule.puttables(board, color))) {
+            Board next = board.getApplied(new Move(color, p));
+            if (!Rule.canPut(next, color.reversed())) {
+                if (Rule.canPut(next, color)) {
+                    events |= event(PASS, next.empties());
+                } else if (0 < next.empties()) {
+                    events |= event(EARLY_END, next.empties());
+                }
+            }
+            events |= passesAndEarlyEnds(next, color.reversed());
+        }
+        return events;
+    }
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testSolveInitial() {
+        EndgameSolver solver = new EndgameSolver(16);
+        
+        // 4x4 盤は、双方が最善を尽くすと白の 11 対 3 の勝ちとなる。
+        assertEquals(-8, solver.solve(VariantBoard.initial(Geometry.of(4, 4)), Color.BLACK));
+        assertEquals(minimax(VariantBoard.initial(Geometry.of(4, 4)), Color.BLACK),
+                solver.solve(VariantBoard.initial(Geometry.of(4, 4)), Color.BLACK));
+        assertTrue(0 < solver.nodes());
+        
+        // 開始時の配置は対角線について対称であるため、縦横を入れ替えた盤面は元の盤面を転置したものと等価である。
+        assertEquals(solver.solve(VariantBoard.initial(Geometry.of(4, 6)), Color.BLACK),
+                solver.solve(VariantBoard.initial(Geometry.of(6, 4)), Color.BLACK));
+    }
+    
+    @Test
+    void testSolveVariant() {
+        Random random = new Random(0);
+        EndgameSolver solver = new EndgameSolver(12);
+        
+        for (Geometry g : new Geometry[] { Geometry.of(4, 6), Geometry.of(6, 6), Geometry.of(4, 8) }) {
+            for (int n = 0; n < 10; n++) {
+                VariantBoard board = randomBoard(g, random, 9);
+                for (Color color : Color.values()) {
+                    assertEquals(minimax(board, color), solver.solve(board, color), board.toString());
+                }
+            }
+        }
+    }
+    
+    @Test
+    void testSolveStandard() {
+        Random random = new Random(1);
+        EndgameSolver solver = new EndgameSolver();
+        
+        for (int n = 0; n < 10; n++) {
+            Board board = randomBoard(Geometry.STANDARD, random, 9).toBoard();
+            for (Color color : Color.values()) {
+                assertEquals(minimax(board, color), solver.solve(board, color));
+                assertEquals(solver.solve(board, color), solver.solve(VariantBoard.of(board), color));
+            }
+        }
+    }
+    
+    @Test
+    void testSolveLastEmpties() {
+        Random random = new Random(2);
+        EndgameSolver solver = new EndgameSolver(8);
+        
+        // 空きマスが少ない局面は専用の処理で読み切る。パスや空きマスを残した終局を含めて確かめる。
+        for (int empties = 0; empties <= 7; empties++) {
+            for (int n = 0; n < 50; n++) {
+                Board board = randomBoard(Geometry.STANDARD, random, empties).toBoard();
+                for (Color color : Color.values()) {
+                    assertEquals(minimax(board, color), solver.solve(board, color), board.toString());
+                }
+            }
+        }
+    }
+    
+    @Test
+    void testSolveWithTimelimit() {
+        Random random = new Random(3);
+        EndgameSolver solver = new EndgameSolver();
+        Instant timelimit = Instant.now().plusSeconds(60);
+        
+        // 最善手を進めた局面の評価値は、元の局面の評価値と一致する。
+        for (int n = 0; n < 10; n++) {
+            Board board = randomBoard(Geometry.STANDARD, random, 10).toBoard();
+            Color color = Color.BLACK;
+            if (!Rule.canPut(board, color)) {
+                color = color.reversed();
+            }
+            if (!Rule.canPut(board, color)) {
+                continue;
+            }
+            
+            EndgameSolver.Solution solution = solver.solve(board, color, timelimit);
+            assertEquals(minimax(board, color), solution.score());
+            assertTrue(Rule.canPutAt(board, color, solution.move()));
+            assertEquals(solution.score(),
+                    -minimax(board.getApplied(new Move(color, solution.move())), color.reversed()));
+        }
+        
+        // 制限時刻までに読み切れない場合は null を返し、その後も引き続き利用できる。
+        assertNull(solver.solve(Board.initBoard(), Color.BLACK, Instant.now().minusSeconds(1)));
+        Board board = randomBoard(Geometry.STANDARD, random, 8).toBoard();
+        assertEquals(minimax(board, Color.WHITE), solver.solve(board, Color.WHITE));
+        
+        assertThrows(NullPointerException.class, () -> solver.solve((Board) null, Color.BLACK, timelimit));
+        assertThrows(NullPointerException.class, () -> solver.solve(Board.initBoard(), null, timelimit));
+        assertThrows(NullPointerException.class, () -> solver.solve(Board.initBoard(), Color.BLACK, null));
+    }
+    
+    @Test
+    void testSolveVariantWithTimelimit() {
+        EndgameSolver solver = new EndgameSolver(16);
+        Instant timelimit = Instant.now().plusSeconds(60);
+        
+        // 制限時刻までに読み切れた場合は、制限時刻を指定しない場合と同じ結果を返す。
+        assertEquals(Integer.valueOf(-8), solver.solve(VariantBoard.initial(Geometry.of(4, 4)), Color.BLACK, timelimit));
+        
+        // 制限時刻までに読み切れない場合は null を返し、その後も引き続き利用できる。
+        assertNull(solver.solve(VariantBoard.initial(Geometry.of(6, 6)), Color.BLACK, Instant.now().minusSeconds(1)));
+        assertEquals(-8, solver.solve(VariantBoard.initial(Geometry.of(4, 4)), Color.BLACK));
+        
+        VariantBoard board = VariantBoard.initial(Geometry.of(4, 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> solver.solve(VariantBoard.initial(Geometry.of(10, 10)), Color.BLACK, timelimit));
+        assertThrows(NullPointerException.class, () -> solver.solve((VariantBoard) null, Color.BLACK, timelimit));
+        assertThrows(NullPointerException.class, () -> solver.solve(board, null, timelimit));
+        assertThrows(NullPointerException.class, () -> solver.solve(board, Color.BLACK, null));
+    }
+    
+    @Test
+    void testSolveFewEmpties() {
+        Random random = new Random(6);
+        EndgameSolver solver = new EndgameSolver(8);
+        
+        // 空きマスが2～4つの局面は、空きマスの数ごとの専用の処理で読み切る。
+        // 石をランダムに配置した局面を用いて、それらの処理がパスと空きマスを残した終局を扱う場合を確かめる。
+        long events = 0;
+        for (int empties = 3; empties <= 5; empties++) {
+            for (int n = 0; n < 200; n++) {
+                Board board = randomFilledBoard(random, empties);
+                for (Color color : Color.values()) {
+                    assertEquals(minimax(board, color), solver.solve(board, color), board.toString());
+                    events |= passesAndEarlyEnds(board, color);
+                }
+            }
+        }
+        for (int empties = 2; empties <= 4; empties++) {
+            assertTrue((events & event(PASS, empties)) != 0, "pass: " + empties);
+            assertTrue((events & event(EARLY_END, empties)) != 0, "early end: " + empties);
+        }
+    }
+    
+    @Test
+    void testSolveWithTable() {
+        Random random = new Random(5);
+        TranspositionTable table = TranspositionTable.onHeap(1 << 20);
+        EndgameSolver testee = new EndgameSolver(table, 1);
+        EndgameSolver expected = new EndgameSolver(16, 1);
+        
+        // 指定された置換表に読み切りの結果が記録され、同じ置換表を用いる以降の探索でも正しい結果となる。
+        for (int n = 0; n < 5; n++) {
+            Board board = randomBoard(Geometry.STANDARD, random, 14).toBoard();
+            int score = expected.solve(board, Color.BLACK);
+            assertEquals(score, testee.solve(board, Color.BLACK), board.toString());
+            long nodes = testee.nodes();
+            assertEquals(score, testee.solve(board, Color.BLACK), board.toString());
+            assertTrue(testee.nodes() < nodes);
+        }
+    }
+    
+    @Test
+    void testSolveEmbeddedRegions() {
+        Random random = new Random(6);
+        Geometry narrow = Geometry.of(4, 6);
+        Geometry wide = Geometry.of(6, 6);
+        
+        // 4x6 盤の範囲は、6x6 盤の上下1行ずつを除いた範囲と一致する。
+        // 4x6 盤で打った手を 6x6 盤でも打つと、石の配置が同じで空きマスの範囲だけが異なる局面が得られる。
+        for (int n = 0; n < 3; n++) {
+            VariantBoard small = VariantBoard.initial(narrow);
+            VariantBoard large = VariantBoard.initial(wide);
+            Color color = Color.BLACK;
+            while (8 < narrow.squares() - small.count(Color.BLACK) - small.count(Color.WHITE)
+                    && small.isGameOngoing()) {
+                int[] squares = small.puttables(color).stream().toArray();
+                if (0 < squares.length) {
+                    int sq = squares[random.nextInt(squares.length)];
+                    small = small.applied(color, sq);
+                    large = large.applied(color, wide.square(sq / narrow.width() + 1, sq % narrow.width()));
+                }
+                color = color.reversed();
+            }
+            
+            int expectedSmall = minimax(small, color);
+            int expectedLarge = new EndgameSolver(16).solve(large, color);
+            
+            // 同じインスタンスで続けて読み切っても、範囲の異なる局面の結果を取り違えない。
+            EndgameSolver solver1 = new EndgameSolver(16);
+            assertEquals(expectedSmall, solver1.solve(small, color), small.toString());
+            assertEquals(expectedLarge, solver1.solve(large, color), large.toString());
+            
+            EndgameSolver solver2 = new EndgameSolver(16);
+            assertEquals(expectedLarge, solver2.solve(large, color), large.toString());
+            assertEquals(expectedSmall, solver2.solve(small, color), small.toString());
+        }
+    }
+    
+    @Test
+    void testBestMove() {
+        Random random = new Random(7);
+        EndgameSolver solver = new EndgameSolver();
+        Instant timelimit = Instant.now().plusSeconds(60);
+        
+        // 制限時刻までに読み切れる場合は、石数差が最大となる手を返す。
+        for (int n = 0; n < 10; n++) {
+            Board board = randomBoard(Geometry.STANDARD, random, 10).toBoard();
+            if (!Rule.canPut(board, Color.BLACK)) {
+                assertNull(solver.bestMove(board, Color.BLACK, timelimit));
+                continue;
+            }
+            Point move = solver.bestMove(board, Color.BLACK, timelimit);
+            assertTrue(Rule.canPutAt(board, Color.BLACK, move));
+            assertEquals(minimax(board, Color.BLACK),
+                    -minimax(board.getApplied(new Move(Color.BLACK, move)), Color.WHITE));
+        }
+        
+        // 制限時刻までに読み切れない場合も、着手可能な手を返す。
+        Board board = randomBoard(Geometry.STANDARD, random, 40).toBoard();
+        Color color = Rule.canPut(board, Color.BLACK) ? Color.BLACK : Color.WHITE;
+        Point move = new EndgameSolver(16, 1).bestMove(board, color, Instant.now().minusSeconds(1));
+        assertTrue(Rule.canPutAt(board, color, move));
+        move = new EndgameSolver(16, 4).bestMove(board, color, Instant.now().plusMillis(50));
+        assertTrue(Rule.canPutAt(board, color, move));
+        
+        assertThrows(NullPointerException.class, () -> solver.bestMove(null, Color.BLACK, timelimit));
+        assertThrows(NullPointerException.class, () -> solver.bestMove(Board.initBoard(), null, timelimit));
+        assertThrows(NullPointerException.class, () -> solver.bestMove(Board.initBoard(), Color.BLACK, null));
+    }
+    
+    @Test
+    void testSolveParallel() {
+        Random random = new Random(4);
+        EndgameSolver parallel = new EndgameSolver(16, 4);
+        EndgameSolver sequential = new EndgameSolver(16, 1);
+        Instant timelimit = Instant.now().plusSeconds(60);
+        
+        // 並列に探索する局面を含めて、逐次に探索した場合と同じ結果となる。
+        for (int n = 0; n < 5; n++) {
+            Board board = randomBoard(Geometry.STANDARD, random, 15).toBoard();
+            for (Color color : Color.values()) {
+                assertEquals(sequential.solve(board, color), parallel.solve(board, color), board.toString());
+            }
+            
+            EndgameSolver.Solution solution = parallel.solve(board, Color.BLACK, timelimit);
+            if (solution.move() != null) {
+                assertEquals(solution.score(), -sequential.solve(
+                        board.getApplied(new Move(Color.BLACK, solution.move())), Color.WHITE));
+            }
+        }
+        
+        assertNull(parallel.solve(Board.initBoard(), Color.BLACK, Instant.now().minusSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new EndgameSolver(16, 0));
+    }
+    
+    @Test
+    void testSolveArguments() {
+        EndgameSolver solver = new EndgameSolver(4);
+        
+        assertThrows(IllegalArgumentException.class,
+                () -> solver.solve(VariantBoard.initial(Geometry.of(10, 10)), Color.BLACK));
+        assertThrows(NullPointerException.class, () -> solver.solve((Board) null, Color.BLACK));
+        assertThrows(NullPointerException.class, () -> solver.solve(Board.initBoard(), null));
+        assertThrows(IllegalArgumentException.class, () -> new EndgameSolver(0));
+        assertThrows(IllegalArgumentException.class, () -> new EndgameSolver(29));
+        assertThrows(NullPointerException.class, () -> new EndgameSolver((TranspositionTable) null));
+        assertThrows(NullPointerException.class, () -> new EndgameSolver(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> new EndgameSolver(TranspositionTable.onHeap(1 << 10), 0));
+    }
+}
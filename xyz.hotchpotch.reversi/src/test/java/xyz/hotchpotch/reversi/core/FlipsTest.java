@@ -0,0 +1,42 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class FlipsTest {
+    
+    // [static members] ********************************************************
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testFlips() {
+        Random random = new Random(0);
+        
+        // 任意の石の配置（ゲーム上あり得ない配置を含む）の全ての位置について、
+        // シフト演算による実装と一致することを確認する。
+        for (int n = 0; n < 10000; n++) {
+            long occupied = random.nextLong() | random.nextLong();
+            long own = occupied & random.nextLong();
+            long opp = occupied & ~own;
+            
+            for (int ord = 0; ord < Point.HEIGHT * Point.WIDTH; ord++) {
+                long put = 1L << ord;
+                assertEquals(
+                        Bits.flipsByShift(own & ~put, opp & ~put, ord),
+                        Flips.flips(own & ~put, opp & ~put, ord));
+            }
+        }
+        
+        assertEquals(1L << Point.of("d4").ordinal(), Flips.flips(
+                Board.initBoard().mask(Color.BLACK),
+                Board.initBoard().mask(Color.WHITE),
+                Point.of("d3").ordinal()));
+        
+        assertThrows(IndexOutOfBoundsException.class, () -> Flips.flips(0L, 0L, -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> Flips.flips(0L, 0L, 64));
+    }
+}
@@ -0,0 +1,133 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class GameBatchTest {
+    
+    // [static members] ********************************************************
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testConstructor() {
+        GameBatch batch = new GameBatch(3);
+        
+        assertEquals(3, batch.size());
+        assertEquals(3, batch.ongoing());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(Board.equals(Board.initBoard(), batch.board(i)));
+            assertEquals(Color.BLACK, batch.turn(i));
+            assertFalse(batch.isOver(i));
+            int index = i;
+            assertThrows(IllegalStateException.class, () -> batch.winner(index));
+        }
+        
+        assertEquals(0, new GameBatch(0).size());
+        assertFalse(new GameBatch(0).step((i, m) -> 0));
+        assertThrows(IllegalArgumentException.class, () -> new GameBatch(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.board(3));
+    }
+    
+    @Test
+    void testStep() {
+        Random random = new Random(0);
+        
+        // 各実装について、全てのゲームの手順を Rule.apply による再現と突き合わせる。
+        for (BatchKernel kernel : List.of(ScalarBatchKernel.INSTANCE, BatchKernel.best())) {
+            int n = 37;
+            GameBatch batch = new GameBatch(n, kernel);
+            Board[] boards = new Board[n];
+            Color[] turns = new Color[n];
+            for (int i = 0; i < n; i++) {
+                boards[i] = Board.initBoard();
+                turns[i] = Color.BLACK;
+            }
+            
+            boolean ongoing = true;
+            while (ongoing) {
+                List<Move> chosen = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    chosen.add(null);
+                }
+                ongoing = batch.step((i, m) -> {
+                    assertEquals(Rule.puttables(batch.board(i), batch.turn(i)), m);
+                    for (int k = random.nextInt(Long.bitCount(m)); 0 < k; k--) {
+                        m &= m - 1;
+                    }
+                    chosen.set(i, new Move(batch.turn(i), Point.ofOrdinal(Long.numberOfTrailingZeros(m))));
+                    return Long.numberOfTrailingZeros(m);
+                });
+                
+                for (int i = 0; i < n; i++) {
+                    if (!Rule.isGameOngoing(boards[i])) {
+                        continue;
+                    }
+                    Move move = chosen.get(i) != null ? chosen.get(i) : new Move(turns[i], null);
+                    MoveResult result = Rule.apply(boards[i], move);
+                    assertTrue(result.isApplied());
+                    boards[i] = result.board();
+                    turns[i] = turns[i].reversed();
+                }
+                for (int i = 0; i < n; i++) {
+                    assertTrue(Board.equals(boards[i], batch.board(i)));
+                    if (Rule.isGameOngoing(boards[i])) {
+                        assertEquals(turns[i], batch.turn(i));
+                    }
+                }
+            }
+            
+            assertEquals(0, batch.ongoing());
+            for (int i = 0; i < n; i++) {
+                assertTrue(batch.isOver(i));
+                assertFalse(Rule.isGameOngoing(batch.board(i)));
+                assertEquals(Rule.winner(boards[i]), batch.winner(i));
+            }
+        }
+    }
+    
+    @Test
+    void testStepIllegal() {
+        GameBatch batch = new GameBatch(2);
+        
+        assertThrows(NullPointerException.class, () -> batch.step(null));
+        assertThrows(IllegalArgumentException.class, () -> batch.step((i, m) -> Point.of("a1").ordinal()));
+        assertThrows(IllegalArgumentException.class, () -> batch.step((i, m) -> -1));
+        assertThrows(IllegalArgumentException.class, () -> batch.step((i, m) -> 64));
+        
+        // 不正な手を返した場合は、いずれのゲームも進められない。
+        assertThrows(IllegalArgumentException.class,
+                () -> batch.step((i, m) -> i == 0 ? Long.numberOfTrailingZeros(m) : -1));
+        for (int i = 0; i < batch.size(); i++) {
+            assertTrue(Board.equals(Board.initBoard(), batch.board(i)));
+            assertEquals(Color.BLACK, batch.turn(i));
+        }
+    }
+    
+    @Test
+    void testPlayRandom() {
+        GameBatch batch = new GameBatch(100);
+        batch.playRandom(new SplittableRandom(0));
+        
+        assertEquals(0, batch.ongoing());
+        for (int i = 0; i < batch.size(); i++) {
+            assertTrue(batch.isOver(i));
+            assertFalse(Rule.isGameOngoing(batch.board(i)));
+        }
+        
+        // 同じシードからは同じ結果となる。
+        GameBatch batch2 = new GameBatch(100);
+        batch2.playRandom(new SplittableRandom(0));
+        for (int i = 0; i < batch.size(); i++) {
+            assertTrue(Board.equals(batch.board(i), batch2.board(i)));
+        }
+        
+        assertThrows(NullPointerException.class, () -> batch.playRandom(null));
+    }
+}
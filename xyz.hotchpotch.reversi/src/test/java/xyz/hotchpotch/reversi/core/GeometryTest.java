@@ -0,0 +1,121 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class GeometryTest {
+    
+    // [static members] ********************************************************
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testOf() {
+        Geometry g = Geometry.of(6, 10);
+        assertEquals(6, g.height());
+        assertEquals(10, g.width());
+        assertEquals(60, g.squares());
+        assertFalse(g.isStandard());
+        assertFalse(g.isEmbedded());
+        
+        assertSame(Geometry.STANDARD, Geometry.of(8, 8));
+        assertTrue(Geometry.STANDARD.isStandard());
+        assertTrue(Geometry.STANDARD.isEmbedded());
+        assertTrue(Geometry.of(4, 6).isEmbedded());
+        assertFalse(Geometry.of(10, 10).isEmbedded());
+        assertEquals(128, Geometry.of(8, 16).squares());
+        
+        assertThrows(IllegalArgumentException.class, () -> Geometry.of(2, 8));
+        assertThrows(IllegalArgumentException.class, () -> Geometry.of(8, 7));
+        assertThrows(IllegalArgumentException.class, () -> Geometry.of(12, 12));
+        assertThrows(IllegalArgumentException.class, () -> Geometry.of(-4, 4));
+    }
+    
+    @Test
+    void testParse() {
+        assertEquals(Geometry.of(6, 6), Geometry.parse("6x6"));
+        assertEquals(Geometry.of(10, 8), Geometry.parse(" 10x8 "));
+        assertSame(Geometry.STANDARD, Geometry.parse("8x8"));
+        assertEquals("4x6", Geometry.parse("4x6").toString());
+        
+        assertThrows(NullPointerException.class, () -> Geometry.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> Geometry.parse("6*6"));
+        assertThrows(IllegalArgumentException.class, () -> Geometry.parse("6x"));
+        assertThrows(IllegalArgumentException.class, () -> Geometry.parse("5x5"));
+    }
+    
+    @Test
+    void testFromProperty() {
+        String original = System.getProperty(Geometry.PROPERTY);
+        try {
+            System.clearProperty(Geometry.PROPERTY);
+            assertSame(Geometry.STANDARD, Geometry.fromProperty());
+            
+            System.setProperty(Geometry.PROPERTY, "10x10");
+            assertEquals(Geometry.of(10, 10), Geometry.fromProperty());
+            
+            System.setProperty(Geometry.PROPERTY, "big");
+            assertThrows(IllegalArgumentException.class, Geometry::fromProperty);
+        } finally {
+            if (original == null) {
+                System.clearProperty(Geometry.PROPERTY);
+            } else {
+                System.setProperty(Geometry.PROPERTY, original);
+            }
+        }
+    }
+    
+    @Test
+    void testSquare() {
+        Geometry g = Geometry.of(4, 6);
+        assertEquals(0, g.square(0, 0));
+        assertEquals(11, g.square(1, 5));
+        assertEquals(23, g.square(3, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.square(4, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.square(0, 6));
+    }
+    
+    @Test
+    void testBit() {
+        // 標準の盤面では、マスの番号とビット位置が一致する。
+        for (Point p : Point.values()) {
+            assertEquals(p.ordinal(), Geometry.STANDARD.bit(p.ordinal()));
+        }
+        assertEquals(-1L, Geometry.STANDARD.region());
+        
+        // 6x6 盤は b2 から g7 の範囲に埋め込まれる。
+        Geometry g = Geometry.of(6, 6);
+        assertEquals(Point.of("b2").ordinal(), g.bit(0));
+        assertEquals(Point.of("g7").ordinal(), g.bit(35));
+        assertEquals(36, Long.bitCount(g.region()));
+        assertEquals(0L, g.region() & (Point.of("a1").bit() | Point.of("h8").bit()));
+        
+        // 4x6 盤は b3 から g6 の範囲に埋め込まれる。
+        assertEquals(Point.of("b3").ordinal(), Geometry.of(4, 6).bit(0));
+    }
+    
+    @Test
+    void testRay() {
+        Geometry g = Geometry.of(10, 10);
+        
+        // 左上隅からは、右・右下・下の3方向にだけマスが並ぶ。
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 }, g.ray(0, Direction.RIGHT.ordinal()));
+        assertArrayEquals(new int[] { 11, 22, 33, 44, 55, 66, 77, 88, 99 }, g.ray(0, Direction.LOWER_RIGHT.ordinal()));
+        assertEquals(9, g.ray(0, Direction.LOWER.ordinal()).length);
+        assertEquals(0, g.ray(0, Direction.LEFT.ordinal()).length);
+        assertEquals(0, g.ray(0, Direction.UPPER_RIGHT.ordinal()).length);
+        
+        // 石を挟み得ない（2マス以上並ばない）方向は空とする。
+        assertEquals(0, g.ray(1, Direction.LEFT.ordinal()).length);
+        assertArrayEquals(new int[] { 1, 0 }, g.ray(2, Direction.LEFT.ordinal()));
+    }
+    
+    @Test
+    void testEquals() {
+        assertEquals(Geometry.of(6, 6), Geometry.of(6, 6));
+        assertEquals(Geometry.of(6, 6).hashCode(), Geometry.of(6, 6).hashCode());
+        assertNotEquals(Geometry.of(4, 6), Geometry.of(6, 4));
+        assertNotEquals(Geometry.of(6, 6), null);
+    }
+}
@@ -0,0 +1,39 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class MoveResultTest {
+    
+    // [static members] ********************************************************
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testConstructor() {
+        Board board = Board.initBoard();
+        
+        assertDoesNotThrow(() -> new MoveResult(MoveResult.Status.APPLIED, board, true));
+        assertDoesNotThrow(() -> new MoveResult(MoveResult.Status.ILLEGAL, board, false));
+        assertDoesNotThrow(() -> new MoveResult(MoveResult.Status.GAME_OVER, board, false));
+        
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new MoveResult(MoveResult.Status.ILLEGAL, board, true));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new MoveResult(MoveResult.Status.GAME_OVER, board, true));
+        assertThrows(NullPointerException.class, () -> new MoveResult(null, board, false));
+        assertThrows(NullPointerException.class, () -> new MoveResult(MoveResult.Status.APPLIED, null, false));
+    }
+    
+    @Test
+    void testIsApplied() {
+        Board board = Board.initBoard();
+        
+        assertTrue(new MoveResult(MoveResult.Status.APPLIED, board, false).isApplied());
+        assertTrue(new MoveResult(MoveResult.Status.GAME_OVER, board, false).isApplied());
+        assertFalse(new MoveResult(MoveResult.Status.ILLEGAL, board, false).isApplied());
+    }
+}
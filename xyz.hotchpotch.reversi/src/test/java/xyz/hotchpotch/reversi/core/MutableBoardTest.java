@@ -0,0 +1,184 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class MutableBoardTest {
+    
+    // [static members] ********************************************************
+    
+    private static final Map<Point, Color> linedMap = Map.of(
+            Point.of(1, 0), Color.WHITE,
+            Point.of(1, 1), Color.WHITE,
+            Point.of(1, 2), Color.WHITE,
+            Point.of(1, 3), Color.WHITE,
+            Point.of(1, 4), Color.WHITE,
+            Point.of(1, 5), Color.WHITE,
+            Point.of(1, 6), Color.WHITE,
+            Point.of(1, 7), Color.WHITE);
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testConstructor() {
+        assertEquals(new BitBoard().toString(), new MutableBoard().toString());
+        assertEquals(new BoardImpl(linedMap).toString(), new MutableBoard(new BoardImpl(linedMap)).toString());
+        assertEquals(0, new MutableBoard().depth());
+        
+        assertThrows(NullPointerException.class, () -> new MutableBoard(null));
+    }
+    
+    @Test
+    void testApplyAndUndo() {
+        Random random = new Random(0);
+        
+        for (int n = 0; n < 100; n++) {
+            MutableBoard testee = new MutableBoard();
+            List<Board> history = new ArrayList<>();
+            Board expected = Board.initBoard();
+            Color color = Color.BLACK;
+            
+            // ランダムな手でゲーム終了まで進める。
+            while (Rule.isGameOngoing(expected)) {
+                List<Point> availables = new ArrayList<>();
+                for (Point p : Point.values()) {
+                    if (Rule.canPutAt(expected, color, p)) {
+                        availables.add(p);
+                    }
+                }
+                Move move = new Move(color, availables.isEmpty()
+                        ? null
+                        : availables.get(random.nextInt(availables.size())));
+                
+                history.add(expected);
+                expected = expected.getApplied(move);
+                testee.apply(move);
+                
+                assertEquals(expected, testee);
+                assertEquals(expected.zobristKey(), testee.zobristKey());
+                assertEquals(expected.counts(), testee.counts());
+                assertEquals(expected.empties(), testee.empties());
+                assertEquals(expected.discDifference(color), testee.discDifference(color));
+                assertEquals(history.size(), testee.depth());
+                color = color.reversed();
+            }
+            
+            // 全ての手を取り消して開始時の状態に戻る。
+            while (!history.isEmpty()) {
+                testee.undo();
+                Board prev = history.remove(history.size() - 1);
+                
+                assertEquals(prev, testee);
+                assertEquals(prev.zobristKey(), testee.zobristKey());
+            }
+            assertEquals(0, testee.depth());
+        }
+    }
+    
+    @Test
+    void testApply() {
+        MutableBoard testee = new MutableBoard();
+        
+        assertThrows(NullPointerException.class, () -> testee.apply(null));
+        
+        // ルール違反
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> testee.apply(new Move(Color.BLACK, Point.of("a1"))));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> testee.apply(new Move(Color.BLACK, Point.of("d4"))));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> testee.apply(new Move(Color.BLACK, null)));
+        assertEquals(Board.initBoard(), testee);
+        assertEquals(0, testee.depth());
+        
+        // パスは石の配置を変えない。
+        MutableBoard testee2 = new MutableBoard(new BoardImpl(linedMap));
+        testee2.apply(new Move(Color.BLACK, null));
+        assertEquals(new BoardImpl(linedMap), testee2);
+        assertEquals(1, testee2.depth());
+        testee2.undo();
+        assertEquals(new BoardImpl(linedMap), testee2);
+    }
+    
+    @Test
+    void testApplyChildren() {
+        Random random = new Random(0);
+        MutableBoard testee = new MutableBoard();
+        Board expected = Board.initBoard();
+        Color color = Color.BLACK;
+        Children children = new Children();
+        
+        while (Rule.isGameOngoing(expected)) {
+            testee.children(color, children);
+            if (children.size() == 0) {
+                testee.apply(new Move(color, null));
+                
+            } else {
+                int n = random.nextInt(children.size());
+                expected = expected.getApplied(children.move(n));
+                testee.apply(children, n);
+                
+                // 適用後のリバーシ盤から展開されたものではないため、再度適用することはできない。
+                assertThrows(IllegalArgumentException.class, () -> testee.apply(children, n));
+            }
+            assertEquals(expected, testee);
+            assertEquals(expected.zobristKey(), testee.zobristKey());
+            color = color.reversed();
+        }
+        
+        int depth = testee.depth();
+        while (0 < testee.depth()) {
+            testee.undo();
+        }
+        assertEquals(Board.initBoard(), testee);
+        assertTrue(0 < depth);
+        
+        assertThrows(NullPointerException.class, () -> testee.apply(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> testee.apply(new Children(), 0));
+        assertThrows(
+                IndexOutOfBoundsException.class,
+                () -> testee.apply(testee.children(Color.BLACK), 4));
+    }
+    
+    @Test
+    void testUndo() {
+        MutableBoard testee = new MutableBoard();
+        
+        assertThrows(IllegalStateException.class, () -> testee.undo());
+        
+        testee.apply(new Move(Color.BLACK, Point.of("d3")));
+        testee.undo();
+        assertThrows(IllegalStateException.class, () -> testee.undo());
+    }
+    
+    @Test
+    void testGetApplied() {
+        MutableBoard testee = new MutableBoard();
+        Move move = new Move(Color.BLACK, Point.of("d3"));
+        
+        Board next = testee.getApplied(move);
+        
+        assertEquals(Board.initBoard().getApplied(move), next);
+        assertEquals(Board.initBoard(), testee);
+        assertFalse(next instanceof MutableBoard);
+    }
+    
+    @Test
+    void testRule() {
+        MutableBoard testee = new MutableBoard();
+        
+        assertTrue(Rule.isGameOngoing(testee));
+        assertTrue(Rule.canPutAt(testee, Color.BLACK, Point.of("d3")));
+        assertFalse(Rule.canPutAt(testee, Color.BLACK, Point.of("e3")));
+        assertEquals(1L << Point.of("d4").ordinal(), Rule.flips(testee, new Move(Color.BLACK, Point.of("d3"))));
+    }
+}
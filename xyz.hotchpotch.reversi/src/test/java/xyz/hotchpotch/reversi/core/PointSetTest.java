@@ -0,0 +1,116 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class PointSetTest {
+    
+    // [static members] ********************************************************
+    
+    private static final Point a1 = Point.of("a1");
+    private static final Point d4 = Point.of("d4");
+    private static final Point h8 = Point.of("h8");
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testConstructor() {
+        assertTrue(new PointSet().isEmpty());
+        assertEquals(a1.bit() | h8.bit(), new PointSet(List.of(h8, a1)).mask());
+        assertEquals(-1L, new PointSet(PointSet.ofMask(-1L)).mask());
+        
+        assertThrows(NullPointerException.class, () -> new PointSet(null));
+        assertThrows(NullPointerException.class, () -> new PointSet(Arrays.asList(a1, null)));
+    }
+    
+    @Test
+    void testOfMask() {
+        assertEquals(0L, PointSet.ofMask(0L).mask());
+        assertEquals(0x8000_0000_0000_0011L, PointSet.ofMask(0x8000_0000_0000_0011L).mask());
+        assertEquals(64, PointSet.ofMask(-1L).size());
+    }
+    
+    @Test
+    void testContainsAddRemove() {
+        PointSet testee = new PointSet();
+        
+        assertTrue(testee.add(d4));
+        assertFalse(testee.add(d4));
+        assertTrue(testee.contains(d4));
+        assertFalse(testee.contains(a1));
+        assertFalse(testee.contains("d4"));
+        assertFalse(testee.contains(null));
+        assertEquals(1, testee.size());
+        
+        assertFalse(testee.remove(a1));
+        assertFalse(testee.remove(null));
+        assertTrue(testee.remove(d4));
+        assertTrue(testee.isEmpty());
+        
+        assertThrows(NullPointerException.class, () -> testee.add(null));
+    }
+    
+    @Test
+    void testIterator() {
+        PointSet testee = PointSet.ofMask(h8.bit() | d4.bit() | a1.bit());
+        
+        assertEquals(List.of(a1, d4, h8), List.copyOf(testee));
+        
+        Iterator<Point> itr = testee.iterator();
+        assertThrows(IllegalStateException.class, () -> itr.remove());
+        assertSame(a1, itr.next());
+        itr.remove();
+        assertThrows(IllegalStateException.class, () -> itr.remove());
+        assertSame(d4, itr.next());
+        assertSame(h8, itr.next());
+        assertFalse(itr.hasNext());
+        assertThrows(NoSuchElementException.class, () -> itr.next());
+        
+        assertEquals(d4.bit() | h8.bit(), testee.mask());
+    }
+    
+    @Test
+    void testBulkOperations() {
+        PointSet testee = PointSet.ofMask(a1.bit() | d4.bit());
+        
+        assertTrue(testee.containsAll(List.of(a1)));
+        assertTrue(testee.containsAll(PointSet.ofMask(d4.bit())));
+        assertFalse(testee.containsAll(PointSet.ofMask(h8.bit())));
+        
+        assertTrue(testee.addAll(List.of(h8)));
+        assertFalse(testee.addAll(PointSet.ofMask(h8.bit())));
+        assertTrue(testee.removeAll(PointSet.ofMask(a1.bit())));
+        assertTrue(testee.retainAll(Set.of(h8)));
+        assertEquals(h8.bit(), testee.mask());
+        assertThrows(NullPointerException.class, () -> testee.addAll(Arrays.asList(a1, null)));
+        
+        testee.clear();
+        assertTrue(testee.isEmpty());
+    }
+    
+    @Test
+    void testEqualsAndHashCode() {
+        Random random = new Random(0);
+        
+        for (int n = 0; n < 100; n++) {
+            long mask = random.nextLong();
+            PointSet testee = PointSet.ofMask(mask);
+            Set<Point> expected = new HashSet<>(Point.pointsOf(mask));
+            
+            assertEquals(expected, testee);
+            assertEquals(testee, expected);
+            assertEquals(PointSet.ofMask(mask), testee);
+            assertEquals(expected.hashCode(), testee.hashCode());
+            assertNotEquals(PointSet.ofMask(~mask), testee);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package xyz.hotchpotch.reversi.core;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -86,6 +87,78 @@ class PointTest {
         }
     }
     
+    @Test
+    void testOfOrdinal() {
+        assertThrows(IndexOutOfBoundsException.class, () -> Point.ofOrdinal(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> Point.ofOrdinal(Point.HEIGHT * Point.WIDTH));
+        
+        Point[] values = Point.values();
+        for (int n = 0; n < values.length; n++) {
+            assertSame(values[n], Point.ofOrdinal(n));
+        }
+    }
+    
+    @Test
+    void testOrdinal() {
+        assertEquals(0, Point.of("a1").ordinal());
+        assertEquals(7, Point.of("h1").ordinal());
+        assertEquals(8, Point.of("a2").ordinal());
+        assertEquals(63, Point.of("h8").ordinal());
+        
+        for (Point p : Point.values()) {
+            assertEquals(p.i() * Point.WIDTH + p.j(), p.ordinal());
+        }
+    }
+    
+    @Test
+    void testBit() {
+        assertEquals(1L, Point.of("a1").bit());
+        assertEquals(Long.MIN_VALUE, Point.of("h8").bit());
+        
+        for (Point p : Point.values()) {
+            assertEquals(1L << p.ordinal(), p.bit());
+        }
+    }
+    
+    @Test
+    void testPointsOf() {
+        assertEquals(List.of(), Point.pointsOf(0L));
+        assertEquals(
+                List.of(Point.of("a1"), Point.of("e1"), Point.of("h8")),
+                Point.pointsOf(0x8000_0000_0000_0011L));
+        assertEquals(List.of(Point.values()), Point.pointsOf(-1L));
+        
+        assertThrows(UnsupportedOperationException.class, () -> Point.pointsOf(1L).clear());
+    }
+    
+    @Test
+    void testMaskOf() {
+        assertEquals(0L, Point.maskOf(List.of()));
+        assertEquals(
+                0x8000_0000_0000_0011L,
+                Point.maskOf(List.of(Point.of("h8"), Point.of("a1"), Point.of("e1"))));
+        assertEquals(-1L, Point.maskOf(List.of(Point.values())));
+        
+        for (long mask : new long[] { 0x0123_4567_89AB_CDEFL, 0xFEDC_BA98_7654_3210L }) {
+            assertEquals(mask, Point.maskOf(Point.pointsOf(mask)));
+        }
+        
+        assertThrows(NullPointerException.class, () -> Point.maskOf(null));
+    }
+    
+    @Test
+    void testToOrdinals() {
+        int[] ordinals = new int[Point.HEIGHT * Point.WIDTH];
+        
+        assertEquals(0, Point.toOrdinals(0L, ordinals));
+        assertEquals(3, Point.toOrdinals(0x8000_0000_0000_0011L, ordinals));
+        assertArrayEquals(new int[] { 0, 4, 63 }, Arrays.copyOf(ordinals, 3));
+        assertEquals(64, Point.toOrdinals(-1L, ordinals));
+        
+        assertThrows(NullPointerException.class, () -> Point.toOrdinals(0L, null));
+        assertThrows(IndexOutOfBoundsException.class, () -> Point.toOrdinals(0b111L, new int[2]));
+    }
+    
     @Test
     void testHasNext() {
         for (int i = 0; i < Point.HEIGHT; i++) {
@@ -125,6 +198,63 @@ class PointTest {
         }
     }
     
+    @Test
+    void testRay() {
+        assertEquals(List.of(), Point.of("a1").ray(Direction.UPPER));
+        assertEquals(
+                List.of(Point.of("b2"), Point.of("c3"), Point.of("d4"), Point.of("e5"), Point.of("f6"),
+                        Point.of("g7"), Point.of("h8")),
+                Point.of("a1").ray(Direction.LOWER_RIGHT));
+        
+        for (Point p : Point.values()) {
+            assertThrows(NullPointerException.class, () -> p.ray(null));
+            
+            for (Direction direction : Direction.values()) {
+                List<Point> ray = p.ray(direction);
+                Point q = p;
+                
+                for (Point r : ray) {
+                    q = q.next(direction);
+                    assertSame(q, r);
+                }
+                assertFalse(q.hasNext(direction));
+                assertThrows(UnsupportedOperationException.class, () -> ray.add(p));
+            }
+        }
+    }
+    
+    @Test
+    void testRayMask() {
+        for (Point p : Point.values()) {
+            assertThrows(NullPointerException.class, () -> p.rayMask(null));
+            
+            for (Direction direction : Direction.values()) {
+                long expected = 0L;
+                for (Point q : p.ray(direction)) {
+                    expected |= 1L << (Point.WIDTH * q.i() + q.j());
+                }
+                assertEquals(expected, p.rayMask(direction));
+            }
+        }
+    }
+    
+    @Test
+    void testNeighbourMask() {
+        assertEquals(
+                (1L << Point.of("b1").ordinal()) | (1L << Point.of("a2").ordinal()) | (1L << Point.of("b2").ordinal()),
+                Point.of("a1").neighbourMask());
+        
+        for (Point p : Point.values()) {
+            long expected = 0L;
+            for (Direction direction : Direction.values()) {
+                if (p.hasNext(direction)) {
+                    expected |= 1L << p.next(direction).ordinal();
+                }
+            }
+            assertEquals(expected, p.neighbourMask());
+        }
+    }
+    
     @Test
     void testToString() {
         assertEquals("a1", Point.of(0, 0).toString());
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -37,6 +38,10 @@ class RuleTest {
         assertFalse(Rule.isGameOngoing(new BoardImpl(allBlack)));
         assertFalse(Rule.isGameOngoing(new BoardImpl(allEmpty)));
         
+        assertTrue(Rule.isGameOngoing(new BitBoard()));
+        assertFalse(Rule.isGameOngoing(new BitBoard(new BoardImpl(allBlack))));
+        assertFalse(Rule.isGameOngoing(new BitBoard(new BoardImpl(allEmpty))));
+        
         assertThrows(NullPointerException.class, () -> Rule.isGameOngoing(null));
     }
     
@@ -56,6 +61,8 @@ class RuleTest {
         assertTrue(Rule.canPut(new BoardImpl(), Color.WHITE));
         assertFalse(Rule.canPut(new BoardImpl(allBlack), Color.BLACK));
         assertFalse(Rule.canPut(new BoardImpl(allBlack), Color.WHITE));
+        assertTrue(Rule.canPut(new BitBoard(), Color.BLACK));
+        assertFalse(Rule.canPut(new BitBoard(new BoardImpl(allBlack)), Color.WHITE));
         
         assertThrows(NullPointerException.class, () -> Rule.canPut(null, Color.BLACK));
         assertThrows(NullPointerException.class, () -> Rule.canPut(new BoardImpl(), null));
@@ -64,12 +71,15 @@ class RuleTest {
     @Test
     void testCanPutAt() {
         Board testBoard = new BoardImpl();
+        Board testBitBoard = new BitBoard();
         
         for (Point p : Point.values()) {
             if (List.of("e3", "f4", "c5", "d6").contains(p.pos())) {
                 assertTrue(Rule.canPutAt(testBoard, Color.WHITE, p));
+                assertTrue(Rule.canPutAt(testBitBoard, Color.WHITE, p));
             } else {
                 assertFalse(Rule.canPutAt(testBoard, Color.WHITE, p));
+                assertFalse(Rule.canPutAt(testBitBoard, Color.WHITE, p));
             }
         }
         
@@ -94,6 +104,59 @@ class RuleTest {
         assertFalse(Rule.canApply(testBoard2, new Move(Color.WHITE, Point.of("h8"))));
     }
     
+    @Test
+    void testApply() {
+        Random random = new Random(0);
+        
+        for (int n = 0; n < 50; n++) {
+            Board board = n % 2 == 0 ? new BitBoard() : new BoardImpl();
+            Color color = Color.BLACK;
+            
+            while (Rule.isGameOngoing(board)) {
+                // 全ての位置とパスについて、従来の手順による結果と比較する。
+                for (Point p : Point.values()) {
+                    Move move = new Move(color, p);
+                    MoveResult result = Rule.apply(board, move);
+                    
+                    if (Rule.canApply(board, move)) {
+                        Board expected = board.getApplied(move);
+                        assertEquals(expected, result.board());
+                        assertEquals(expected.zobristKey(), result.board().zobristKey());
+                        assertEquals(
+                                Rule.isGameOngoing(expected) ? MoveResult.Status.APPLIED : MoveResult.Status.GAME_OVER,
+                                result.status());
+                        assertEquals(
+                                Rule.isGameOngoing(expected) && !Rule.canPut(expected, color.reversed()),
+                                result.opponentMustPass());
+                    } else {
+                        assertSame(MoveResult.Status.ILLEGAL, result.status());
+                        assertSame(board, result.board());
+                        assertFalse(result.isApplied());
+                    }
+                }
+                
+                MoveResult pass = Rule.apply(board, new Move(color, null));
+                assertEquals(Rule.canPut(board, color), !pass.isApplied());
+                assertSame(board, pass.board());
+                
+                long puttables = Rule.puttables(board, color);
+                Point point = puttables == 0
+                        ? null
+                        : Point.pointsOf(puttables).get(random.nextInt(Long.bitCount(puttables)));
+                board = Rule.apply(board, new Move(color, point)).board();
+                color = color.reversed();
+            }
+            
+            // ゲーム終了後は、パスのみが適用可能でありゲーム終了状態のままとなる。
+            MoveResult result = Rule.apply(board, new Move(color, null));
+            assertSame(MoveResult.Status.GAME_OVER, result.status());
+            assertSame(board, result.board());
+        }
+        
+        assertThrows(NullPointerException.class, () -> Rule.apply(null, new Move(Color.BLACK, null)));
+        assertThrows(NullPointerException.class, () -> Rule.apply(new BitBoard(), null));
+    }
+    
     @Test
     void testReversibles() {
         Board testBoard = new BoardImpl();
@@ -102,6 +165,9 @@ class RuleTest {
         assertEquals(
                 Set.of(Point.of("d4")),
                 Rule.reversibles(testBoard, move));
+        assertEquals(
+                Point.of("d4").bit(),
+                Rule.reversibles(new BitBoard(), move).mask());
         
         assertThrows(NullPointerException.class, () -> Rule.reversibles(null, move));
         assertThrows(NullPointerException.class, () -> Rule.reversibles(testBoard, null));
@@ -113,4 +179,61 @@ class RuleTest {
                 IllegalArgumentException.class,
                 () -> Rule.reversibles(testBoard, new Move(Color.BLACK, null)));
     }
+    
+    @Test
+    void testFlips() {
+        Board testBoard = new BoardImpl();
+        Board testBitBoard = new BitBoard();
+        Move move = new Move(Color.BLACK, Point.of("d3"));
+        long d4 = 1L << Point.of("d4").ordinal();
+        
+        assertEquals(d4, Rule.flips(testBoard, move));
+        assertEquals(d4, Rule.flips(testBitBoard, move));
+        
+        // 石を置けない手とパスに対しては 0 を返す。
+        assertEquals(0L, Rule.flips(testBoard, new Move(Color.WHITE, Point.of("d3"))));
+        assertEquals(0L, Rule.flips(testBitBoard, new Move(Color.WHITE, Point.of("d3"))));
+        assertEquals(0L, Rule.flips(testBoard, new Move(Color.BLACK, Point.of("d4"))));
+        assertEquals(0L, Rule.flips(testBitBoard, new Move(Color.BLACK, Point.of("d4"))));
+        assertEquals(0L, Rule.flips(testBoard, new Move(Color.BLACK, null)));
+        assertEquals(0L, Rule.flips(testBitBoard, new Move(Color.BLACK, null)));
+        
+        assertThrows(NullPointerException.class, () -> Rule.flips(null, move));
+        assertThrows(NullPointerException.class, () -> Rule.flips(testBoard, null));
+        
+        // マスクを直接受け取るもの
+        long black = testBitBoard.mask(Color.BLACK);
+        long white = testBitBoard.mask(Color.WHITE);
+        assertEquals(d4, Rule.flips(black, white, Point.of("d3").ordinal()));
+        assertEquals(0L, Rule.flips(white, black, Point.of("d3").ordinal()));
+        assertThrows(IndexOutOfBoundsException.class, () -> Rule.flips(black, white, -1));
+        assertThrows(IndexOutOfBoundsException.class, () -> Rule.flips(black, white, 64));
+    }
+    
+    @Test
+    void testPuttables() {
+        long expected = 0L;
+        for (String pos : List.of("e3", "f4", "c5", "d6")) {
+            expected |= 1L << Point.of(pos).ordinal();
+        }
+        
+        assertEquals(expected, Rule.puttables(new BoardImpl(), Color.WHITE));
+        assertEquals(expected, Rule.puttables(new BitBoard(), Color.WHITE));
+        assertEquals(0L, Rule.puttables(new BoardImpl(allBlack), Color.WHITE));
+        assertEquals(expected, Rule.puttables(
+                new BitBoard().mask(Color.WHITE), new BitBoard().mask(Color.BLACK)));
+        
+        int[] ordinals = new int[Point.HEIGHT * Point.WIDTH];
+        assertEquals(4, Rule.puttables(new BitBoard(), Color.WHITE, ordinals));
+        assertEquals(Point.of("e3"), Point.ofOrdinal(ordinals[0]));
+        assertEquals(Point.of("f4"), Point.ofOrdinal(ordinals[1]));
+        assertEquals(Point.of("c5"), Point.ofOrdinal(ordinals[2]));
+        assertEquals(Point.of("d6"), Point.ofOrdinal(ordinals[3]));
+        assertEquals(0, Rule.puttables(new BoardImpl(allEmpty), Color.WHITE, ordinals));
+        
+        assertThrows(NullPointerException.class, () -> Rule.puttables(null, Color.BLACK));
+        assertThrows(NullPointerException.class, () -> Rule.puttables(new BitBoard(), null));
+        assertThrows(NullPointerException.class, () -> Rule.puttables(new BitBoard(), Color.BLACK, null));
+        assertThrows(IndexOutOfBoundsException.class, () -> Rule.puttables(new BitBoard(), Color.BLACK, new int[3]));
+    }
 }
@@ -0,0 +1,173 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class SymmetryTest {
+    
+    // [static members] ********************************************************
+    
+    /** 指定された変換を、位置ごとに施したマスクを返します。 */
+    private static long applyByPoints(Symmetry symmetry, long mask) {
+        long result = 0L;
+        for (Point p : Point.pointsOf(mask)) {
+            result |= symmetry.apply(p).bit();
+        }
+        return result;
+    }
+    
+    /** 初期配置からランダムな手を指定された数だけ進めたリバーシ盤を返します。 */
+    private static Board randomBoard(Random random, int moves) {
+        Board board = Board.initBoard();
+        Color color = Color.BLACK;
+        for (int n = 0; n < moves && Rule.isGameOngoing(board); n++) {
+            long puttables = Rule.puttables(board, color);
+            Point point = null;
+            if (puttables != 0) {
+                point = Point.pointsOf(puttables).get(random.nextInt(Long.bitCount(puttables)));
+            }
+            board = board.getApplied(new Move(color, point));
+            color = color.reversed();
+        }
+        return board;
+    }
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testApplyPoint() {
+        assertSame(Point.of("a1"), Symmetry.IDENTITY.apply(Point.of("a1")));
+        assertSame(Point.of("h1"), Symmetry.ROTATE_90.apply(Point.of("a1")));
+        assertSame(Point.of("h8"), Symmetry.ROTATE_180.apply(Point.of("a1")));
+        assertSame(Point.of("a8"), Symmetry.ROTATE_270.apply(Point.of("a1")));
+        assertSame(Point.of("h1"), Symmetry.FLIP_HORIZONTAL.apply(Point.of("a1")));
+        assertSame(Point.of("a8"), Symmetry.FLIP_VERTICAL.apply(Point.of("a1")));
+        assertSame(Point.of("a2"), Symmetry.FLIP_DIAGONAL.apply(Point.of("b1")));
+        assertSame(Point.of("h7"), Symmetry.FLIP_ANTI_DIAGONAL.apply(Point.of("b1")));
+        
+        for (Symmetry s : Symmetry.values()) {
+            Set<Point> images = new HashSet<>();
+            for (Point p : Point.values()) {
+                assertSame(p, s.inverse().apply(s.apply(p)));
+                images.add(s.apply(p));
+            }
+            assertEquals(Point.HEIGHT * Point.WIDTH, images.size());
+        }
+        
+        assertThrows(NullPointerException.class, () -> Symmetry.ROTATE_90.apply((Point) null));
+    }
+    
+    @Test
+    void testApplyMask() {
+        Random random = new Random(0);
+        
+        for (Symmetry s : Symmetry.values()) {
+            for (Point p : Point.values()) {
+                assertEquals(s.apply(p).bit(), s.apply(p.bit()));
+            }
+            for (int n = 0; n < 100; n++) {
+                long mask = random.nextLong();
+                assertEquals(applyByPoints(s, mask), s.apply(mask));
+                assertEquals(mask, s.inverse().apply(s.apply(mask)));
+            }
+        }
+    }
+    
+    @Test
+    void testApplyBoard() {
+        Random random = new Random(0);
+        
+        for (int n = 0; n < 100; n++) {
+            Board board = randomBoard(random, random.nextInt(60));
+            
+            for (Symmetry s : Symmetry.values()) {
+                Board transformed = s.apply(board);
+                
+                for (Point p : Point.values()) {
+                    assertSame(board.colorAt(p), transformed.colorAt(s.apply(p)));
+                }
+                assertEquals(
+                        s.apply(Rule.puttables(board, Color.BLACK)),
+                        Rule.puttables(transformed, Color.BLACK));
+            }
+        }
+        
+        assertThrows(NullPointerException.class, () -> Symmetry.IDENTITY.apply((Board) null));
+    }
+    
+    @Test
+    void testCanonical() {
+        Random random = new Random(0);
+        
+        for (int n = 0; n < 100; n++) {
+            Board board = randomBoard(random, random.nextInt(60));
+            Symmetry.Canonical expected = Symmetry.canonical(board);
+            
+            assertEquals(expected.symmetry().apply(board), expected.board());
+            
+            for (Symmetry s : Symmetry.values()) {
+                Symmetry.Canonical actual = Symmetry.canonical(s.apply(board));
+                
+                assertEquals(expected.board(), actual.board());
+                assertEquals(expected.key(), actual.key());
+                
+                for (Point p : Point.values()) {
+                    Point q = s.apply(p);
+                    assertSame(board.colorAt(p), actual.board().colorAt(actual.toCanonical(q)));
+                    assertSame(q, actual.toOriginal(actual.toCanonical(q)));
+                }
+            }
+        }
+        
+        assertThrows(NullPointerException.class, () -> Symmetry.canonical(null));
+    }
+    
+    @Test
+    void testDistinct() {
+        Board init = Board.initBoard();
+        
+        // 初期配置での黒の4つの着手は互いに対称である。
+        assertEquals(
+                Point.of("d3").bit(),
+                Symmetry.distinct(init, Rule.puttables(init, Color.BLACK)));
+        
+        assertEquals(
+                Point.of("e3").bit(),
+                Symmetry.distinct(init, Rule.puttables(init, Color.WHITE)));
+        
+        // 対称性を持たない局面では何も取り除かない。
+        Board next = init.getApplied(new Move(Color.BLACK, Point.of("d3")));
+        long puttables = Rule.puttables(next, Color.WHITE);
+        assertEquals(puttables, Symmetry.distinct(next, puttables));
+        
+        // a1-h8 の対角線に関してのみ対称な配置では、対角線を挟んで移り合う位置の一方を取り除く。
+        Board sym = new BitBoard(
+                Point.of("d5").bit() | Point.of("e4").bit() | Point.of("c3").bit(),
+                Point.of("d4").bit() | Point.of("e5").bit());
+        assertEquals(
+                Point.maskOf(List.of(Point.of("b2"), Point.of("e3"), Point.of("f4"))),
+                Symmetry.distinct(sym, Rule.puttables(sym, Color.WHITE)));
+        
+        // 取り除かれた位置は、残された位置のいずれかと局面を不変に保つ変換によって移り合う。
+        for (Symmetry s : Symmetry.values()) {
+            Board transformed = s.apply(sym);
+            long mask = Rule.puttables(transformed, Color.WHITE);
+            long distinct = Symmetry.distinct(transformed, mask);
+            
+            assertEquals(mask, distinct | mask);
+            for (Point p : Point.pointsOf(mask & ~distinct)) {
+                assertTrue(Symmetry.stream()
+                        .filter(t -> t.apply(transformed).equals(transformed))
+                        .anyMatch(t -> (distinct & t.apply(p).bit()) != 0));
+            }
+        }
+        
+        assertThrows(NullPointerException.class, () -> Symmetry.distinct(null, 0L));
+    }
+}
@@ -0,0 +1,202 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import xyz.hotchpotch.reversi.core.TranspositionTable.Bound;
+
+class TranspositionTableTest {
+    
+    // [static members] ********************************************************
+    
+    /** バケット1つだけの置換表で衝突させるためのキー（下位ビットは無視される） */
+    private static final long A = 0x1111_0000_0000_0000L;
+    private static final long B = 0x2222_0000_0000_0000L;
+    private static final long C = 0x3333_0000_0000_0000L;
+    private static final long D = 0x4444_0000_0000_0000L;
+    private static final long E = 0x5555_0000_0000_0000L;
+    
+    /** システムプロパティを元の値に戻します。 */
+    private static void restore(String key, String value) {
+        if (value == null) {
+            System.clearProperty(key);
+        } else {
+            System.setProperty(key, value);
+        }
+    }
+    
+    /** Java ヒープ上の置換表と、利用できる場合はヒープ外の置換表を返します。 */
+    private static List<TranspositionTable> tables(long bytes) {
+        List<TranspositionTable> tables = new ArrayList<>();
+        tables.add(TranspositionTable.onHeap(bytes));
+        if (TranspositionTable.isOffHeapSupported()) {
+            tables.add(TranspositionTable.offHeap(bytes));
+        }
+        return tables;
+    }
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testStoreAndProbe() {
+        for (TranspositionTable testee : tables(1 << 16)) {
+            
+            long key = 0x0123_4567_89AB_CDEFL;
+            assertEquals(0L, testee.probe(key));
+            
+            testee.store(key, 63, -1_000_064, Bound.LOWER, 12);
+            long entry = testee.probe(key);
+            assertEquals(63, TranspositionTable.move(entry));
+            assertEquals(-1_000_064, TranspositionTable.score(entry));
+            assertEquals(Bound.LOWER, TranspositionTable.bound(entry));
+            assertEquals(12, TranspositionTable.depth(entry));
+            
+            // 最善手が無い場合は、記録済みの最善手を引き継ぐ。
+            testee.store(key, -1, 7, Bound.UPPER, 300);
+            entry = testee.probe(key);
+            assertEquals(63, TranspositionTable.move(entry));
+            assertEquals(7, TranspositionTable.score(entry));
+            assertEquals(Bound.UPPER, TranspositionTable.bound(entry));
+            assertEquals(255, TranspositionTable.depth(entry));
+            
+            assertEquals(0L, testee.probe(key ^ 1L << 63));
+            
+            testee.clear();
+            assertEquals(0L, testee.probe(key));
+        }
+    }
+    
+    @Test
+    void testReplacement() {
+        TranspositionTable testee = TranspositionTable.onHeap(32);
+        assertEquals(2, testee.capacity());
+        
+        // 深さ優先のエントリより浅い結果は、常に置き換えるエントリに格納される。
+        testee.store(A, 0, 1, Bound.EXACT, 5);
+        testee.store(B, 1, 2, Bound.EXACT, 3);
+        assertNotEquals(0L, testee.probe(A));
+        assertNotEquals(0L, testee.probe(B));
+        
+        testee.store(C, 2, 3, Bound.EXACT, 2);
+        assertNotEquals(0L, testee.probe(A));
+        assertEquals(0L, testee.probe(B));
+        assertNotEquals(0L, testee.probe(C));
+        
+        // 深い結果は深さ優先のエントリを置き換え、元の結果は常に置き換えるエントリに移される。
+        testee.store(D, 3, 4, Bound.EXACT, 6);
+        assertNotEquals(0L, testee.probe(A));
+        assertEquals(0L, testee.probe(C));
+        assertNotEquals(0L, testee.probe(D));
+        
+        // 以前の探索の結果は、深さに関わらず置き換えられる。
+        testee.newSearch();
+        testee.store(E, 4, 5, Bound.EXACT, 1);
+        assertEquals(0L, testee.probe(A));
+        assertNotEquals(0L, testee.probe(D));
+        assertEquals(4, TranspositionTable.move(testee.probe(E)));
+    }
+    
+    @Test
+    void testKey() {
+        Board board = Board.initBoard();
+        
+        assertEquals(board.zobristKey(), TranspositionTable.key(board, Color.BLACK));
+        assertNotEquals(TranspositionTable.key(board, Color.BLACK), TranspositionTable.key(board, Color.WHITE));
+        assertEquals(TranspositionTable.key(board, Color.WHITE), TranspositionTable.key(new MutableBoard(board), Color.WHITE));
+        
+        assertThrows(NullPointerException.class, () -> TranspositionTable.key(null, Color.BLACK));
+        assertThrows(NullPointerException.class, () -> TranspositionTable.key(board, null));
+    }
+    
+    @Test
+    void testSize() {
+        assertEquals(1 << 20, TranspositionTable.onHeap(TranspositionTable.DEFAULT_BYTES).capacity());
+        assertEquals(4, TranspositionTable.onHeap(100).capacity());
+        assertFalse(TranspositionTable.onHeap(100).isOffHeap());
+        
+        assertThrows(IllegalArgumentException.class, () -> TranspositionTable.onHeap(31));
+        assertThrows(IllegalArgumentException.class, () -> TranspositionTable.offHeap(-1));
+        assertThrows(IllegalArgumentException.class, () -> TranspositionTable.onHeap(1L << 40));
+        
+        if (TranspositionTable.isOffHeapSupported()) {
+            assertTrue(TranspositionTable.offHeap(100).isOffHeap());
+        } else {
+            assertThrows(UnsupportedOperationException.class, () -> TranspositionTable.offHeap(100));
+        }
+    }
+    
+    @Test
+    void testParseSize() {
+        assertEquals(100, TranspositionTable.parseSize("100"));
+        assertEquals(64L << 10, TranspositionTable.parseSize("64k"));
+        assertEquals(64L << 20, TranspositionTable.parseSize(" 64M "));
+        assertEquals(2L << 30, TranspositionTable.parseSize("2g"));
+        
+        assertThrows(NullPointerException.class, () -> TranspositionTable.parseSize(null));
+        assertThrows(IllegalArgumentException.class, () -> TranspositionTable.parseSize("2t"));
+        assertThrows(IllegalArgumentException.class, () -> TranspositionTable.parseSize("-1m"));
+        assertThrows(IllegalArgumentException.class, () -> TranspositionTable.parseSize(""));
+    }
+    
+    @Test
+    void testFromProperties() {
+        String size = System.getProperty(TranspositionTable.SIZE_PROPERTY);
+        String offHeap = System.getProperty(TranspositionTable.OFF_HEAP_PROPERTY);
+        try {
+            System.clearProperty(TranspositionTable.SIZE_PROPERTY);
+            System.clearProperty(TranspositionTable.OFF_HEAP_PROPERTY);
+            assertEquals(1 << 20, TranspositionTable.fromProperties().capacity());
+            assertFalse(TranspositionTable.fromProperties().isOffHeap());
+            
+            System.setProperty(TranspositionTable.SIZE_PROPERTY, "big");
+            assertThrows(IllegalArgumentException.class, TranspositionTable::fromProperties);
+            
+            System.setProperty(TranspositionTable.SIZE_PROPERTY, "1k");
+            System.setProperty(TranspositionTable.OFF_HEAP_PROPERTY, "true");
+            if (TranspositionTable.isOffHeapSupported()) {
+                assertEquals(64, TranspositionTable.fromProperties().capacity());
+                assertTrue(TranspositionTable.fromProperties().isOffHeap());
+            } else {
+                assertThrows(UnsupportedOperationException.class, TranspositionTable::fromProperties);
+            }
+        } finally {
+            restore(TranspositionTable.SIZE_PROPERTY, size);
+            restore(TranspositionTable.OFF_HEAP_PROPERTY, offHeap);
+        }
+    }
+    
+    @Test
+    void testConcurrentAccess() {
+        for (TranspositionTable testee : tables(1 << 10)) {
+            
+            AtomicInteger hits = new AtomicInteger();
+            
+            // 小さな置換表に複数のスレッドが同時に書き込んでも、参照できたエントリは必ずキーと整合する。
+            IntStream.range(0, 4).parallel().forEach(t -> {
+                for (long n = 0; n < 200_000; n++) {
+                    long key = (n * 0x9E3779B97F4A7C15L) ^ t;
+                    testee.store(key, (int) (key >>> 58), (int) key, Bound.EXACT, (int) (key >>> 40 & 0x3F));
+                    
+                    // 他のスレッドが書き込んだエントリ（key ^ 1）も参照する。
+                    for (long k : new long[] { key, key ^ 1 }) {
+                        long entry = testee.probe(k);
+                        if (entry != 0) {
+                            assertEquals((int) (k >>> 58), TranspositionTable.move(entry));
+                            assertEquals((int) k, TranspositionTable.score(entry));
+                            assertEquals((int) (k >>> 40 & 0x3F), TranspositionTable.depth(entry));
+                            hits.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            
+            assertTrue(0 < hits.get());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package xyz.hotchpotch.reversi.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class VariantBoardTest {
+    
+    // [static members] ********************************************************
+    
+    private static final List<Geometry> GEOMETRIES = List.of(
+            Geometry.of(4, 4),
+            Geometry.of(6, 6),
+            Geometry.of(4, 8),
+            Geometry.STANDARD,
+            Geometry.of(8, 10),
+            Geometry.of(10, 10),
+            Geometry.of(8, 16));
+    
+    /** 各方向へマスを1つずつ辿って、ひっくり返る石の位置を求めます。 */
+    private static BitSet flipsByScan(VariantBoard board, Color color, int square) {
+        Geometry g = board.geometry();
+        BitSet flips = new BitSet();
+        if (board.colorAt(square) != null) {
+            return flips;
+        }
+        for (Direction d : Direction.values()) {
+            BitSet line = new BitSet();
+            int i = square / g.width() + d.di;
+            int j = square % g.width() + d.dj;
+            while (0 <= i && i < g.height() && 0 <= j && j < g.width()
+                    && board.colorAt(g.square(i, j)) == color.reversed()) {
+                line.set(g.square(i, j));
+                i += d.di;
+                j += d.dj;
+            }
+            if (0 <= i && i < g.height() && 0 <= j && j < g.width()
+                    && board.colorAt(g.square(i, j)) == color) {
+                flips.or(line);
+            }
+        }
+        return flips;
+    }
+    
+    /** 全てのマスについて {@link #flipsByScan} を求め、石を置ける位置を求めます。 */
+    private static BitSet puttablesByScan(VariantBoard board, Color color) {
+        BitSet puttables = new BitSet();
+        for (int sq = 0; sq < board.geometry().squares(); sq++) {
+            if (!flipsByScan(board, color, sq).isEmpty()) {
+                puttables.set(sq);
+            }
+        }
+        return puttables;
+    }
+    
+    // [instance members] ******************************************************
+    
+    @Test
+    void testInitial() {
+        for (Geometry g : GEOMETRIES) {
+            VariantBoard board = VariantBoard.initial(g);
+            int i = g.height() / 2 - 1;
+            int j = g.width() / 2 - 1;
+            
+            assertSame(g, board.geometry());
+            assertEquals(2, board.count(Color.BLACK));
+            assertEquals(2, board.count(Color.WHITE));
+            assertEquals(Color.WHITE, board.colorAt(g.square(i, j)));
+            assertEquals(Color.BLACK, board.colorAt(g.square(i, j + 1)));
+            assertEquals(Color.BLACK, board.colorAt(g.square(i + 1, j)));
+            assertEquals(Color.WHITE, board.colorAt(g.square(i + 1, j + 1)));
+            assertNull(board.colorAt(0));
+            assertEquals(4, board.puttables(Color.BLACK).cardinality());
+            assertTrue(board.isGameOngoing());
+            assertThrows(IllegalStateException.class, board::winner);
+        }
+        
+        assertEquals(VariantBoard.of(Board.initBoard()), VariantBoard.initial(Geometry.STANDARD));
+        assertTrue(Board.equals(Board.initBoard(), VariantBoard.initial(Geometry.STANDARD).toBoard()));
+        assertThrows(IllegalStateException.class, () -> VariantBoard.initial(Geometry.of(6, 6)).toBoard());
+        assertThrows(NullPointerException.class, () -> VariantBoard.initial(null));
+    }
+    
+    @Test
+    void testRandomGames() {
+        Random random = new Random(0);
+        
+        // 各盤面サイズについて、ビットボードによる結果を1マスずつ辿る方法による結果と突き合わせる。
+        for (Geometry g : GEOMETRIES) {
+            for (int game = 0; game < 5; game++) {
+                VariantBoard board = VariantBoard.initial(g);
+                Color color = Color.BLACK;
+                
+                while (board.isGameOngoing()) {
+                    BitSet puttables = board.puttables(color);
+                    assertEquals(puttablesByScan(board, color), puttables, g.toString());
+                    assertEquals(!puttables.isEmpty(), board.canPut(color));
+                    
+                    if (!puttables.isEmpty()) {
+                        int[] squares = puttables.stream().toArray();
+                        int sq = squares[random.nextInt(squares.length)];
+                        BitSet flips = board.flips(color, sq);
+                        assertEquals(flipsByScan(board, color, sq), flips);
+                        
+                        VariantBoard next = board.applied(color, sq);
+                        assertEquals(color, next.colorAt(sq));
+                        for (int f = flips.nextSetBit(0); 0 <= f; f = flips.nextSetBit(f + 1)) {
+                            assertEquals(color, next.colorAt(f));
+                        }
+                        assertEquals(board.count(color) + flips.cardinality() + 1, next.count(color));
+                        board = next;
+                    }
+                    color = color.reversed();
+                }
+                
+                int diff = board.count(Color.BLACK) - board.count(Color.WHITE);
+                assertEquals(diff == 0 ? null : 0 < diff ? Color.BLACK : Color.WHITE, board.winner());
+            }
+        }
+    }
+    
+    @Test
+    void testStandard() {
+        Random random = new Random(1);
+        Board board = Board.initBoard();
+        VariantBoard variant = VariantBoard.of(board);
+        Color color = Color.BLACK;
+        
+        // 標準の盤面では、Rule と同じ結果となる。
+        while (Rule.isGameOngoing(board)) {
+            long puttables = Rule.puttables(board, color);
+            assertEquals(BitSet.valueOf(new long[] { puttables }), variant.puttables(color));
+            
+            if (puttables != 0) {
+                Point p = Point.pointsOf(puttables).get(random.nextInt(Long.bitCount(puttables)));
+                assertEquals(BitSet.valueOf(new long[] { Rule.flips(board, new Move(color, p)) }),
+                        variant.flips(color, p.ordinal()));
+                board = board.getApplied(new Move(color, p));
+                variant = variant.applied(color, p.ordinal());
+                assertTrue(Board.equals(board, variant.toBoard()));
+            }
+            color = color.reversed();
+        }
+        assertEquals(Rule.winner(board), variant.winner());
+    }
+    
+    @Test
+    void testApplied() {
+        VariantBoard board = VariantBoard.initial(Geometry.of(10, 10));
+        
+        assertThrows(NullPointerException.class, () -> board.applied(null, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> board.applied(Color.BLACK, 100));
+        assertThrows(IllegalArgumentException.class, () -> board.applied(Color.BLACK, 0));
+        assertThrows(IllegalArgumentException.class, () -> board.applied(Color.BLACK, 44));
+        assertTrue(board.flips(Color.BLACK, 44).isEmpty());
+        
+        VariantBoard small = VariantBoard.initial(Geometry.of(6, 6));
+        assertThrows(IllegalArgumentException.class, () -> small.applied(Color.BLACK, 0));
+        assertEquals(small, VariantBoard.initial(Geometry.of(6, 6)));
+        assertNotEquals(small, small.applied(Color.BLACK, small.puttables(Color.BLACK).nextSetBit(0)));
+    }
+    
+    @Test
+    void testToString() {
+        String BR = System.lineSeparator();
+        
+        assertEquals(Board.toString(Board.initBoard()), VariantBoard.initial(Geometry.STANDARD).toString());
+        assertEquals(
+                "  a b c d " + BR
+                        + "1 ・・・・" + BR
+                        + "2 ・○●・" + BR
+                        + "3 ・●○・" + BR
+                        + "4 ・・・・" + BR,
+                VariantBoard.initial(Geometry.of(4, 4)).toString());
+        assertTrue(VariantBoard.initial(Geometry.of(10, 10)).toString().contains(BR + "10 "));
+    }
+}